@@ -0,0 +1,69 @@
+package com.example.simple_survey_tool.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import com.example.simple_survey_tool.model_layer.Answer;
+import com.example.simple_survey_tool.model_layer.Question;
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+
+/**
+ * Deterministic test data shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final List<String> LIKERT = List.of("Totally disagree", "Disagree", "Neutral", "Agree", "Fully Agree");
+
+    // Answer values as sent by the frontend ("1".."5"), shared to mirror Hibernate-loaded strings cheaply
+    private static final String[] OPTION_KEYS = { "1", "2", "3", "4", "5" };
+
+    private BenchmarkData() {
+    }
+
+    static List<Question> questions(int count) {
+        UUID surveyId = new UUID(0, 1);
+        List<Question> questions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Question question = new Question("Question " + i);
+            question.setId(new UUID(1, i));
+            question.setSurvey_id(surveyId);
+            question.setResponseOptions(LIKERT);
+            questions.add(question);
+        }
+        return questions;
+    }
+
+    static List<QuestionDefinition> definitions(List<Question> questions) {
+        return questions.stream().map(QuestionDefinition::of).toList();
+    }
+
+    /**
+     * Builds answers spread uniformly over the questions; roughly 1% are free-text answers outside the option range.
+     */
+    static List<Answer> answers(List<Question> questions, int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Answer> answers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Question question = questions.get(i % questions.size());
+            // Stored like the database does: choice answers as option ordinal, free-form answers as text
+            if (random.nextInt(100) == 0) {
+                answers.add(new Answer(null, null, null, question, "free text " + random.nextInt(10), null));
+            } else {
+                answers.add(new Answer(null, null, null, question, null, (short) (1 + random.nextInt(OPTION_KEYS.length))));
+            }
+        }
+        return answers;
+    }
+
+    static Map<UUID, String> submittedAnswers(List<Question> questions) {
+        Map<UUID, String> answers = new LinkedHashMap<>();
+        for (int i = 0; i < questions.size(); i++) {
+            answers.put(questions.get(i).getId(), OPTION_KEYS[i % OPTION_KEYS.length]);
+        }
+        return answers;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.simple_survey_tool.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.simple_survey_tool.model_layer.Question;
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+import com.example.simple_survey_tool.model_layer.SubmitAnswersRequest;
+import com.example.simple_survey_tool.model_layer.Survey;
+import com.example.simple_survey_tool.service_layer.ParallelResultEngine;
+import com.example.simple_survey_tool.service_layer.SurveyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+/**
+ * Benchmarks the Jackson (de)serialisation of submit requests and result responses,
+ * with the same naming strategy as the application.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Param({ "10", "50", "200" })
+    public int questions;
+
+    private ObjectMapper objectMapper;
+    private SubmitAnswersRequest request;
+    private byte[] requestJson;
+    private Map<String, Object> resultResponse;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .build();
+
+        List<Question> questionEntities = BenchmarkData.questions(questions);
+        request = new SubmitAnswersRequest();
+        request.setSurveyId(new UUID(0, 1).toString());
+        request.setAnswers(BenchmarkData.submittedAnswers(questionEntities));
+        requestJson = objectMapper.writeValueAsBytes(request);
+
+        SurveyService surveyService = new SurveyService(null, null, null, null, null, new ParallelResultEngine(1, Integer.MAX_VALUE, Integer.MAX_VALUE));
+        List<QuestionDefinition> definitions = BenchmarkData.definitions(questionEntities);
+        Map<UUID, Map<String, Long>> grouped = surveyService.groupAnswersByQuestion(BenchmarkData.answers(questionEntities, 100_000));
+        Survey survey = new Survey(new UUID(0, 1));
+        survey.setDescription("Benchmark survey");
+        survey.setCreatedAt(LocalDateTime.now());
+        survey.setUpdatedAt(LocalDateTime.now());
+        survey.setResponse_count(100_000 / questions);
+        resultResponse = surveyService.buildSurveyResultResponse(survey, surveyService.generateResultSummary(definitions, grouped));
+    }
+
+    @Benchmark
+    public byte[] serializeSubmitRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public SubmitAnswersRequest deserializeSubmitRequest() throws Exception {
+        return objectMapper.readValue(requestJson, SubmitAnswersRequest.class);
+    }
+
+    @Benchmark
+    public byte[] serializeResults() throws Exception {
+        return objectMapper.writeValueAsBytes(resultResponse);
+    }
+}
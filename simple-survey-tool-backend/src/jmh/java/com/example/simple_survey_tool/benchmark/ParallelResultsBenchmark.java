@@ -0,0 +1,70 @@
+package com.example.simple_survey_tool.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.example.simple_survey_tool.model_layer.Answer;
+import com.example.simple_survey_tool.model_layer.Question;
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+import com.example.simple_survey_tool.service_layer.ParallelResultEngine;
+import com.example.simple_survey_tool.service_layer.ResultAggregator;
+import com.example.simple_survey_tool.service_layer.SurveyService;
+
+/**
+ * Benchmarks the result computation of {@link SurveyService} on the {@link ParallelResultEngine}
+ * with 1 to 16 worker threads; the thresholds are 0, so every run uses the parallel path (1 = serial loop).
+ *
+ * The speedup relative to one thread is printed by ./gradlew jmhSpeedup after
+ * ./gradlew jmh -PjmhIncludes=ParallelResultsBenchmark. Run on a machine with at least 16 cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ParallelResultsBenchmark {
+
+    @Param({ "1", "2", "4", "8", "16" })
+    public int cores;
+
+    @Param({ "20", "500" })
+    public int questions;
+
+    @Param({ "1000000", "10000000" })
+    public int answers;
+
+    private ParallelResultEngine engine;
+    private SurveyService surveyService;
+    private List<QuestionDefinition> questionDefinitions;
+    private List<Answer> answerEntities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new ParallelResultEngine(cores, 0, 0);
+        // Only the pure computation methods are benchmarked, so no repositories are needed
+        surveyService = new SurveyService(null, null, null, null, null, engine);
+        List<Question> questionEntities = BenchmarkData.questions(questions);
+        questionDefinitions = BenchmarkData.definitions(questionEntities);
+        answerEntities = BenchmarkData.answers(questionEntities, answers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> aggregateAndSummarize() {
+        return engine.summary(surveyService.aggregateAnswers(new ResultAggregator(questionDefinitions), answerEntities));
+    }
+}
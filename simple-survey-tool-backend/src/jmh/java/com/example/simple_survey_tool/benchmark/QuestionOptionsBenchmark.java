@@ -0,0 +1,52 @@
+package com.example.simple_survey_tool.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+
+/**
+ * Benchmarks resolving submitted answers to option ordinals, done for every answer when it is stored.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class QuestionOptionsBenchmark {
+
+    @Param({ "5", "20" })
+    public int options;
+
+    private QuestionDefinition question;
+    private String optionAnswer;
+
+    @Setup
+    public void setUp() {
+        List<String> responseOptions = new ArrayList<>();
+        for (int i = 0; i < options; i++) {
+            responseOptions.add("Option number " + (i + 1));
+        }
+        question = new QuestionDefinition(new UUID(1, 1), new UUID(0, 1), "Question", responseOptions);
+        optionAnswer = String.valueOf(options);
+    }
+
+    @Benchmark
+    public int ordinalOfOption() {
+        return question.ordinalOf(optionAnswer);
+    }
+
+    @Benchmark
+    public int ordinalOfFreeText() {
+        return question.ordinalOf("Some free-form answer");
+    }
+}
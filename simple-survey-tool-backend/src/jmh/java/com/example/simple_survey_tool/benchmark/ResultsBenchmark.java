@@ -0,0 +1,75 @@
+package com.example.simple_survey_tool.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.simple_survey_tool.model_layer.Answer;
+import com.example.simple_survey_tool.model_layer.Question;
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+import com.example.simple_survey_tool.service_layer.ResultAggregator;
+import com.example.simple_survey_tool.service_layer.ParallelResultEngine;
+import com.example.simple_survey_tool.service_layer.SurveyService;
+
+/**
+ * Benchmarks the in-memory result computation of {@link SurveyService}:
+ * grouping answer entities and building the per-question summary (including option label mapping),
+ * via maps of boxed counts and via the ordinal-based {@link ResultAggregator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ResultsBenchmark {
+
+    @Param({ "10", "50", "200" })
+    public int questions;
+
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    public int answers;
+
+    private SurveyService surveyService;
+    private List<QuestionDefinition> questionDefinitions;
+    private List<Answer> answerEntities;
+    private Map<UUID, Map<String, Long>> groupedAnswers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Only the pure computation methods are benchmarked, so no repositories are needed
+        surveyService = new SurveyService(null, null, null, null, null, new ParallelResultEngine(1, Integer.MAX_VALUE, Integer.MAX_VALUE));
+        List<Question> questionEntities = BenchmarkData.questions(questions);
+        questionDefinitions = BenchmarkData.definitions(questionEntities);
+        answerEntities = BenchmarkData.answers(questionEntities, answers);
+        groupedAnswers = surveyService.groupAnswersByQuestion(answerEntities);
+    }
+
+    @Benchmark
+    public Map<UUID, Map<String, Long>> groupAnswersByQuestion() {
+        return surveyService.groupAnswersByQuestion(answerEntities);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> generateResultSummary() {
+        return surveyService.generateResultSummary(questionDefinitions, groupedAnswers);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> groupAndSummarize() {
+        return surveyService.generateResultSummary(questionDefinitions, surveyService.groupAnswersByQuestion(answerEntities));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> aggregateAndSummarize() {
+        return surveyService.aggregateAnswers(new ResultAggregator(questionDefinitions), answerEntities).summary();
+    }
+}
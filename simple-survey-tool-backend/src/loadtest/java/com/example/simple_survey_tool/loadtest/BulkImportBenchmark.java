@@ -0,0 +1,108 @@
+package com.example.simple_survey_tool.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.simple_survey_tool.SimpleSurveyToolApplication;
+import com.example.simple_survey_tool.loadtest.LoadClient.SurveyFixture;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Measures the throughput of POST /api/surveys/{id}/submissions/bulk.
+ *
+ * Starts a local PostgreSQL binary and the application like {@link LoadTestRunner}, creates one survey,
+ * writes --submissions random submissions with --questions answers each to an NDJSON file and uploads it
+ * in one request. Reports submissions and answers stored per second (target: 100k answers/s).
+ *
+ * Usage: ./gradlew bulkImportBenchmark -PloadtestArgs="--submissions=200000 --questions=10"
+ */
+public class BulkImportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int submissions = Integer.parseInt(options.getOrDefault("submissions", "200000"));
+        int questions = Integer.parseInt(options.getOrDefault("questions", "10"));
+
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = options.get("jdbc-url");
+        if (jdbcUrl == null) {
+            EmbeddedPostgres.Builder builder = EmbeddedPostgres.builder();
+            if (options.containsKey("data-dir")) {
+                builder.setDataDirectory(new File(options.get("data-dir"))).setCleanDataDirectory(false);
+            }
+            postgres = builder.start();
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys";
+        }
+
+        Path file = Files.createTempFile("submissions", ".ndjson");
+        // Command line arguments, since default properties would not override application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SimpleSurveyToolApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=" + options.getOrDefault("db-user", "postgres"),
+                        "--spring.datasource.password=" + options.getOrDefault("db-password", ""))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI baseUri = URI.create("http://localhost:" + port + "/api/surveys");
+            SurveyFixture survey = new LoadClient(baseUri).createSurvey(questions);
+            writeSubmissions(file, survey, submissions);
+
+            long start = System.nanoTime();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create(baseUri + "/" + survey.id() + "/submissions/bulk"))
+                            .header("Content-Type", "application/x-ndjson")
+                            .POST(HttpRequest.BodyPublishers.ofFile(file))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.println(response.statusCode() + " " + response.body());
+            System.out.printf("%,d submissions (%,d MB) in %.1f s: %,.0f submissions/s, %,.0f answers/s%n",
+                    submissions, Files.size(file) >> 20, seconds, submissions / seconds, (double) submissions * questions / seconds);
+        } finally {
+            Files.deleteIfExists(file);
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private static void writeSubmissions(Path file, SurveyFixture survey, int submissions) throws Exception {
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < submissions; i++) {
+                StringBuilder line = new StringBuilder(64 + survey.questionIds().size() * 48);
+                line.append("{\"submitted_at\":\"").append(start.plusSeconds(i)).append("\",\"answers\":{");
+                boolean first = true;
+                for (UUID questionId : survey.questionIds()) {
+                    if (!first) {
+                        line.append(',');
+                    }
+                    first = false;
+                    line.append('"').append(questionId).append("\":\"")
+                            .append(ThreadLocalRandom.current().nextInt(1, survey.options() + 1)).append('"');
+                }
+                writer.write(line.append("}}\n").toString());
+            }
+        }
+    }
+}
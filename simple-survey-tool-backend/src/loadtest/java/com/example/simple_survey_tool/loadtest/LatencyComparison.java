@@ -0,0 +1,166 @@
+package com.example.simple_survey_tool.loadtest;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.example.simple_survey_tool.SimpleSurveyToolApplication;
+import com.example.simple_survey_tool.loadtest.LoadClient.SurveyFixture;
+import com.example.simple_survey_tool.loadtest.OpenLoopDriver.Endpoint;
+import com.example.simple_survey_tool.loadtest.OpenLoopDriver.EndpointStats;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Compares the latency of the submit and results endpoints between platform-thread and
+ * virtual-thread request execution.
+ *
+ * The application is started twice in this JVM against a local PostgreSQL binary (or --jdbc-url),
+ * once with the default Tomcat pool and once with the "virtual" profile. Each endpoint is driven
+ * on its own at the same target rate with open-loop scheduling ({@link OpenLoopDriver}), so queueing
+ * in the server shows up in the latencies instead of slowing down the client. Every statement is
+ * delayed by --db-delay-ms, standing in for a remote database under load: the request threads then
+ * mostly wait on JDBC, which is where virtual threads differ.
+ *
+ * Usage: ./gradlew latencyComparison -PjavaVersion=21 -PloadtestArgs="--rps=500 --duration=30 --db-delay-ms=5"
+ */
+public class LatencyComparison {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestRunner.parse(args);
+        int rps = Integer.parseInt(options.getOrDefault("rps", "500"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int questions = Integer.parseInt(options.getOrDefault("questions", "20"));
+        long dbDelayMs = Long.parseLong(options.getOrDefault("db-delay-ms", "5"));
+        int maxOutstanding = Integer.parseInt(options.getOrDefault("max-outstanding", "10000"));
+
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = options.get("jdbc-url");
+        if (jdbcUrl == null) {
+            postgres = EmbeddedPostgres.start();
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys";
+        }
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("Open loop at %d req/s for %d s per endpoint, %d ms per statement", rps, duration, dbDelayMs));
+        report.add(String.format("%-9s %-8s %9s %8s %8s %9s %8s %7s %8s",
+                "threads", "endpoint", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "dropped"));
+        try {
+            for (boolean virtual : new boolean[] { false, true }) {
+                String mode = virtual ? "virtual" : "platform";
+                try (ConfigurableApplicationContext context = start(virtual, jdbcUrl, options, dbDelayMs)) {
+                    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                    LoadClient client = new LoadClient(URI.create("http://localhost:" + port + "/api/surveys"));
+                    List<SurveyFixture> surveys = List.of(client.createSurvey(questions));
+
+                    for (Endpoint endpoint : List.of(new Endpoint("submit", 1, client::submitRequest),
+                            new Endpoint("results", 1, client::resultsRequest))) {
+                        OpenLoopDriver driver = new OpenLoopDriver(client, List.of(endpoint), maxOutstanding);
+                        // Warm up JIT, caches and connection pools before measuring
+                        if (warmup > 0) {
+                            driver.run(Scenario.VIRAL, surveys, rps, warmup);
+                        }
+                        EndpointStats stats = driver.run(Scenario.VIRAL, surveys, rps, duration).get(endpoint.name());
+                        report.add(line(mode, endpoint.name(), stats, duration));
+                    }
+                }
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual, String jdbcUrl, Map<String, String> options, long dbDelayMs) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SimpleSurveyToolApplication.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(delayingDataSource(dbDelayMs)));
+        if (virtual) {
+            builder.profiles("virtual");
+        }
+        // Command line arguments, since default properties would not override application.properties
+        return builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + options.getOrDefault("db-user", "postgres"),
+                "--spring.datasource.password=" + options.getOrDefault("db-password", ""));
+    }
+
+    private static String line(String mode, String endpoint, EndpointStats stats, int duration) {
+        Histogram latency = stats.latencyMicros();
+        return String.format("%-9s %-8s %9.1f %8.2f %8.2f %9.2f %8.2f %7d %8d", mode, endpoint,
+                latency.getTotalCount() / (double) duration,
+                latency.getValueAtPercentile(50) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0,
+                latency.getValueAtPercentile(99.9) / 1000.0,
+                latency.getMaxValue() / 1000.0,
+                stats.errors(),
+                stats.dropped());
+    }
+
+    /**
+     * Wraps every DataSource so each executed statement takes at least the given time longer.
+     * The connection stays checked out meanwhile, as it would while a slow database works.
+     */
+    private static BeanPostProcessor delayingDataSource(long delayMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (delayMs <= 0 || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return (Connection) delaying(super.getConnection(), Connection.class, delayMs);
+                    }
+                };
+            }
+        };
+    }
+
+    private static Object delaying(Object target, Class<?> type, long delayMs) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (target instanceof Statement && method.getName().startsWith("execute")) {
+                        Thread.sleep(delayMs);
+                    }
+                    Object result = invoke(target, method, args);
+                    if (target instanceof Connection && result instanceof Statement statement) {
+                        Class<?> statementType = statement instanceof CallableStatement ? CallableStatement.class
+                            : statement instanceof PreparedStatement ? PreparedStatement.class
+                            : Statement.class;
+                        return delaying(statement, statementType, delayMs);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
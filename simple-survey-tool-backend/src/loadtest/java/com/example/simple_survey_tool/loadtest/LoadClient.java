@@ -0,0 +1,106 @@
+package com.example.simple_survey_tool.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * HTTP client for driving the survey API in load tests.
+ */
+public class LoadClient {
+
+    /**
+     * A survey created for a load test.
+     */
+    public record SurveyFixture(UUID id, List<UUID> questionIds, int options) {
+    }
+
+    private final URI baseUri;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public LoadClient(URI baseUri) {
+        this.baseUri = baseUri;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Creates a survey with the default Likert options through POST /api/surveys/.
+     *
+     * @param questions Number of questions.
+     * @return The created survey.
+     */
+    public SurveyFixture createSurvey(int questions) throws IOException, InterruptedException {
+        ObjectNode survey = objectMapper.createObjectNode();
+        survey.put("description", "Load test survey");
+        for (int i = 0; i < questions; i++) {
+            survey.withArray("questions").addObject().put("text", "Question " + (i + 1));
+        }
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(baseUri.resolve(baseUri.getPath() + "/"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(survey.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Creating survey failed with " + response.statusCode() + ": " + response.body());
+        }
+        JsonNode saved = objectMapper.readTree(response.body());
+        List<UUID> questionIds = new ArrayList<>();
+        int options = 0;
+        for (JsonNode question : saved.get("questions")) {
+            questionIds.add(UUID.fromString(question.get("id").asText()));
+            options = question.get("responseOptions").size();
+        }
+        return new SurveyFixture(UUID.fromString(saved.get("id").asText()), questionIds, options);
+    }
+
+    /**
+     * Builds a POST /api/surveys/submit request with random answers.
+     */
+    public HttpRequest submitRequest(SurveyFixture survey) {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("surveyId", survey.id().toString());
+        ObjectNode answers = request.putObject("answers");
+        for (UUID questionId : survey.questionIds()) {
+            answers.put(questionId.toString(), ThreadLocalRandom.current().nextInt(1, survey.options() + 1));
+        }
+        return HttpRequest.newBuilder(baseUri.resolve(baseUri.getPath() + "/submit"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(request.toString()))
+                .build();
+    }
+
+    /**
+     * Builds a GET /api/surveys/{id} request.
+     */
+    public HttpRequest surveyRequest(SurveyFixture survey) {
+        return HttpRequest.newBuilder(baseUri.resolve(baseUri.getPath() + "/" + survey.id())).GET().build();
+    }
+
+    /**
+     * Builds a GET /api/surveys/{id}/results request.
+     */
+    public HttpRequest resultsRequest(SurveyFixture survey) {
+        return HttpRequest.newBuilder(baseUri.resolve(baseUri.getPath() + "/" + survey.id() + "/results")).GET().build();
+    }
+
+    /**
+     * Sends a request asynchronously, discarding the response body.
+     */
+    public CompletableFuture<HttpResponse<Void>> sendAsync(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.simple_survey_tool.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.simple_survey_tool.SimpleSurveyToolApplication;
+import com.example.simple_survey_tool.loadtest.LoadClient.SurveyFixture;
+import com.example.simple_survey_tool.loadtest.OpenLoopDriver.Endpoint;
+import com.example.simple_survey_tool.loadtest.OpenLoopDriver.EndpointStats;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * End-to-end load test of the survey API.
+ *
+ * Starts a local PostgreSQL binary (no containers needed; pass --data-dir to keep the database
+ * between runs, or --jdbc-url to use an existing server), starts the application in this JVM,
+ * seeds surveys through POST /api/surveys/ and drives a weighted mix of /submit, /{id} and
+ * /{id}/results at a target rate with open-loop scheduling.
+ *
+ * Reports per endpoint: throughput, HDR latency percentiles (full distributions are written as
+ * .hgrm files to --report-dir) and database statements per request as measured by the server.
+ *
+ * Usage: ./gradlew loadTest -PloadtestArgs="--scenario=viral --rps=500 --duration=60 --mix=submit:70,survey:20,results:10"
+ */
+public class LoadTestRunner {
+
+    private static final Map<String, String> URI_TEMPLATES = Map.of(
+            "submit", "/api/surveys/submit",
+            "survey", "/api/surveys/{id}",
+            "results", "/api/surveys/{id}/results");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Scenario scenario = Scenario.of(options.getOrDefault("scenario", "viral"));
+        int rps = Integer.parseInt(options.getOrDefault("rps", "500"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int maxOutstanding = Integer.parseInt(options.getOrDefault("max-outstanding", "10000"));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "build/reports/loadtest"));
+
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = options.get("jdbc-url");
+        if (jdbcUrl == null) {
+            EmbeddedPostgres.Builder builder = EmbeddedPostgres.builder();
+            if (options.containsKey("data-dir")) {
+                builder.setDataDirectory(new File(options.get("data-dir"))).setCleanDataDirectory(false);
+            }
+            postgres = builder.start();
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys";
+        }
+
+        // Command line arguments, since default properties would not override application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SimpleSurveyToolApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=" + options.getOrDefault("db-user", "postgres"),
+                        "--spring.datasource.password=" + options.getOrDefault("db-password", ""))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadClient client = new LoadClient(URI.create("http://localhost:" + port + "/api/surveys"));
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+            List<SurveyFixture> surveys = scenario.seed(client);
+            OpenLoopDriver driver = new OpenLoopDriver(client, endpoints(client, options.getOrDefault("mix", "submit:70,survey:20,results:10")), maxOutstanding);
+
+            System.out.printf("Scenario %s: %d surveys x %d questions, %d rps for %d s (+%d s warm-up)%n",
+                    scenario.name(), scenario.surveys(), scenario.questionsPerSurvey(), rps, duration, warmup);
+            if (warmup > 0) {
+                driver.run(scenario, surveys, rps, warmup);
+            }
+
+            Map<String, double[]> statementsBefore = statementTotals(meterRegistry);
+            Map<String, EndpointStats> stats = driver.run(scenario, surveys, rps, duration);
+            Map<String, double[]> statementsAfter = statementTotals(meterRegistry);
+
+            Files.createDirectories(reportDir);
+            System.out.printf("%-8s %9s %8s %8s %8s %8s %8s %9s %7s %8s%n",
+                    "endpoint", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "db stmts", "errors", "dropped");
+            for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+                Histogram latency = entry.getValue().latencyMicros();
+                System.out.printf("%-8s %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %9.2f %7d %8d%n",
+                        entry.getKey(),
+                        latency.getTotalCount() / (double) duration,
+                        latency.getValueAtPercentile(50) / 1000.0,
+                        latency.getValueAtPercentile(90) / 1000.0,
+                        latency.getValueAtPercentile(99) / 1000.0,
+                        latency.getValueAtPercentile(99.9) / 1000.0,
+                        latency.getMaxValue() / 1000.0,
+                        statementsPerRequest(statementsBefore, statementsAfter, URI_TEMPLATES.get(entry.getKey())),
+                        entry.getValue().errors(),
+                        entry.getValue().dropped());
+                try (PrintStream out = new PrintStream(reportDir.resolve(scenario.name() + "-" + entry.getKey() + ".hgrm").toFile())) {
+                    latency.outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private static List<Endpoint> endpoints(LoadClient client, String mix) {
+        return Arrays.stream(mix.split(","))
+                .map(part -> part.split(":"))
+                .map(part -> new Endpoint(part[0], Integer.parseInt(part[1]), switch (part[0]) {
+                    case "submit" -> client::submitRequest;
+                    case "survey" -> client::surveyRequest;
+                    case "results" -> client::resultsRequest;
+                    default -> throw new IllegalArgumentException("Unknown endpoint " + part[0] + " in mix");
+                }))
+                .toList();
+    }
+
+    /**
+     * Snapshot of [count, total] of the server's per-request statement counts, by URI template.
+     */
+    private static Map<String, double[]> statementTotals(MeterRegistry meterRegistry) {
+        Map<String, double[]> totals = new HashMap<>();
+        for (DistributionSummary summary : meterRegistry.find("http.server.requests.db.statements").summaries()) {
+            double[] total = totals.computeIfAbsent(summary.getId().getTag("uri"), uri -> new double[2]);
+            total[0] += summary.count();
+            total[1] += summary.totalAmount();
+        }
+        return totals;
+    }
+
+    private static double statementsPerRequest(Map<String, double[]> before, Map<String, double[]> after, String uri) {
+        double[] start = before.getOrDefault(uri, new double[2]);
+        double[] end = after.getOrDefault(uri, new double[2]);
+        double requests = end[0] - start[0];
+        return requests == 0 ? 0 : (end[1] - start[1]) / requests;
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.simple_survey_tool.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.example.simple_survey_tool.loadtest.LoadClient.SurveyFixture;
+
+/**
+ * Sends requests at a fixed target rate regardless of how fast responses come back (open loop).
+ *
+ * Latency is measured from the moment a request was scheduled to be sent, not from when it was
+ * actually sent, so a slow server cannot hide queueing delay (no coordinated omission).
+ */
+public class OpenLoopDriver {
+
+    /**
+     * An endpoint of the request mix with its relative weight.
+     */
+    public record Endpoint(String name, int weight, Function<SurveyFixture, HttpRequest> request) {
+    }
+
+    /**
+     * Measurements of one endpoint.
+     */
+    public record EndpointStats(Histogram latencyMicros, long errors, long dropped) {
+    }
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final LoadClient client;
+    private final List<Endpoint> endpoints;
+    private final int totalWeight;
+    private final int maxOutstanding;
+
+    public OpenLoopDriver(LoadClient client, List<Endpoint> endpoints, int maxOutstanding) {
+        this.client = client;
+        this.endpoints = endpoints;
+        this.totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    /**
+     * Runs the request mix against the given surveys.
+     *
+     * @param scenario Decides which survey each request goes to.
+     * @param surveys Surveys created for the scenario.
+     * @param rps Target requests per second.
+     * @param durationSeconds Length of the run.
+     * @return Measurements per endpoint name, in mix order.
+     */
+    public Map<String, EndpointStats> run(Scenario scenario, List<SurveyFixture> surveys, int rps, int durationSeconds)
+            throws InterruptedException {
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        Map<String, AtomicLong> errors = new LinkedHashMap<>();
+        Map<String, AtomicLong> dropped = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            histograms.put(endpoint.name(), new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(endpoint.name(), new AtomicLong());
+            dropped.put(endpoint.name(), new AtomicLong());
+        }
+
+        AtomicInteger outstanding = new AtomicInteger();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long total = (long) rps * durationSeconds;
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+
+            Endpoint endpoint = pick();
+            if (outstanding.get() >= maxOutstanding) {
+                // The client itself would become the bottleneck; count the request as dropped instead
+                dropped.get(endpoint.name()).incrementAndGet();
+                continue;
+            }
+            outstanding.incrementAndGet();
+            client.sendAsync(endpoint.request().apply(scenario.pick(surveys))).whenComplete((response, failure) -> {
+                outstanding.decrementAndGet();
+                if (failure != null || response.statusCode() >= 400) {
+                    errors.get(endpoint.name()).incrementAndGet();
+                } else {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                    histograms.get(endpoint.name()).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                }
+            });
+        }
+        while (outstanding.get() > 0) {
+            Thread.sleep(10);
+        }
+
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        histograms.forEach((name, histogram) -> stats.put(name, new EndpointStats(histogram, errors.get(name).get(), dropped.get(name).get())));
+        return stats;
+    }
+
+    private Endpoint pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            ticket -= endpoint.weight();
+            if (ticket < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.simple_survey_tool.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.HdrHistogram.Histogram;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.simple_survey_tool.model_layer.UuidV7;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Compares the classic answers/submissions tables with the hash-partitioned ones created by V8.
+ *
+ * Loads --answers answers (default 100M, spread over --surveys surveys with 10 questions each) into both layouts,
+ * then measures for each layout
+ * - insert throughput of new submissions with their answers, sent as multi-row INSERTs like the batch writer does,
+ *   with random (v4) and time-ordered (v7) IDs, and into the classic tables while they are mirrored during a move
+ *   (db/partitioning/01_mirror.sql), and
+ * - latency of the per-survey results aggregation over the answers.
+ *
+ * Usage: ./gradlew partitionBenchmark -PloadtestArgs="--answers=100000000 --surveys=1000 --data-dir=/var/tmp/pg-bench"
+ * Loading 100M answers takes a while; with --data-dir the loaded database is kept and reused by later runs.
+ */
+public class PartitioningBenchmark {
+
+    private static final int QUESTIONS = 10;
+    private static final int INSERT_BATCH = 500;
+
+    private static final String RESULTS_CLASSIC = "SELECT a.question_id, a.option_ordinal, a.answer, COUNT(*) FROM answers a"
+            + " JOIN submissions s ON s.id = a.submission_id WHERE s.survey_id = ? GROUP BY 1, 2, 3";
+    private static final String RESULTS_PARTITIONED = "SELECT a.question_id, a.option_ordinal, a.answer, COUNT(*) FROM answers_partitioned a"
+            + " WHERE a.survey_id = ? GROUP BY 1, 2, 3";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        long answers = Long.parseLong(options.getOrDefault("answers", "100000000"));
+        int surveys = Integer.parseInt(options.getOrDefault("surveys", "1000"));
+        int insertSeconds = Integer.parseInt(options.getOrDefault("insert-seconds", "60"));
+        int resultQueries = Integer.parseInt(options.getOrDefault("result-queries", "200"));
+
+        EmbeddedPostgres postgres = null;
+        DataSource dataSource;
+        if (options.containsKey("jdbc-url")) {
+            dataSource = new DriverManagerDataSource(options.get("jdbc-url"), options.getOrDefault("db-user", "survey"), options.getOrDefault("db-password", "survey"));
+        } else {
+            EmbeddedPostgres.Builder builder = EmbeddedPostgres.builder().setServerConfig("max_wal_size", "8GB");
+            if (options.containsKey("data-dir")) {
+                builder.setDataDirectory(new File(options.get("data-dir"))).setCleanDataDirectory(false);
+            }
+            postgres = builder.start();
+            dataSource = postgres.getDatabase("postgres", "postgres", Map.of("currentSchema", "surveys"));
+        }
+
+        try {
+            Flyway.configure().dataSource(dataSource).schemas("surveys").locations("classpath:/db/migration").load().migrate();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            List<UUID> surveyIds = load(jdbcTemplate, surveys, answers);
+            Map<UUID, List<UUID>> questions = questions(jdbcTemplate);
+
+            System.out.printf("%,d answers in %,d surveys%n", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM answers", Long.class), surveyIds.size());
+            System.out.printf("%-34s %14s%n", "insert", "answers/s");
+            System.out.printf("%-34s %,14.0f%n", "classic, random UUIDs",
+                    insertThroughput(jdbcTemplate, "submissions", "answers", surveyIds, questions, UUID::randomUUID, insertSeconds));
+            System.out.printf("%-34s %,14.0f%n", "classic, UUIDv7",
+                    insertThroughput(jdbcTemplate, "submissions", "answers", surveyIds, questions, UuidV7::generate, insertSeconds));
+            System.out.printf("%-34s %,14.0f%n", "partitioned, UUIDv7",
+                    insertThroughput(jdbcTemplate, "submissions_partitioned", "answers_partitioned", surveyIds, questions, UuidV7::generate, insertSeconds));
+            jdbcTemplate.execute(mirrorScript());
+            try {
+                System.out.printf("%-34s %,14.0f%n", "classic mirrored, UUIDv7",
+                        insertThroughput(jdbcTemplate, "submissions", "answers", surveyIds, questions, UuidV7::generate, insertSeconds));
+            } finally {
+                jdbcTemplate.execute("DROP TRIGGER IF EXISTS mirror_answer ON answers");
+                jdbcTemplate.execute("DROP TRIGGER IF EXISTS mirror_submission ON submissions");
+            }
+
+            System.out.printf("%-34s %10s %10s %10s%n", "results", "p50 ms", "p99 ms", "max ms");
+            printLatency("classic (join via submissions)", resultsLatency(jdbcTemplate, RESULTS_CLASSIC, surveyIds, resultQueries));
+            printLatency("partitioned (survey_id pruning)", resultsLatency(jdbcTemplate, RESULTS_PARTITIONED, surveyIds, resultQueries));
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    /**
+     * Generates the data set in the classic tables (unless it is already there) and copies it into the partitioned ones.
+     * The partitioned tables are filled with one copy at the end.
+     */
+    private static List<UUID> load(JdbcTemplate jdbcTemplate, int surveys, long answers) {
+        List<UUID> existing = jdbcTemplate.queryForList("SELECT id FROM surveys WHERE description = 'partitioning benchmark'", UUID.class);
+        if (!existing.isEmpty()) {
+            return existing;
+        }
+        long submissionsPerSurvey = Math.max(1, answers / QUESTIONS / surveys);
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count)"
+                + " SELECT gen_random_uuid(), 'partitioning benchmark', now(), now(), ? FROM generate_series(1, ?)", submissionsPerSurvey, surveys);
+        jdbcTemplate.execute("INSERT INTO questions (id, text, survey_id) SELECT gen_random_uuid(), 'Question ' || q, s.id"
+                + " FROM surveys s CROSS JOIN generate_series(1, " + QUESTIONS + ") q WHERE s.description = 'partitioning benchmark'");
+        jdbcTemplate.execute("INSERT INTO question_options (question_id, ordinal, label) SELECT q.id, o, 'Option ' || o"
+                + " FROM questions q CROSS JOIN generate_series(1, 5) o");
+        List<UUID> surveyIds = jdbcTemplate.queryForList("SELECT id FROM surveys WHERE description = 'partitioning benchmark'", UUID.class);
+        for (UUID surveyId : surveyIds) {
+            jdbcTemplate.update("INSERT INTO submissions (id, survey_id, submitted_at)"
+                    + " SELECT gen_random_uuid(), ?, now() - g * interval '1 second' FROM generate_series(1, ?) g", surveyId, submissionsPerSurvey);
+            jdbcTemplate.update("INSERT INTO answers (id, submission_id, survey_id, question_id, option_ordinal)"
+                    + " SELECT gen_random_uuid(), s.id, s.survey_id, q.id, (1 + floor(random() * 5))::smallint"
+                    + " FROM submissions s JOIN questions q ON q.survey_id = s.survey_id WHERE s.survey_id = ?", surveyId);
+        }
+        jdbcTemplate.execute("INSERT INTO submissions_partitioned (id, survey_id, submitted_at) SELECT id, survey_id, submitted_at FROM submissions");
+        jdbcTemplate.execute("INSERT INTO answers_partitioned (id, survey_id, submission_id, question_id, answer, option_ordinal, created_at)"
+                + " SELECT id, survey_id, submission_id, question_id, answer, option_ordinal, created_at FROM answers");
+        jdbcTemplate.execute("ANALYZE");
+        return surveyIds;
+    }
+
+    /**
+     * @return The script installing the mirror triggers of a move to partitioned storage.
+     */
+    private static String mirrorScript() throws IOException {
+        try (InputStream script = PartitioningBenchmark.class.getResourceAsStream("/db/partitioning/01_mirror.sql")) {
+            return new String(script.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<UUID, List<UUID>> questions(JdbcTemplate jdbcTemplate) {
+        Map<UUID, List<UUID>> questions = new HashMap<>();
+        jdbcTemplate.query("SELECT survey_id, id FROM questions", rs -> {
+            questions.computeIfAbsent(rs.getObject(1, UUID.class), id -> new ArrayList<>()).add(rs.getObject(2, UUID.class));
+        });
+        return questions;
+    }
+
+    /**
+     * Inserts batches of submissions with their answers for the given time and returns the answers inserted per second.
+     */
+    private static double insertThroughput(JdbcTemplate jdbcTemplate, String submissionsTable, String answersTable, List<UUID> surveyIds,
+            Map<UUID, List<UUID>> questions, Supplier<UUID> ids, int seconds) {
+        String submissionSql = "INSERT INTO " + submissionsTable + " (id, survey_id, submitted_at) VALUES " + placeholders(INSERT_BATCH, 3);
+        String answerSql = "INSERT INTO " + answersTable + " (id, submission_id, survey_id, question_id, option_ordinal) VALUES "
+                + placeholders(INSERT_BATCH * QUESTIONS, 5);
+        long inserted = 0;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            List<Object> submissionArgs = new ArrayList<>(INSERT_BATCH * 3);
+            List<Object> answerArgs = new ArrayList<>(INSERT_BATCH * QUESTIONS * 5);
+            for (int i = 0; i < INSERT_BATCH; i++) {
+                UUID surveyId = surveyIds.get(ThreadLocalRandom.current().nextInt(surveyIds.size()));
+                UUID submissionId = ids.get();
+                Collections.addAll(submissionArgs, submissionId, surveyId, new Timestamp(System.currentTimeMillis()));
+                for (UUID questionId : questions.get(surveyId)) {
+                    Collections.addAll(answerArgs, ids.get(), submissionId, surveyId, questionId, (short) ThreadLocalRandom.current().nextInt(1, 6));
+                }
+            }
+            jdbcTemplate.update(submissionSql, submissionArgs.toArray());
+            jdbcTemplate.update(answerSql, answerArgs.toArray());
+            inserted += (long) INSERT_BATCH * QUESTIONS;
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        return inserted / elapsedSeconds;
+    }
+
+    private static Histogram resultsLatency(JdbcTemplate jdbcTemplate, String sql, List<UUID> surveyIds, int queries) {
+        Histogram latency = new Histogram(3);
+        for (int i = 0; i < queries; i++) {
+            UUID surveyId = surveyIds.get(ThreadLocalRandom.current().nextInt(surveyIds.size()));
+            long start = System.nanoTime();
+            jdbcTemplate.queryForList(sql, surveyId);
+            latency.recordValue((System.nanoTime() - start) / 1000);
+        }
+        return latency;
+    }
+
+    private static void printLatency(String name, Histogram latency) {
+        System.out.printf("%-34s %10.2f %10.2f %10.2f%n", name,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0, latency.getMaxValue() / 1000.0);
+    }
+
+    private static String placeholders(int rows, int columns) {
+        String row = "(" + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+        return String.join(", ", Collections.nCopies(rows, row));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.simple_survey_tool.loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.example.simple_survey_tool.loadtest.LoadClient.SurveyFixture;
+
+/**
+ * Shape of the survey population a load test runs against.
+ *
+ * - viral: one survey receives all traffic, which measures contention on its rows (response count, answer counts).
+ * - many-small: traffic is spread over many small surveys, which measures fan-out and cache behaviour.
+ */
+public record Scenario(String name, int surveys, int questionsPerSurvey, boolean skewed) {
+
+    public static final Scenario VIRAL = new Scenario("viral", 1, 20, true);
+    public static final Scenario MANY_SMALL = new Scenario("many-small", 1_000, 5, false);
+
+    public static Scenario of(String name) {
+        return switch (name) {
+            case "viral" -> VIRAL;
+            case "many-small" -> MANY_SMALL;
+            default -> throw new IllegalArgumentException("Unknown scenario " + name + ", expected viral or many-small");
+        };
+    }
+
+    /**
+     * Creates the surveys of this scenario through the API.
+     */
+    public List<SurveyFixture> seed(LoadClient client) throws IOException, InterruptedException {
+        List<SurveyFixture> fixtures = new ArrayList<>(surveys);
+        for (int i = 0; i < surveys; i++) {
+            fixtures.add(client.createSurvey(questionsPerSurvey));
+        }
+        return fixtures;
+    }
+
+    /**
+     * Picks the survey the next request goes to.
+     */
+    public SurveyFixture pick(List<SurveyFixture> fixtures) {
+        return skewed ? fixtures.get(0) : fixtures.get(ThreadLocalRandom.current().nextInt(fixtures.size()));
+    }
+}
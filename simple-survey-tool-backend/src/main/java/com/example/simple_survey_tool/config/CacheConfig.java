@@ -0,0 +1,39 @@
+package com.example.simple_survey_tool.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Enables the in-process caches. Size and TTL are configured with "spring.cache.caffeine.spec";
+ * hit, miss and eviction metrics are published through the actuator as "cache.*".
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Immutable {@link com.example.simple_survey_tool.model_layer.SurveyDefinition} snapshots keyed by survey ID.
+     */
+    public static final String SURVEY_DEFINITIONS = "surveyDefinitions";
+
+    /**
+     * Serialised JSON of survey results keyed by their ETag, bounded by total size in bytes
+     * ("survey.results.cache-max-bytes") instead of by entry count.
+     */
+    public static final String SURVEY_RESULTS = "surveyResults";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> surveyResultsCache(@Value("${survey.results.cache-max-bytes:67108864}") long maxBytes) {
+        return cacheManager -> cacheManager.registerCustomCache(SURVEY_RESULTS, Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Object key, Object value) -> ((byte[]) value).length)
+                .recordStats()
+                .build());
+    }
+}
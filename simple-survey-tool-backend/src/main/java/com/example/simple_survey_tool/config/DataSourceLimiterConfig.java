@@ -0,0 +1,52 @@
+package com.example.simple_survey_tool.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wraps the application DataSource in a {@link ConcurrencyLimitingDataSource} when
+ * "survey.db.max-concurrency" is greater than 0 (enabled by the "virtual" profile).
+ *
+ * The limit is the number of statements the database runs well at once, and must be below the
+ * connection pool size: the remaining connections are kept for the work on platform threads, which
+ * the limiter does not bound. With the limit equal to the pool size the limiter would only replace
+ * Hikari's own wait for a connection.
+ */
+@Configuration
+@ConditionalOnExpression("${survey.db.max-concurrency:0} > 0")
+public class DataSourceLimiterConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource(dataSource,
+                        environment.getRequiredProperty("survey.db.max-concurrency", Integer.class),
+                        environment.getProperty("survey.db.acquire-timeout-ms", Long.class, 2000L));
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("survey.db.limiter.waiting", limited, ConcurrencyLimitingDataSource::getWaiting)
+                        .description("Callers waiting for a database connection permit")
+                        .register(registry);
+                    Gauge.builder("survey.db.limiter.available", limited, ConcurrencyLimitingDataSource::getAvailable)
+                        .description("Free database connection permits")
+                        .register(registry);
+                });
+                return limited;
+            }
+        };
+    }
+}
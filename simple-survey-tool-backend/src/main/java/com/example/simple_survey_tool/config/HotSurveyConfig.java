@@ -0,0 +1,45 @@
+package com.example.simple_survey_tool.config;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.simple_survey_tool.service_layer.HotSurveyTracker;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Counts every request to /api/surveys/{id}/... in the {@link HotSurveyTracker}.
+ * Submissions carry the survey ID in the body and are counted by the controller.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class HotSurveyConfig implements WebMvcConfigurer {
+
+    private final HotSurveyTracker hotSurveyTracker;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+                if (variables instanceof Map<?, ?> map && map.get("id") instanceof String id) {
+                    try {
+                        hotSurveyTracker.record(UUID.fromString(id));
+                    } catch (IllegalArgumentException e) {
+                        // Not a UUID; the controller answers with 400
+                    }
+                }
+                return true;
+            }
+        }).addPathPatterns("/api/surveys/*", "/api/surveys/*/**");
+    }
+}
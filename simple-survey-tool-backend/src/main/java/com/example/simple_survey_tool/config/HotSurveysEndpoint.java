@@ -0,0 +1,30 @@
+package com.example.simple_survey_tool.config;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.example.simple_survey_tool.model_layer.HotSurvey;
+import com.example.simple_survey_tool.service_layer.HotSurveyTracker;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Actuator endpoint /actuator/hotsurveys listing the surveys with the most requests recently,
+ * as estimated by the {@link HotSurveyTracker}. Optional parameter "limit" (default 10).
+ */
+@Component
+@Endpoint(id = "hotsurveys")
+@RequiredArgsConstructor
+public class HotSurveysEndpoint {
+
+    private final HotSurveyTracker hotSurveyTracker;
+
+    @ReadOperation
+    public List<HotSurvey> hotSurveys(@Nullable Integer limit) {
+        return hotSurveyTracker.top(limit == null ? 10 : limit);
+    }
+}
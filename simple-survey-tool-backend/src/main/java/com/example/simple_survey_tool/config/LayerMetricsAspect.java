@@ -0,0 +1,91 @@
+package com.example.simple_survey_tool.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Times every public call into the controller, service and repository beans as "survey.layer.calls",
+ * tagged with the layer, the class, the method and the exception thrown (or "none").
+ * Repository calls additionally record the JDBC statements they executed as "survey.repository.statements",
+ * so a query method that turns into N+1 statements shows up by name. They are counted by the {@link StatementCounter}
+ * of the calling thread, so they include statements of result counting workers but not of work the call only queues
+ * for a background thread.
+ *
+ * Tags only take values from the code, never from request data, so the number of series is fixed.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class LayerMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final StatementCounter statementCounter;
+
+    @Around("execution(public * com.example.simple_survey_tool.controller_layer..*.*(..))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("controller", joinPoint);
+    }
+
+    @Around("execution(public * com.example.simple_survey_tool.service_layer..*.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("service", joinPoint);
+    }
+
+    // Spring Data repositories are interfaces whose inherited methods (save, findById, ...) are declared elsewhere
+    @Around("execution(public * com.example.simple_survey_tool.repository_layer..*+.*(..)) && !execution(* java.lang.Object.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        long statementsBefore = statementCounter.current();
+        try {
+            return time("repository", joinPoint);
+        } finally {
+            DistributionSummary.builder("survey.repository.statements")
+                .description("Database statements executed per repository call")
+                .tag("class", className(joinPoint))
+                .tag("method", joinPoint.getSignature().getName())
+                .register(meterRegistry)
+                .record(statementCounter.current() - statementsBefore);
+        }
+    }
+
+    private Object time(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Timer.builder("survey.layer.calls")
+                .description("Calls into the controller, service and repository layers")
+                .tag("layer", layer)
+                .tag("class", className(joinPoint))
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("exception", exception)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * The bean's own class rather than the declaring type of the method; for Spring Data repositories,
+     * whose target is a generic implementation, the repository interface implemented by the proxy.
+     */
+    private static String className(ProceedingJoinPoint joinPoint) {
+        for (Class<?> type : joinPoint.getThis().getClass().getInterfaces()) {
+            if (type.getPackageName().startsWith("com.example.simple_survey_tool")) {
+                return type.getSimpleName();
+            }
+        }
+        return joinPoint.getTarget().getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.simple_survey_tool.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Gives clients read-your-writes with read replicas: the response to every write request sets a cookie with the
+ * time after the handler returned, i.e. after the write committed. Requests carrying it only read from replicas that
+ * have caught up beyond that time (see {@link ReplicaRoutingConfig}). After "survey.replica.max-lag-ms" every replica
+ * in use has, so the cookie expires.
+ *
+ * The frontend is served from another origin, so it must send its requests with credentials ("withCredentials")
+ * for the cookie to be stored and sent back; CORS allows credentials for the configured origins. Being SameSite=Lax,
+ * the cookie only works while the frontend and the API are on the same site (e.g. different ports of one host);
+ * otherwise a read right after a write may go to a replica that has not caught up yet.
+ */
+@ControllerAdvice
+@ConditionalOnExpression("!'${survey.replica.urls:}'.isBlank()")
+public class ReadAfterWriteCookie implements ResponseBodyAdvice<Object> {
+
+    static final String NAME = "survey_read_after";
+
+    @Value("${survey.replica.max-lag-ms:1000}")
+    private long maxLagMs;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+        HttpMethod method = request.getMethod();
+        if (method != HttpMethod.GET && method != HttpMethod.HEAD && method != HttpMethod.OPTIONS) {
+            response.getHeaders().add(HttpHeaders.SET_COOKIE, ResponseCookie.from(NAME, Long.toString(System.currentTimeMillis()))
+                .path("/api/surveys")
+                .maxAge(Duration.ofMillis(maxLagMs).plusSeconds(1))
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build().toString());
+        }
+        return body;
+    }
+}
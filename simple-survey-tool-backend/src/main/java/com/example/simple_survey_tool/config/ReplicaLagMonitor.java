@@ -0,0 +1,144 @@
+package com.example.simple_survey_tool.config;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks how far each read replica has caught up with the primary.
+ *
+ * Every check samples the primary's current WAL position and then each replica's replayed position. A replica that
+ * replayed the position sampled at time t has every transaction committed before t, so its lag is the age of the
+ * newest such sample. This holds for idle and busy primaries alike, unlike the age of the last replayed transaction.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String PRIMARY_LSN = "SELECT (pg_current_wal_lsn() - '0/0')::bigint";
+    private static final String REPLAY_LSN = "SELECT (pg_last_wal_replay_lsn() - '0/0')::bigint";
+
+    private final JdbcTemplate primary;
+    private final List<String> names;
+    private final List<JdbcTemplate> replicas;
+    private final long maxLagMs;
+    private final ArrayDeque<long[]> samples = new ArrayDeque<>();
+    private final AtomicLongArray caughtUpTo;
+    private final boolean[] reachable;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary Connections to the primary.
+     * @param names Names of the replicas, as routing keys.
+     * @param replicas Connections to the replicas, in the order of the names.
+     * @param maxLagMs Largest lag at which a replica is still used.
+     */
+    public ReplicaLagMonitor(JdbcTemplate primary, List<String> names, List<JdbcTemplate> replicas, long maxLagMs) {
+        this.primary = primary;
+        this.names = names;
+        this.replicas = replicas;
+        this.maxLagMs = maxLagMs;
+        this.caughtUpTo = new AtomicLongArray(names.size());
+        this.reachable = new boolean[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            caughtUpTo.set(i, Long.MIN_VALUE);
+            reachable[i] = true;
+        }
+    }
+
+    /**
+     * Samples the primary and then every replica.
+     */
+    @Scheduled(fixedDelayString = "${survey.replica.lag-check-interval-ms:200}")
+    public void check() {
+        try {
+            recordPrimary(System.currentTimeMillis(), primary.queryForObject(PRIMARY_LSN, Long.class));
+        } catch (DataAccessException e) {
+            log.warn("Reading the WAL position of the primary failed", e);
+            return;
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Long replayed;
+            try {
+                replayed = replicas.get(i).queryForObject(REPLAY_LSN, Long.class);
+                if (replayed == null && reachable[i]) {
+                    log.warn("Replica {} is not replaying WAL, reading from the primary", names.get(i));
+                }
+            } catch (DataAccessException e) {
+                replayed = null;
+                if (reachable[i]) {
+                    log.warn("Replica {} is unreachable, reading from the primary", names.get(i), e);
+                }
+            }
+            if (replayed != null && !reachable[i]) {
+                log.info("Replica {} is replaying WAL again", names.get(i));
+            }
+            reachable[i] = replayed != null;
+            recordReplica(i, replayed);
+        }
+    }
+
+    synchronized void recordPrimary(long time, long lsn) {
+        samples.addLast(new long[] { time, lsn });
+        // Older samples only tell how far beyond the limit a replica is
+        while (samples.size() > 1 && samples.peekFirst()[0] < time - 2 * maxLagMs) {
+            samples.removeFirst();
+        }
+    }
+
+    synchronized void recordReplica(int replica, Long replayedLsn) {
+        long time = Long.MIN_VALUE;
+        if (replayedLsn != null) {
+            for (Iterator<long[]> newestFirst = samples.descendingIterator(); newestFirst.hasNext();) {
+                long[] sample = newestFirst.next();
+                if (sample[1] <= replayedLsn) {
+                    time = sample[0];
+                    break;
+                }
+            }
+        }
+        caughtUpTo.set(replica, time);
+    }
+
+    /**
+     * @param readAfter Epoch milliseconds up to which all commits must be visible.
+     * @param now Current epoch milliseconds.
+     * @return The next replica in turn that is fresh enough, or {@link ReplicaReads#PRIMARY}.
+     */
+    String pick(long readAfter, long now) {
+        int start = Math.floorMod(next.getAndIncrement(), names.size());
+        for (int i = 0; i < names.size(); i++) {
+            int replica = (start + i) % names.size();
+            if (isEligible(replica, readAfter, now)) {
+                return names.get(replica);
+            }
+        }
+        return ReplicaReads.PRIMARY;
+    }
+
+    boolean isEligible(String name, long readAfter, long now) {
+        int replica = names.indexOf(name);
+        return replica >= 0 && isEligible(replica, readAfter, now);
+    }
+
+    private boolean isEligible(int replica, long readAfter, long now) {
+        long time = caughtUpTo.get(replica);
+        return time != Long.MIN_VALUE && time >= readAfter && now - time <= maxLagMs;
+    }
+
+    /**
+     * @param replica Index of the replica.
+     * @return Milliseconds since the newest point in time the replica has caught up with, or NaN if unknown.
+     */
+    public double lagMs(int replica) {
+        long time = caughtUpTo.get(replica);
+        return time == Long.MIN_VALUE ? Double.NaN : System.currentTimeMillis() - time;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.simple_survey_tool.config;
+
+/**
+ * Per-thread routing state of read-only transactions when read replicas are configured (see {@link ReplicaRoutingConfig}).
+ *
+ * Within an HTTP request, all read-only transactions use the same database: the first one picks a replica that is
+ * fresh enough, later ones stay on it, or on the primary once it was used. A replica only moves forward, so a
+ * request never reads older data than it already read (e.g. results older than the survey version they are cached by).
+ * Outside requests every read-only transaction picks a replica on its own. Without replicas all methods are no-ops.
+ */
+public final class ReplicaReads {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    private ReplicaReads() {
+    }
+
+    /**
+     * Runs work whose read-only transactions must see all committed data, e.g. a load that relies on receiving
+     * every later submission as an event.
+     *
+     * @param work Work to run on the primary.
+     */
+    public static void onPrimary(Runnable work) {
+        State state = STATE.get();
+        boolean scoped = state == null;
+        if (scoped) {
+            state = new State(0);
+            STATE.set(state);
+        }
+        state.primaryOnly++;
+        try {
+            work.run();
+        } finally {
+            state.primaryOnly--;
+            if (scoped) {
+                STATE.remove();
+            }
+        }
+    }
+
+    /**
+     * Starts the routing scope of a request.
+     *
+     * @param readAfter Epoch milliseconds up to which the request must see all commits (0 for none).
+     */
+    static void start(long readAfter) {
+        STATE.set(new State(readAfter));
+    }
+
+    static void end() {
+        STATE.remove();
+    }
+
+    /**
+     * @return Epoch milliseconds up to which the current request must see all commits, or 0.
+     */
+    static long readAfter() {
+        State state = STATE.get();
+        return state == null ? 0 : state.readAfter;
+    }
+
+    /**
+     * Chooses the database of a read-only transaction.
+     *
+     * @param monitor Freshness of the replicas.
+     * @return {@link #PRIMARY} or the name of a replica.
+     */
+    static String route(ReplicaLagMonitor monitor) {
+        State state = STATE.get();
+        long now = System.currentTimeMillis();
+        if (state == null) {
+            return monitor.pick(0, now);
+        }
+        if (state.primaryOnly > 0) {
+            return PRIMARY;
+        }
+        if (state.pinned == null || !(state.pinned.equals(PRIMARY) || monitor.isEligible(state.pinned, state.readAfter, now))) {
+            // A pinned replica that fell behind is left for the primary, which is at least as recent
+            state.pinned = state.pinned == null ? monitor.pick(state.readAfter, now) : PRIMARY;
+        }
+        return state.pinned;
+    }
+
+    private static final class State {
+
+        private final long readAfter;
+        private String pinned;
+        private int primaryOnly;
+
+        State(long readAfter) {
+            this.readAfter = readAfter;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.simple_survey_tool.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.util.WebUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sends read-only transactions to read replicas when "survey.replica.urls" lists any, everything else to the
+ * primary configured by "spring.datasource.*". Each database gets its own Hikari pool ("primary", "replica-1", ...).
+ *
+ * The DataSource defers fetching a physical connection to the first statement, when the transaction's read-only
+ * flag is known. A read-only transaction goes to a replica (in turn) if:
+ * - the replica has caught up with the primary as of at most "survey.replica.max-lag-ms" ago (see {@link ReplicaLagMonitor}),
+ * - and it has every commit of the client's recent writes: responses to writes set the cookie {@value ReadAfterWriteCookie#NAME}
+ *   with the time after the commit, and requests carrying it only use replicas that caught up beyond that time.
+ * Otherwise it goes to the primary. Non-transactional reads and loads that must see all commits
+ * ({@link ReplicaReads#onPrimary(Runnable)}) always go to the primary.
+ *
+ * The EntityManager of a request (open-in-view) gives its connection back after every transaction, so each
+ * transaction is routed on its own instead of reusing the database of the request's first transaction.
+ */
+@Configuration
+@ConditionalOnExpression("!'${survey.replica.urls:}'.isBlank()")
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+
+    @Value("${survey.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${survey.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${survey.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${survey.replica.pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${survey.replica.max-lag-ms:1000}")
+    private long maxLagMs;
+
+    /**
+     * Connection pools of the primary and the replicas, closed with the context.
+     */
+    public record Pools(HikariDataSource primary, Map<String, HikariDataSource> replicas) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            replicas.values().forEach(HikariDataSource::close);
+            primary.close();
+        }
+    }
+
+    @Bean
+    public Pools replicaPools(DataSourceProperties properties, Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicaReads.PRIMARY);
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = new HikariDataSource();
+            primary.copyStateTo(replica);
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            // A negative minimum (not configured) means as many idle connections as the pool size
+            int minimumIdle = primary.getMinimumIdle();
+            replica.setMinimumIdle(minimumIdle < 0 ? replicaPoolSize : Math.min(minimumIdle, replicaPoolSize));
+            replica.setReadOnly(true);
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replicas.put(replica.getPoolName(), replica);
+        }
+        meterRegistry.ifAvailable(registry -> {
+            primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicas.values().forEach(replica -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        });
+        return new Pools(primary, replicas);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(Pools pools, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<String> names = new ArrayList<>(pools.replicas().keySet());
+        List<JdbcTemplate> replicas = pools.replicas().values().stream().map(JdbcTemplate::new).toList();
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(new JdbcTemplate(pools.primary()), names, replicas, maxLagMs);
+        meterRegistry.ifAvailable(registry -> {
+            for (int i = 0; i < names.size(); i++) {
+                int replica = i;
+                Gauge.builder("survey.db.replica.lag", monitor, m -> m.lagMs(replica))
+                    .description("Time since the newest point the replica has fully caught up with")
+                    .baseUnit("milliseconds")
+                    .tag("replica", names.get(i))
+                    .register(registry);
+            }
+        });
+        return monitor;
+    }
+
+    @Bean
+    public DataSource dataSource(Pools pools, ReplicaLagMonitor monitor) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? ReplicaReads.route(monitor) : ReplicaReads.PRIMARY;
+            }
+        };
+        Map<Object, Object> targets = new HashMap<>(pools.replicas());
+        targets.put(ReplicaReads.PRIMARY, pools.primary());
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(pools.primary());
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Releases the connection of an EntityManager after each transaction; by default Hibernate holds it until the
+     * EntityManager closes, which with open-in-view is the end of the request. A write after a read-only transaction
+     * would then run on the replica, and loads on the primary would read from it.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * Carries the read-after time of a request to the thread that completes it asynchronously (e.g. exports).
+     */
+    @Bean
+    public TaskDecorator replicaReadsTaskDecorator() {
+        return task -> {
+            long readAfter = ReplicaReads.readAfter();
+            return () -> {
+                ReplicaReads.start(readAfter);
+                try {
+                    task.run();
+                } finally {
+                    ReplicaReads.end();
+                }
+            };
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                Cookie cookie = WebUtils.getCookie(request, ReadAfterWriteCookie.NAME);
+                long readAfter = 0;
+                if (cookie != null) {
+                    try {
+                        readAfter = Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        // Ignored; the request reads from any fresh replica
+                    }
+                }
+                ReplicaReads.start(readAfter);
+                return true;
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                ReplicaReads.end();
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                ReplicaReads.end();
+            }
+        }).addPathPatterns("/api/surveys", "/api/surveys/**");
+    }
+}
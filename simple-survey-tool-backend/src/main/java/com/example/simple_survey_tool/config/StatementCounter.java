@@ -0,0 +1,75 @@
+package com.example.simple_survey_tool.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the JDBC statements executed on the current thread.
+ *
+ * Every execute call (including executeBatch, which the driver sends as one multi-row statement)
+ * is one database round trip, so the difference between two {@link #current()} readings is the
+ * number of round trips made in between. Statements are counted by {@link StatementCountingDataSource},
+ * which covers Hibernate as well as plain JDBC access.
+ *
+ * Work a thread hands to a pool on its behalf and waits for (such as parallel result counting) runs in the
+ * thread's {@link #capture() context}, so its statements count for that thread. Background threads (submission
+ * writers, live results, journal, cluster listener) keep their own counts: their statements show up per
+ * repository call, but not in the per-request and per-submission statement counts.
+ */
+@Component
+public class StatementCounter {
+
+    private static final ThreadLocal<AtomicLong> COUNT = ThreadLocal.withInitial(AtomicLong::new);
+
+    /**
+     * Returns the number of statements executed on the current thread so far.
+     *
+     * @return Monotonically increasing statement count for this thread.
+     */
+    public long current() {
+        return COUNT.get().get();
+    }
+
+    /**
+     * Captures the count of the current thread, for tasks that other threads run on its behalf.
+     *
+     * @return Context that counts statements for the current thread.
+     */
+    public static Context capture() {
+        return new Context(COUNT.get());
+    }
+
+    static void increment() {
+        COUNT.get().incrementAndGet();
+    }
+
+    /**
+     * Statement count of the thread that captured it.
+     */
+    public static final class Context {
+
+        private final AtomicLong count;
+
+        private Context(AtomicLong count) {
+            this.count = count;
+        }
+
+        /**
+         * Runs a task on the current thread, counting its statements for the thread that captured this context.
+         *
+         * @param task Task to run.
+         * @return Result of the task.
+         */
+        public <T> T call(Supplier<T> task) {
+            AtomicLong own = COUNT.get();
+            COUNT.set(count);
+            try {
+                return task.get();
+            } finally {
+                COUNT.set(own);
+            }
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.example.simple_survey_tool.controller_layer;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -12,17 +21,37 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.example.simple_survey_tool.model_layer.Answer;
-import com.example.simple_survey_tool.model_layer.Question;
-import com.example.simple_survey_tool.model_layer.Submission;
+import com.example.simple_survey_tool.model_layer.BulkImportResult;
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.ResultsQuery;
 import com.example.simple_survey_tool.model_layer.SubmitAnswersRequest;
 import com.example.simple_survey_tool.model_layer.Survey;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.model_layer.SurveyDetails;
+import com.example.simple_survey_tool.model_layer.SurveyVersion;
+import com.example.simple_survey_tool.model_layer.TimeBucket;
+import com.example.simple_survey_tool.service_layer.ApproximateResultsService;
+import com.example.simple_survey_tool.service_layer.BulkImportService;
+import com.example.simple_survey_tool.service_layer.ExportService;
+import com.example.simple_survey_tool.service_layer.HotSurveyTracker;
+import com.example.simple_survey_tool.service_layer.IdempotencyService;
+import com.example.simple_survey_tool.service_layer.LiveResultsService;
+import com.example.simple_survey_tool.service_layer.ResultsQueryService;
+import com.example.simple_survey_tool.service_layer.SubmissionQueue;
 import com.example.simple_survey_tool.service_layer.SubmissionService;
+import com.example.simple_survey_tool.service_layer.SubmissionsNotAcceptedException;
+import com.example.simple_survey_tool.service_layer.SurveyResultsService;
 import com.example.simple_survey_tool.service_layer.SurveyService;
+import com.example.simple_survey_tool.service_layer.TimeseriesService;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -38,6 +67,16 @@ public class SurveyController {
 
     private final SurveyService surveyService;
     private final SubmissionService submissionService;
+    private final SubmissionQueue submissionQueue;
+    private final ExportService exportService;
+    private final TimeseriesService timeseriesService;
+    private final SurveyResultsService surveyResultsService;
+    private final LiveResultsService liveResultsService;
+    private final BulkImportService bulkImportService;
+    private final HotSurveyTracker hotSurveyTracker;
+    private final ResultsQueryService resultsQueryService;
+    private final ApproximateResultsService approximateResultsService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Creates a new survey.
@@ -51,15 +90,56 @@ public class SurveyController {
     }
 
     /**
-     * Retrieves a survey by its ID.
+     * Creates many surveys from a JSON array of surveys in the format of a single survey creation.
+     * The array is read incrementally and stored in batches; invalid surveys are reported and skipped.
+     * @param body - Request body.
+     * @return ResponseEntity with the import result (including the IDs of the created surveys) or BAD_REQUEST if the body is not a JSON array.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> importSurveys(InputStream body) {
+        try {
+            return ResponseEntity.ok(bulkImportService.importSurveys(body));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Lists surveys ordered by creation time, without their questions.
+     * @param after - Cursor ("next_cursor" of the previous page); omit for the first page.
+     * @param limit - Page size (default 50, capped at survey.listing.max-limit).
+     * @return ResponseEntity with the page or BAD_REQUEST for an invalid cursor or limit.
+     */
+    @GetMapping({ "", "/" })
+    public ResponseEntity<?> listSurveys(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(surveyService.listSurveys(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves a survey with its questions by its ID.
+     *
+     * The questions come from the cached definition, the response count and last update from the survey row.
+     * These change with every submission, so the response carries a strong ETag of them and must be revalidated;
+     * a matching If-None-Match is answered with 304 after reading the survey row only.
      * @param id - Survey ID.
-     * @return ResponseEntity with the Survey or a NOT_FOUND status if not found.
+     * @param request - Current request, for the If-None-Match check.
+     * @return ResponseEntity with the survey, NOT_MODIFIED, or a NOT_FOUND status if not found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Survey> getSurveyById(@PathVariable UUID id) {
+    public ResponseEntity<SurveyDetails> getSurveyById(@PathVariable UUID id, WebRequest request) {
         try {
-            Survey survey = surveyService.getSurveyById(id);
-            return ResponseEntity.ok(survey);
+            SurveyVersion version = surveyService.getSurveyVersion(id);
+            String etag = version.surveyEtag();
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+            }
+            SurveyDetails survey = SurveyDetails.of(surveyService.getSurveyDefinition(id), version);
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(survey);
         } catch (EntityNotFoundException ex) {
             return ResponseEntity.notFound().build();
         }
@@ -67,24 +147,59 @@ public class SurveyController {
 
     /**
      * Submits answers for a survey.
+     *
+     * With queued ingestion the submission is only validated and accepted here; the response is
+     * 202 with the submission ID, or 429 if the ingestion buffer is full.
+     * With an Idempotency-Key header a retry of a stored (or accepted) submission stores nothing and gets the
+     * response of the original submission again: 200, or 202 with the original submission ID.
      * @param submitAnswersRequest - Request containing survey ID and answers.
+     * @param idempotencyKey - Key identifying all attempts of one submission to the survey, at most 255 characters.
      * @return ResponseEntity with success or error message.
      */
     @PostMapping("/submit")
-    public ResponseEntity<String> submitAnswers(@RequestBody SubmitAnswersRequest submitAnswersRequest) {
+    public ResponseEntity<String> submitAnswers(@RequestBody SubmitAnswersRequest submitAnswersRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            Submission submission = submissionService.createSubmission(submitAnswersRequest.getSurveyId());
-            Map<UUID, String> answers = submitAnswersRequest.getAnswers();
-
-            // Process each answer and save them
-            submissionService.saveAnswers(submission, submitAnswersRequest.getSurveyId(), answers);
+            IdempotencyService.validateKey(idempotencyKey);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        try {
+            hotSurveyTracker.record(submitAnswersRequest.getSurveyId());
+            if (submissionQueue.isEnabled()) {
+                PendingSubmission submission = submissionService.prepareSubmission(submitAnswersRequest);
+                if (idempotencyKey != null) {
+                    UUID original = idempotencyService.findOriginal(submission.surveyId(), idempotencyKey);
+                    if (original == null) {
+                        original = idempotencyService.claim(submission.surveyId(), idempotencyKey, submission.id());
+                    }
+                    if (original != null) {
+                        return ResponseEntity.accepted().body(original.toString());
+                    }
+                }
+                boolean accepted = false;
+                try {
+                    accepted = submissionQueue.offer(submission);
+                } finally {
+                    if (!accepted && idempotencyKey != null) {
+                        // Let the client's retry through
+                        idempotencyService.release(submission.surveyId(), idempotencyKey, submission.id());
+                    }
+                }
+                if (!accepted) {
+                    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Too many submissions, please retry later.");
+                }
+                return ResponseEntity.accepted().body(submission.id().toString());
+            }
 
-            // Update the survey response count
-            surveyService.updateSurvey(surveyService.getSurveyById(submitAnswersRequest.getSurveyId()));
+            // Validates and stores the submission and all answers in one transaction, unless the key was used before
+            submissionService.submitAnswers(submitAnswersRequest, idempotencyKey);
 
             return ResponseEntity.ok("Answers submitted successfully.");
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Survey not found.");
+        } catch (SubmissionsNotAcceptedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Submissions are not accepted at the moment.");
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid answers provided.");
         } catch (Exception e) {
@@ -96,30 +211,217 @@ public class SurveyController {
 
     /**
      * Retrieves the results for a survey.
+     *
+     * The ETag changes with every submission. A matching If-None-Match is answered with 304 after reading
+     * the survey row only; otherwise the serialised results are served from the results cache or computed once
+     * for the current version. Clients must revalidate on every use (Cache-Control: no-cache).
+     *
+     * With mode=approx the option counts are read by key and free-text answers are taken from per-question sketches,
+     * so the time does not grow with the number of answers; the response has "mode": "approx" and error bounds per
+     * question. If the sketches cannot guarantee the requested error, the exact results are returned.
      * @param id - Survey ID.
-     * @return ResponseEntity with survey results or an error message.
+     * @param mode - "exact" (default) or "approx".
+     * @param error - Largest acceptable overestimate of an approximate free-text count, relative to the question's free-text answers (default 0.01).
+     * @param request - Current request, for the If-None-Match check.
+     * @return ResponseEntity with survey results, NOT_MODIFIED, or an error message.
      */
     @GetMapping("/{id}/results")
-    public ResponseEntity<?> getSurveyResults(@PathVariable UUID id) {
+    public ResponseEntity<?> getSurveyResults(@PathVariable UUID id,
+            @RequestParam(defaultValue = "exact") String mode,
+            @RequestParam(defaultValue = "0.01") double error,
+            WebRequest request) {
         try {
-            Survey survey = surveyService.getSurveyById(id);
-            List<Question> questions = surveyService.getQuestionsBySurveyId(id);
-            List<Answer> allAnswers = submissionService.getAnswersBySurveyId(id);
+            SurveyVersion version = surveyService.getSurveyVersion(id);
+            if ("approx".equalsIgnoreCase(mode)) {
+                Map<String, Object> approximate = approximateResultsService.getApproximateResults(version, error);
+                if (approximate != null) {
+                    return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(approximate);
+                }
+            } else if (!"exact".equalsIgnoreCase(mode)) {
+                return ResponseEntity.badRequest().body("Unsupported results mode: " + mode);
+            }
+            String etag = version.resultsEtag();
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+            }
 
-            Map<UUID, Map<String, Long>> groupedAnswers = surveyService.groupAnswersByQuestion(allAnswers);
+            // Count the answers per question and option, build the response and serialise it (or take it from the cache)
+            byte[] response = surveyResultsService.getResultsJson(version);
 
-            // Prepare the result summary for each question
-            List<Map<String, Object>> resultSummary = surveyService.generateResultSummary(questions, groupedAnswers);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(response);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Failed to retrieve survey results.");
+        }
+    }
 
-            // Construct final response object with survey metadata and results
-            Map<String, Object> response = surveyService.buildSurveyResultResponse(survey, resultSummary);
+    /**
+     * Retrieves the results of the submissions matching answer filters and a submission time range,
+     * optionally with cross-tabulations of question pairs, e.g. the results of all questions among the
+     * respondents who answered "Agree" on the first one. Evaluated on an in-memory index of the survey
+     * that is built on the first query.
+     * @param id - Survey ID.
+     * @param query - Filters ("question_id" with accepted "answers" as option numbers or labels), "submitted_from",
+     *              "submitted_to" and "cross_tabs" ("row_question_id", "column_question_id").
+     * @return ResponseEntity with the filtered results, NOT_FOUND for an unknown survey or BAD_REQUEST for an invalid query.
+     */
+    @PostMapping("/{id}/results/query")
+    public ResponseEntity<?> querySurveyResults(@PathVariable UUID id, @RequestBody ResultsQuery query) {
+        try {
+            SurveyDefinition definition = surveyService.getSurveyDefinition(id);
+            return ResponseEntity.ok(resultsQueryService.query(definition, query));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
-            return ResponseEntity.ok(response);
+    /**
+     * Streams live results of a survey as Server-Sent Events: a "snapshot" event with the current results,
+     * then at most one "results" event per "survey.live.interval-ms" with the counts of the submissions
+     * committed since the previous one. Every submission is counted in exactly one of them. A "resync" event
+     * means deltas were dropped because the client was too slow; the client should reload the results.
+     * @param id - Survey ID.
+     * @return ResponseEntity with the event stream, NOT_FOUND for an unknown survey, or SERVICE_UNAVAILABLE if too many streams are open.
+     */
+    @GetMapping(path = "/{id}/results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSurveyResults(@PathVariable UUID id) {
+        SurveyDefinition definition;
+        try {
+            definition = surveyService.getSurveyDefinition(id);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Failed to retrieve survey results.");
+            return ResponseEntity.internalServerError().build();
+        }
+
+        SseEmitter emitter = liveResultsService.subscribe(definition);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // Keeps reverse proxies from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    /**
+     * Imports historical submissions of a survey from a newline-delimited JSON body, one submission per line:
+     * {"id":...,"submitted_at":...,"answers":{"<question id>":"<answer>",...}} (ID and time optional).
+     * The body is streamed and written in batches; invalid lines are reported and skipped.
+     * @param id - Survey ID.
+     * @param body - Request body.
+     * @return ResponseEntity with the import result, NOT_FOUND for an unknown survey or BAD_REQUEST if the body cannot be read.
+     */
+    @PostMapping("/{id}/submissions/bulk")
+    public ResponseEntity<?> importSubmissions(@PathVariable UUID id, InputStream body) {
+        try {
+            SurveyDefinition definition = surveyService.getSurveyDefinition(id);
+            BulkImportResult result = bulkImportService.importSubmissions(definition, body);
+            return ResponseEntity.ok(result);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Lists the submissions of a survey with their answers, ordered by submission time.
+     * @param id - Survey ID.
+     * @param after - Cursor ("next_cursor" of the previous page); omit for the first page.
+     * @param limit - Page size (default 50, capped at survey.listing.max-limit).
+     * @return ResponseEntity with the page, NOT_FOUND for an unknown survey or BAD_REQUEST for an invalid cursor or limit.
+     */
+    @GetMapping("/{id}/submissions")
+    public ResponseEntity<?> listSubmissions(@PathVariable UUID id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            surveyService.getSurveyDefinition(id);
+            return ResponseEntity.ok(submissionService.listSubmissions(id, after, limit));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the number of submissions and the answer distribution per time bucket, read from the per-minute rollups.
+     * @param id - Survey ID.
+     * @param bucket - Bucket size: "minute", "hour" (default) or "day".
+     * @param from - Start of the range (inclusive, ISO date-time); defaults to 1 hour, 7 days or 90 days before "to".
+     * @param to - End of the range (exclusive, ISO date-time); defaults to now.
+     * @return ResponseEntity with the timeseries, NOT_FOUND for an unknown survey or BAD_REQUEST for an invalid range.
+     */
+    @GetMapping("/{id}/timeseries")
+    public ResponseEntity<?> getSurveyTimeseries(@PathVariable UUID id,
+            @RequestParam(defaultValue = "hour") String bucket,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            SurveyDefinition definition = surveyService.getSurveyDefinition(id);
+            return ResponseEntity.ok(timeseriesService.getTimeseries(definition, TimeBucket.of(bucket), from, to));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Exports the raw submissions of a survey, one row per submission ordered by submission time.
+     * The rows are streamed from the database, gzip-compressed if the client accepts it.
+     * @param id - Survey ID.
+     * @param format - "csv" (default) or "ndjson".
+     * @param acceptEncoding - Accept-Encoding header of the request.
+     * @return ResponseEntity streaming the export, NOT_FOUND for an unknown survey or BAD_REQUEST for an unknown format.
+     */
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportSurvey(@PathVariable UUID id,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportService.Format exportFormat;
+        SurveyDefinition definition;
+        try {
+            exportFormat = ExportService.Format.of(format);
+            definition = surveyService.getSurveyDefinition(id);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exportService.export(definition, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                exportService.export(definition, exportFormat, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("survey-" + id + "." + exportFormat.extension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
+        return response.body(body);
     }
 
 
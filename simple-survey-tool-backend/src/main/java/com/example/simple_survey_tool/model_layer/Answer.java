@@ -2,9 +2,8 @@ package com.example.simple_survey_tool.model_layer;
 
 import java.util.UUID;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -21,16 +20,32 @@ import lombok.NoArgsConstructor;
 @Table(name = "answers")
 public class Answer {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedUuidV7
     private UUID id;
 
     @ManyToOne
     @JoinColumn(name = "submission_id", nullable = false)
     private Submission submission;
 
+    // Copy of the submission's survey ID: the partition key of answers, set by the application on insert
+    @Column(name = "survey_id")
+    private UUID surveyId;
+
     @ManyToOne
     @JoinColumn(name = "question_id", nullable = false)
     private Question question;
 
+    // Text of a free-form answer; null for choice answers
     private String answer;
+
+    // Option number (1..n) of a choice answer; null for free-form answers
+    @Column(name = "option_ordinal")
+    private Short optionOrdinal;
+
+    /**
+     * @return The submitted value: the option number of a choice answer, or the text of a free-form answer.
+     */
+    public String getValue() {
+        return optionOrdinal != null ? optionOrdinal.toString() : answer;
+    }
 }
@@ -0,0 +1,9 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.util.UUID;
+
+/**
+ * Number of times a given answer was submitted for a question, as aggregated by the database.
+ */
+public record AnswerCount(UUID questionId, String answer, Long count) {
+}
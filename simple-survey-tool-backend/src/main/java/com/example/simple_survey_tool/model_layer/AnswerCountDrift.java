@@ -0,0 +1,9 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.util.UUID;
+
+/**
+ * Difference between the stored count in answer_counts and a full recount of the answers table.
+ */
+public record AnswerCountDrift(UUID surveyId, UUID questionId, String optionKey, long stored, long actual) {
+}
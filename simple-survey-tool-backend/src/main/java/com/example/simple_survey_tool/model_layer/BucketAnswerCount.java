@@ -0,0 +1,10 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Number of times a given answer was submitted for a question in a time bucket.
+ */
+public record BucketAnswerCount(LocalDateTime bucketStart, UUID questionId, String answer, long count) {
+}
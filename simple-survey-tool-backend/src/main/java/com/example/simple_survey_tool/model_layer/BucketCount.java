@@ -0,0 +1,9 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of submissions of a survey in a time bucket.
+ */
+public record BucketCount(LocalDateTime bucketStart, long count) {
+}
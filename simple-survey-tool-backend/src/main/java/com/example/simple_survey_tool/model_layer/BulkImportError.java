@@ -0,0 +1,10 @@
+package com.example.simple_survey_tool.model_layer;
+
+/**
+ * A record of a bulk import that was rejected.
+ *
+ * @param record Position of the record in the request: line number (NDJSON) or array index + 1 (JSON array).
+ * @param message Reason for the rejection.
+ */
+public record BulkImportError(long record, String message) {
+}
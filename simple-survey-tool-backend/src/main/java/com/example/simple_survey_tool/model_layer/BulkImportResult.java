@@ -0,0 +1,20 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of a bulk import.
+ *
+ * @param received Records read from the request.
+ * @param imported Records stored.
+ * @param duplicates Records skipped because a record with the same ID was already stored.
+ * @param failed Records rejected.
+ * @param errors Rejected records with the reason, up to "survey.bulk.max-errors".
+ * @param ids IDs of the stored surveys in request order (survey import only).
+ */
+public record BulkImportResult(long received, long imported, long duplicates, long failed, List<BulkImportError> errors,
+        @JsonInclude(JsonInclude.Include.NON_EMPTY) List<UUID> ids) {
+}
@@ -0,0 +1,12 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One line of a bulk submission import: {"id":...,"submitted_at":...,"answers":{"<question id>":"<answer>",...}}.
+ * The ID and submission time are optional; given IDs make a repeated import skip the submissions it already stored.
+ */
+public record BulkSubmission(UUID id, LocalDateTime submittedAt, Map<UUID, String> answers) {
+}
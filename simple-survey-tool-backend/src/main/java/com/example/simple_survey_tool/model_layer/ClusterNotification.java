@@ -0,0 +1,15 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Payload of a cluster notification: submissions of a survey stored by another node. A notification without
+ * a survey is a gap: the sender failed to notify the others of some submissions, so they resynchronise.
+ *
+ * @param node ID of the sending node, so a node can skip its own notifications.
+ * @param surveyId UUID of the survey, or null for a gap.
+ * @param submissionIds UUIDs of the stored submissions.
+ */
+public record ClusterNotification(String node, UUID surveyId, List<UUID> submissionIds) {
+}
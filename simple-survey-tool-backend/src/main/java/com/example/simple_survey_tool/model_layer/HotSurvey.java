@@ -0,0 +1,13 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.util.UUID;
+
+/**
+ * A survey in the hot-survey ranking.
+ *
+ * @param surveyId UUID of the survey.
+ * @param count Estimated number of requests (never below the true count).
+ * @param error Largest possible overestimate of the count; count - error is a guaranteed lower bound.
+ */
+public record HotSurvey(UUID surveyId, long count, long error) {
+}
@@ -0,0 +1,38 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a list ordered by (timestamp, id): the sort key of the last row of a page.
+ * Passed to clients as an opaque URL-safe string.
+ */
+public record KeysetCursor(LocalDateTime time, UUID id) {
+
+    /**
+     * @return The cursor as an opaque URL-safe string.
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((time + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor String created by {@link #encode()}, or null for the first page.
+     * @return The decoded cursor, or null if none was given.
+     * @throws IllegalArgumentException if the string is not a valid cursor.
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            return new KeysetCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
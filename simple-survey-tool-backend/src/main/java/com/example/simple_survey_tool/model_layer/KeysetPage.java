@@ -0,0 +1,12 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list.
+ *
+ * @param items Rows of the page.
+ * @param nextCursor Cursor to pass as "after" for the next page, or null on the last page.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+}
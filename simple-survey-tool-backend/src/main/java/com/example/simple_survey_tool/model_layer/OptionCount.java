@@ -0,0 +1,10 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.util.UUID;
+
+/**
+ * Number of answers to a question per option number (choice answers) or per text (free-form answers),
+ * as aggregated by the database.
+ */
+public record OptionCount(UUID questionId, Short ordinal, String answer, Long count) {
+}
@@ -0,0 +1,16 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A validated submission that has been accepted but not necessarily written to the database yet.
+ * The ID is assigned when the submission is accepted, so writing it is idempotent.
+ */
+public record PendingSubmission(UUID id, UUID surveyId, LocalDateTime submittedAt, Map<UUID, String> answers) {
+
+    public PendingSubmission {
+        answers = Map.copyOf(answers);
+    }
+}
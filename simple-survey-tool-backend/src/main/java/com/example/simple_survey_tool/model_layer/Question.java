@@ -1,19 +1,20 @@
 package com.example.simple_survey_tool.model_layer;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.ListIndexBase;
+
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
 import jakarta.persistence.Table;
-import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,7 +25,7 @@ import lombok.NoArgsConstructor;
 @Table(name = "questions")
 public class Question {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedUuidV7
     @Column(columnDefinition = "uuid", updatable = false, nullable = false)
     private UUID id;
 
@@ -33,12 +34,12 @@ public class Question {
     @JsonProperty("text")
     private String text;
 
-
-    @JsonIgnore
-    @Column(name = "response_options")
-    private String responseOptionsSerialized;
-
-    @Transient
+    // One row per option in question_options; the ordinal is the option number answers refer to ("1".."n")
+    @ElementCollection
+    @CollectionTable(name = "question_options", joinColumns = @JoinColumn(name = "question_id"))
+    @OrderColumn(name = "ordinal")
+    @ListIndexBase(1)
+    @Column(name = "label", nullable = false)
     @JsonProperty("responseOptions")
     private List<String> responseOptions;
 
@@ -50,22 +51,4 @@ public class Question {
         this.survey_id = survey.getId();
         this.text = text;
     }
-
-    // Lifecycle hooks to convert list <-> string
-    @jakarta.persistence.PrePersist
-    @jakarta.persistence.PreUpdate
-    public void serializeOptions() {
-        if (responseOptions != null) {
-            responseOptionsSerialized = String.join(";;", responseOptions);
-        }
-    }
-
-    @jakarta.persistence.PostLoad
-    public void deserializeOptions() {
-        if (responseOptionsSerialized != null && !responseOptionsSerialized.isEmpty()) {
-            responseOptions = Arrays.asList(responseOptionsSerialized.split(";;"));
-        }
-    }
-    
-
 }
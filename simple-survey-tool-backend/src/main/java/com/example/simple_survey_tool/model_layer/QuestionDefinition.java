@@ -0,0 +1,58 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Immutable snapshot of a question with its deserialised response options.
+ * Serialises to the same JSON as the {@link Question} entity.
+ */
+public record QuestionDefinition(
+        UUID id,
+        UUID surveyId,
+        String text,
+        @JsonProperty("responseOptions") List<String> responseOptions) {
+
+    public QuestionDefinition {
+        responseOptions = responseOptions == null ? List.of() : List.copyOf(responseOptions);
+    }
+
+    public static QuestionDefinition of(Question question) {
+        return new QuestionDefinition(question.getId(), question.getSurvey_id(), question.getText(), question.getResponseOptions());
+    }
+
+    /**
+     * Returns the option number an answer refers to.
+     *
+     * @param answer Answer value as submitted.
+     * @return Option number 1..n, or 0 if the answer is free-form text.
+     */
+    public int ordinalOf(String answer) {
+        return optionOrdinal(answer, responseOptions.size());
+    }
+
+    /**
+     * Parses an answer of the form "1".."optionCount" without allocating.
+     *
+     * @param answer Answer value as submitted.
+     * @param optionCount Number of response options of the question.
+     * @return Option number 1..optionCount, or 0 if the answer is not an option number.
+     */
+    public static int optionOrdinal(String answer, int optionCount) {
+        int length = answer.length();
+        if (length == 0 || length > 9 || answer.charAt(0) == '0') {
+            return 0;
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = answer.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value <= optionCount ? value : 0;
+    }
+}
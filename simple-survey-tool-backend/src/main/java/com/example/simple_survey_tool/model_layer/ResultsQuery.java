@@ -0,0 +1,40 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Filtered results request: the results of the submissions matching all filters and the submission time range,
+ * optionally with cross-tabulations of question pairs.
+ *
+ * @param filters Answer predicates; a submission matches a filter if it chose one of the filter's answers.
+ * @param submittedFrom Start of the submission time range (inclusive), or null.
+ * @param submittedTo End of the submission time range (exclusive), or null.
+ * @param crossTabs Question pairs to count jointly among the matching submissions.
+ */
+public record ResultsQuery(
+        List<Filter> filters,
+        LocalDateTime submittedFrom,
+        LocalDateTime submittedTo,
+        List<CrossTab> crossTabs) {
+
+    public ResultsQuery {
+        filters = filters == null ? List.of() : List.copyOf(filters);
+        crossTabs = crossTabs == null ? List.of() : List.copyOf(crossTabs);
+    }
+
+    /**
+     * @param questionId UUID of the filtered question.
+     * @param answers Accepted answers, as option number ("1".."n") or option label.
+     */
+    public record Filter(UUID questionId, List<String> answers) {
+    }
+
+    /**
+     * @param rowQuestionId UUID of the question whose options are the rows.
+     * @param columnQuestionId UUID of the question whose options are the columns.
+     */
+    public record CrossTab(UUID rowQuestionId, UUID columnQuestionId) {
+    }
+}
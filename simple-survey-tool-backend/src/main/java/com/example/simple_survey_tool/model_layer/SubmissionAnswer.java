@@ -0,0 +1,9 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.util.UUID;
+
+/**
+ * Answer of a submission to one question.
+ */
+public record SubmissionAnswer(UUID submissionId, UUID questionId, String answer) {
+}
@@ -0,0 +1,10 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Submission row of the submission listing, before its answers are attached.
+ */
+public record SubmissionSummary(UUID id, LocalDateTime submittedAt) {
+}
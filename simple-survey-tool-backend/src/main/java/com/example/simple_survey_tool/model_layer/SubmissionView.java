@@ -0,0 +1,11 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Submission with its answers by question ID, as returned by the submission listing.
+ */
+public record SubmissionView(UUID id, LocalDateTime submittedAt, Map<UUID, String> answers) {
+}
@@ -0,0 +1,10 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.util.List;
+
+/**
+ * Published inside the transaction that stores submissions, by the synchronous and the queued ingestion path alike.
+ * Listeners that need the submissions to be visible listen for the commit.
+ */
+public record SubmissionsStoredEvent(List<PendingSubmission> submissions) {
+}
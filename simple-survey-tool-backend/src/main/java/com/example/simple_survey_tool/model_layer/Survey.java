@@ -3,8 +3,6 @@ package com.example.simple_survey_tool.model_layer;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
@@ -30,7 +28,7 @@ public class Survey {
         this.id = surveyId;
     }
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedUuidV7
     @Column(columnDefinition = "uuid", updatable = false, nullable = false)
     private UUID id;
     @OneToMany(mappedBy = "survey_id",  orphanRemoval = true) // cannot use 'cascade = CascadeType.ALL' here. The survey id is generated by the db and hence null, when autogenerated by java.
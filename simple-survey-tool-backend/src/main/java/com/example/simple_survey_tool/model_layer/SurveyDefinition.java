@@ -0,0 +1,43 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Immutable snapshot of a survey definition: the survey with its questions, without the
+ * values that change with every submission (response count, last update).
+ * Survey definitions do not change after they are saved, so snapshots can be cached and shared between threads.
+ */
+public record SurveyDefinition(
+        UUID id,
+        String description,
+        LocalDateTime createdAt,
+        List<QuestionDefinition> questions,
+        @JsonIgnore Map<UUID, QuestionDefinition> questionsById) {
+
+    public SurveyDefinition(UUID id, String description, LocalDateTime createdAt, List<QuestionDefinition> questions) {
+        this(id, description, createdAt, List.copyOf(questions),
+                questions.stream().collect(Collectors.toUnmodifiableMap(QuestionDefinition::id, Function.identity())));
+    }
+
+    public static SurveyDefinition of(Survey survey, List<Question> questions) {
+        return new SurveyDefinition(survey.getId(), survey.getDescription(), survey.getCreatedAt(),
+                questions.stream().map(QuestionDefinition::of).toList());
+    }
+
+    /**
+     * Looks up a question of this survey.
+     *
+     * @param questionId UUID of the question.
+     * @return The question, or null if it is not part of this survey.
+     */
+    public QuestionDefinition question(UUID questionId) {
+        return questionsById.get(questionId);
+    }
+}
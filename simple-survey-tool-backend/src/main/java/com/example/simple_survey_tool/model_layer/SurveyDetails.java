@@ -0,0 +1,23 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A survey as returned by GET /api/surveys/{id}: the cached definition plus the current response count and
+ * last update. Serialises to the same JSON as the {@link Survey} entity.
+ */
+public record SurveyDetails(
+        UUID id,
+        List<QuestionDefinition> questions,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Integer responseCount,
+        String description) {
+
+    public static SurveyDetails of(SurveyDefinition definition, SurveyVersion version) {
+        return new SurveyDetails(definition.id(), definition.questions(), definition.createdAt(), version.updatedAt(),
+                version.responseCount(), definition.description());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Survey row of the survey listing, without questions.
+ */
+public record SurveySummary(UUID id, String description, LocalDateTime createdAt, Integer responseCount) {
+}
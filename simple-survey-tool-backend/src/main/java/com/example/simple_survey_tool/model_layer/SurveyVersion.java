@@ -0,0 +1,46 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * The survey columns that identify the current state of a survey, read from the surveys row alone.
+ * The definition of a survey never changes after it is saved, its results change with every
+ * submission, which increments the response count and sets the last update.
+ */
+public record SurveyVersion(UUID id, String description, LocalDateTime createdAt, LocalDateTime updatedAt, Integer responseCount) {
+
+    /**
+     * @param pending Responses counted in memory but not yet written to the surveys row.
+     * @return This version with the pending responses added to the response count.
+     */
+    public SurveyVersion plusPending(long pending) {
+        if (pending == 0) {
+            return this;
+        }
+        int count = responseCount == null ? 0 : responseCount;
+        return new SurveyVersion(id, description, createdAt, updatedAt, Math.toIntExact(count + pending));
+    }
+
+    /**
+     * @return Strong ETag of the survey with its response count and last update.
+     */
+    public String surveyEtag() {
+        return "\"s-" + id + "-" + micros(updatedAt) + "-" + (responseCount == null ? 0 : responseCount) + "\"";
+    }
+
+    /**
+     * @return Strong ETag of the survey results.
+     */
+    public String resultsEtag() {
+        return "\"r-" + id + "-" + micros(updatedAt) + "-" + (responseCount == null ? 0 : responseCount) + "\"";
+    }
+
+    private static long micros(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+}
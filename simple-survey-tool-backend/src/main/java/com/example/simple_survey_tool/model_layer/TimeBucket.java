@@ -0,0 +1,67 @@
+package com.example.simple_survey_tool.model_layer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes of the submission timeseries.
+ */
+public enum TimeBucket {
+    MINUTE(ChronoUnit.MINUTES, Duration.ofHours(1)),
+    HOUR(ChronoUnit.HOURS, Duration.ofDays(7)),
+    DAY(ChronoUnit.DAYS, Duration.ofDays(90));
+
+    private final ChronoUnit unit;
+    private final Duration defaultRange;
+
+    TimeBucket(ChronoUnit unit, Duration defaultRange) {
+        this.unit = unit;
+        this.defaultRange = defaultRange;
+    }
+
+    /**
+     * @param name Bucket name as given in the request ("minute", "hour" or "day").
+     * @return The bucket size.
+     * @throws IllegalArgumentException if the bucket size is not supported.
+     */
+    public static TimeBucket of(String name) {
+        for (TimeBucket bucket : values()) {
+            if (bucket.name().equalsIgnoreCase(name)) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported bucket: " + name);
+    }
+
+    /**
+     * @return The PostgreSQL date_trunc field of this bucket size.
+     */
+    public String field() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * @return Range queried if the request does not give a start time.
+     */
+    public Duration defaultRange() {
+        return defaultRange;
+    }
+
+    /**
+     * @param time A point in time.
+     * @return Start of the bucket containing the given time.
+     */
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return Number of buckets overlapping the range.
+     */
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        return unit.between(truncate(from), to) + 1;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.simple_survey_tool.repository_layer;
+
+import java.sql.PreparedStatement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.simple_survey_tool.model_layer.AnswerCount;
+import com.example.simple_survey_tool.model_layer.AnswerCountDrift;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Access to the incrementally maintained answer_counts table.
+ * Uses plain JDBC so increments can be sent as one batched upsert.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnswerCountRepo {
+
+    private static final String UPSERT = "INSERT INTO answer_counts (survey_id, question_id, option_key, count) VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (survey_id, question_id, option_key) DO UPDATE SET count = answer_counts.count + EXCLUDED.count";
+
+    private static final String RECOUNT = "WITH actual AS ("
+            + " SELECT s.survey_id, a.question_id, COALESCE(a.option_ordinal::text, a.answer) AS option_key, COUNT(*) AS count"
+            + " FROM answers a JOIN submissions s ON s.id = a.submission_id"
+            + " GROUP BY s.survey_id, a.question_id, a.option_ordinal, a.answer)"
+            + " SELECT survey_id, question_id, option_key, COALESCE(c.count, 0) AS stored, COALESCE(r.count, 0) AS actual"
+            + " FROM answer_counts c FULL OUTER JOIN actual r USING (survey_id, question_id, option_key)"
+            + " WHERE COALESCE(c.count, 0) <> COALESCE(r.count, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the given deltas to the counts of a survey in one batch. Joins the caller's transaction.
+     * Rows are upserted in key order so concurrent submissions cannot deadlock on each other.
+     *
+     * @param surveyId UUID of the survey.
+     * @param deltas Counts to add per question and answer value.
+     */
+    public void increment(UUID surveyId, List<AnswerCount> deltas) {
+        List<Object[]> rows = deltas.stream()
+                .sorted(Comparator.comparing(AnswerCount::questionId).thenComparing(AnswerCount::answer))
+                .map(delta -> new Object[] { surveyId, delta.questionId(), delta.answer(), delta.count() })
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT, rows);
+    }
+
+    /**
+     * Loads the stored counts of a survey.
+     *
+     * @param surveyId UUID of the survey.
+     * @return One row per question and answer value.
+     */
+    public List<AnswerCount> findBySurveyId(UUID surveyId) {
+        return jdbcTemplate.query(
+                "SELECT question_id, option_key, count FROM answer_counts WHERE survey_id = ?",
+                (rs, rowNum) -> new AnswerCount(rs.getObject("question_id", UUID.class), rs.getString("option_key"), rs.getLong("count")),
+                surveyId);
+    }
+
+    /**
+     * Loads the stored counts of the response options of a survey by primary key lookups, without reading
+     * the rows of free-text answers.
+     *
+     * @param surveyId UUID of the survey.
+     * @param questionIds UUIDs of the survey's questions.
+     * @param maxOptions Largest number of response options of a question.
+     * @return One row per question and chosen option number ("1".."maxOptions").
+     */
+    public List<AnswerCount> findOptionCounts(UUID surveyId, List<UUID> questionIds, int maxOptions) {
+        String[] optionKeys = new String[maxOptions];
+        for (int i = 0; i < maxOptions; i++) {
+            optionKeys[i] = Integer.toString(i + 1);
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT question_id, option_key, count FROM answer_counts WHERE survey_id = ? AND question_id = ANY(?) AND option_key = ANY(?)");
+            statement.setObject(1, surveyId);
+            statement.setArray(2, connection.createArrayOf("uuid", questionIds.toArray()));
+            statement.setArray(3, connection.createArrayOf("text", optionKeys));
+            return statement;
+        }, (rs, rowNum) -> new AnswerCount(rs.getObject("question_id", UUID.class), rs.getString("option_key"), rs.getLong("count")));
+    }
+
+    /**
+     * Recounts all answers and compares the result with the stored counts.
+     *
+     * @return Rows whose stored count differs from the recount.
+     */
+    public List<AnswerCountDrift> findDrift() {
+        return jdbcTemplate.query(RECOUNT, (rs, rowNum) -> new AnswerCountDrift(
+                rs.getObject("survey_id", UUID.class),
+                rs.getObject("question_id", UUID.class),
+                rs.getString("option_key"),
+                rs.getLong("stored"),
+                rs.getLong("actual")));
+    }
+}
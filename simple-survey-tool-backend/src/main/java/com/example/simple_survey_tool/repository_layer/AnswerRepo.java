@@ -1,5 +1,6 @@
 package com.example.simple_survey_tool.repository_layer;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,8 +8,34 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.example.simple_survey_tool.model_layer.Answer;
+import com.example.simple_survey_tool.model_layer.AnswerCount;
+import com.example.simple_survey_tool.model_layer.OptionCount;
+import com.example.simple_survey_tool.model_layer.SubmissionAnswer;
 
 public interface AnswerRepo extends JpaRepository<Answer, UUID>{
     @Query("SELECT a FROM Answer a WHERE a.submission.survey.id = :surveyId")
     List<Answer> findAllBySurveyId(@Param("surveyId") UUID surveyId);
+
+    /**
+     * Counts the answers of a survey per question and answer value in the database (GROUP BY question_id, answer),
+     * so only one row per distinct answer is transferred instead of every Answer entity.
+     */
+    @Query("SELECT new com.example.simple_survey_tool.model_layer.AnswerCount(a.question.id, COALESCE(CAST(a.optionOrdinal AS String), a.answer), COUNT(a)) "
+            + "FROM Answer a WHERE a.submission.survey.id = :surveyId GROUP BY a.question.id, a.optionOrdinal, a.answer")
+    List<AnswerCount> countBySurveyId(@Param("surveyId") UUID surveyId);
+
+    /**
+     * Counts the answers of a survey per question and option number. Choice answers only have an ordinal,
+     * so this is an integer GROUP BY except for the few free-form answers.
+     */
+    @Query("SELECT new com.example.simple_survey_tool.model_layer.OptionCount(a.question.id, a.optionOrdinal, a.answer, COUNT(a)) "
+            + "FROM Answer a WHERE a.submission.survey.id = :surveyId GROUP BY a.question.id, a.optionOrdinal, a.answer")
+    List<OptionCount> countOptionsBySurveyId(@Param("surveyId") UUID surveyId);
+
+    /**
+     * Loads the answers of the given submissions (one page of the submission listing) without loading entities.
+     */
+    @Query("SELECT new com.example.simple_survey_tool.model_layer.SubmissionAnswer(a.submission.id, a.question.id, COALESCE(CAST(a.optionOrdinal AS String), a.answer)) "
+            + "FROM Answer a WHERE a.submission.id IN :submissionIds")
+    List<SubmissionAnswer> findBySubmissionIds(@Param("submissionIds") Collection<UUID> submissionIds);
 }
@@ -0,0 +1,72 @@
+package com.example.simple_survey_tool.repository_layer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Access to the idempotency_keys table, which maps a client's Idempotency-Key per survey to the submission it created.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepo {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores a key unless it is already taken. Joins the caller's transaction; a concurrent transaction
+     * inserting the same key blocks this one until it commits or rolls back.
+     *
+     * @param surveyId UUID of the survey.
+     * @param key Idempotency key sent by the client.
+     * @param submissionId UUID of the submission created with the key.
+     * @return Whether the key was stored.
+     */
+    public boolean insert(UUID surveyId, String key, UUID submissionId) {
+        return jdbcTemplate.update(
+                "INSERT INTO idempotency_keys (survey_id, idempotency_key, submission_id) VALUES (?, ?, ?) ON CONFLICT DO NOTHING",
+                surveyId, key, submissionId) == 1;
+    }
+
+    /**
+     * @param surveyId UUID of the survey.
+     * @param key Idempotency key sent by the client.
+     * @return UUID of the submission created with the key, or null if the key is unknown.
+     */
+    public UUID findSubmissionId(UUID surveyId, String key) {
+        List<UUID> ids = jdbcTemplate.queryForList(
+                "SELECT submission_id FROM idempotency_keys WHERE survey_id = ? AND idempotency_key = ?",
+                UUID.class, surveyId, key);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * Removes a key stored for a submission that was not accepted after all.
+     *
+     * @param surveyId UUID of the survey.
+     * @param key Idempotency key sent by the client.
+     * @param submissionId UUID of the submission the key was stored for.
+     */
+    public void delete(UUID surveyId, String key, UUID submissionId) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE survey_id = ? AND idempotency_key = ? AND submission_id = ?",
+                surveyId, key, submissionId);
+    }
+
+    /**
+     * Deletes up to a limited number of keys stored before a point in time.
+     *
+     * @param before Keys stored before this time are deleted.
+     * @param limit Largest number of keys to delete.
+     * @return Number of deleted keys.
+     */
+    public int deleteOlderThan(LocalDateTime before, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM idempotency_keys WHERE ctid IN (SELECT ctid FROM idempotency_keys WHERE created_at < ? LIMIT ?)",
+                before, limit);
+    }
+}
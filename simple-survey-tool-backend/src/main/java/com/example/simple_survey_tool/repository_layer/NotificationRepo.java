@@ -0,0 +1,34 @@
+package com.example.simple_survey_tool.repository_layer;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sends PostgreSQL notifications (NOTIFY) to the other nodes of a cluster.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationRepo {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sends notifications on a channel in one statement. Outside a transaction they are delivered at once,
+     * inside one when it commits. Every payload must be shorter than 8000 bytes.
+     *
+     * @param channel Channel name.
+     * @param payloads Notification payloads.
+     */
+    public void notify(String channel, List<String> payloads) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("SELECT pg_notify(?, payload) FROM unnest(?) AS payload");
+            statement.setString(1, channel);
+            statement.setArray(2, connection.createArrayOf("text", payloads.toArray()));
+            return statement;
+        }, rs -> { });
+    }
+}
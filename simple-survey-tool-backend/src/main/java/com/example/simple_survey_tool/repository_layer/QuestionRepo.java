@@ -9,6 +9,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 public interface QuestionRepo extends JpaRepository<Question, UUID>{
-    @Query("SELECT q FROM Question q WHERE q.survey_id = :surveyId")
+    /**
+     * Loads the questions of a survey together with their response options in one query.
+     */
+    @Query("SELECT DISTINCT q FROM Question q LEFT JOIN FETCH q.responseOptions WHERE q.survey_id = :surveyId")
     List<Question> findBySurveyIdCustom(UUID surveyId);
 }
\ No newline at end of file
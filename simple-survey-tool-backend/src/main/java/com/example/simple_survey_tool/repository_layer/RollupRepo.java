@@ -0,0 +1,99 @@
+package com.example.simple_survey_tool.repository_layer;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.simple_survey_tool.model_layer.BucketAnswerCount;
+import com.example.simple_survey_tool.model_layer.BucketCount;
+import com.example.simple_survey_tool.model_layer.TimeBucket;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Access to the per-minute rollups of submissions and answers (submission_rollups, answer_rollups).
+ * Coarser buckets are summed from the minute rows by the database.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RollupRepo {
+
+    private static final String UPSERT_SUBMISSIONS = "INSERT INTO submission_rollups (survey_id, bucket_start, submissions) VALUES (?, ?, ?) "
+            + "ON CONFLICT (survey_id, bucket_start) DO UPDATE SET submissions = submission_rollups.submissions + EXCLUDED.submissions";
+
+    private static final String UPSERT_ANSWERS = "INSERT INTO answer_rollups (survey_id, bucket_start, question_id, option_key, count) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (survey_id, bucket_start, question_id, option_key) DO UPDATE SET count = answer_rollups.count + EXCLUDED.count";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds submissions to the minute buckets of a survey in one batch. Joins the caller's transaction.
+     * Rows are upserted in key order so concurrent submissions cannot deadlock on each other.
+     *
+     * @param surveyId UUID of the survey.
+     * @param deltas Submissions to add per minute bucket.
+     */
+    public void incrementSubmissions(UUID surveyId, List<BucketCount> deltas) {
+        List<Object[]> rows = deltas.stream()
+                .sorted(Comparator.comparing(BucketCount::bucketStart))
+                .map(delta -> new Object[] { surveyId, delta.bucketStart(), delta.count() })
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_SUBMISSIONS, rows);
+    }
+
+    /**
+     * Adds answer counts to the minute buckets of a survey in one batch. Joins the caller's transaction.
+     *
+     * @param surveyId UUID of the survey.
+     * @param deltas Counts to add per minute bucket, question and answer value.
+     */
+    public void incrementAnswers(UUID surveyId, List<BucketAnswerCount> deltas) {
+        List<Object[]> rows = deltas.stream()
+                .sorted(Comparator.comparing(BucketAnswerCount::bucketStart)
+                        .thenComparing(BucketAnswerCount::questionId)
+                        .thenComparing(BucketAnswerCount::answer))
+                .map(delta -> new Object[] { surveyId, delta.bucketStart(), delta.questionId(), delta.answer(), delta.count() })
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_ANSWERS, rows);
+    }
+
+    /**
+     * Loads the number of submissions per bucket, for buckets with at least one submission.
+     *
+     * @param surveyId UUID of the survey.
+     * @param bucket Bucket size.
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return Counts ordered by bucket start.
+     */
+    public List<BucketCount> findSubmissionCounts(UUID surveyId, TimeBucket bucket, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT date_trunc(?, bucket_start) AS bucket, SUM(submissions) AS count FROM submission_rollups"
+                        + " WHERE survey_id = ? AND bucket_start >= ? AND bucket_start < ? GROUP BY bucket ORDER BY bucket",
+                (rs, rowNum) -> new BucketCount(rs.getTimestamp("bucket").toLocalDateTime(), rs.getLong("count")),
+                bucket.field(), surveyId, from, to);
+    }
+
+    /**
+     * Loads the answer counts per bucket, question and answer value.
+     *
+     * @param surveyId UUID of the survey.
+     * @param bucket Bucket size.
+     * @param from Start of the range (inclusive).
+     * @param to End of the range (exclusive).
+     * @return Counts ordered by bucket start.
+     */
+    public List<BucketAnswerCount> findAnswerCounts(UUID surveyId, TimeBucket bucket, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT date_trunc(?, bucket_start) AS bucket, question_id, option_key, SUM(count) AS count FROM answer_rollups"
+                        + " WHERE survey_id = ? AND bucket_start >= ? AND bucket_start < ?"
+                        + " GROUP BY bucket, question_id, option_key ORDER BY bucket",
+                (rs, rowNum) -> new BucketAnswerCount(rs.getTimestamp("bucket").toLocalDateTime(),
+                        rs.getObject("question_id", UUID.class), rs.getString("option_key"), rs.getLong("count")),
+                bucket.field(), surveyId, from, to);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.simple_survey_tool.repository_layer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.model_layer.UuidV7;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes many submissions at once with multi-row INSERT statements, and large sets of answers with COPY.
+ * Joins the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SubmissionBatchRepo {
+
+    // Keeps the number of bind parameters per statement (up to 6 per row) well below the PostgreSQL limit of 32767
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+    // From this many answer rows on, COPY is faster than multi-row INSERTs (bulk imports, large group commits)
+    private static final int COPY_MIN_ROWS = 5000;
+    private static final String COPY_ANSWERS = "COPY answers (id, submission_id, survey_id, question_id, answer, option_ordinal) FROM STDIN (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the submission rows. Submissions whose ID already exists are skipped, so writing
+     * the same submissions twice (e.g. when replaying the ingestion journal) is harmless.
+     *
+     * @param submissions Submissions to insert.
+     * @return IDs of the submissions that were actually inserted.
+     */
+    public List<UUID> insertSubmissions(List<PendingSubmission> submissions) {
+        List<UUID> inserted = new ArrayList<>(submissions.size());
+        for (List<PendingSubmission> chunk : chunks(submissions)) {
+            List<Object> args = new ArrayList<>(chunk.size() * 3);
+            for (PendingSubmission submission : chunk) {
+                args.add(submission.id());
+                args.add(submission.surveyId());
+                args.add(submission.submittedAt());
+            }
+            // No conflict target: the key is (id) in the classic layout and (survey_id, id) in the partitioned one
+            String sql = "INSERT INTO submissions (id, survey_id, submitted_at) VALUES " + placeholders(chunk.size(), 3)
+                    + " ON CONFLICT DO NOTHING RETURNING id";
+            inserted.addAll(jdbcTemplate.queryForList(sql, UUID.class, args.toArray()));
+        }
+        return inserted;
+    }
+
+    /**
+     * Inserts the answer rows of the given submissions. Choice answers are stored as option ordinal,
+     * other answers as text. Large sets of rows are sent with COPY in one round trip.
+     *
+     * @param submissions Submissions whose answers are inserted.
+     * @param definitions Survey definitions by survey ID, to resolve option numbers; a missing definition stores all answers as text.
+     */
+    public void insertAnswers(List<PendingSubmission> submissions, Map<UUID, SurveyDefinition> definitions) {
+        List<Object[]> rows = new ArrayList<>();
+        for (PendingSubmission submission : submissions) {
+            SurveyDefinition definition = definitions.get(submission.surveyId());
+            for (Map.Entry<UUID, String> answer : submission.answers().entrySet()) {
+                QuestionDefinition question = definition == null ? null : definition.question(answer.getKey());
+                int ordinal = question == null ? 0 : question.ordinalOf(answer.getValue());
+                rows.add(new Object[] { UuidV7.generate(), submission.id(), submission.surveyId(), answer.getKey(),
+                        ordinal > 0 ? null : answer.getValue(), ordinal > 0 ? (short) ordinal : null });
+            }
+        }
+        if (rows.size() >= COPY_MIN_ROWS) {
+            copyAnswers(rows);
+            return;
+        }
+        for (List<Object[]> chunk : chunks(rows)) {
+            List<Object> args = new ArrayList<>(chunk.size() * 6);
+            for (Object[] row : chunk) {
+                Collections.addAll(args, row[0], row[1], row[2], row[3],
+                        new SqlParameterValue(Types.VARCHAR, row[4]), new SqlParameterValue(Types.SMALLINT, row[5]));
+            }
+            jdbcTemplate.update("INSERT INTO answers (id, submission_id, survey_id, question_id, answer, option_ordinal) VALUES " + placeholders(chunk.size(), 6),
+                    args.toArray());
+        }
+    }
+
+    /**
+     * Sends answer rows as CSV through COPY. A NULL is an empty unquoted field, so text answers are always quoted
+     * (an empty answer stays an empty string).
+     */
+    private void copyAnswers(List<Object[]> rows) {
+        StringBuilder csv = new StringBuilder(rows.size() * 160);
+        for (Object[] row : rows) {
+            csv.append(row[0]).append(',').append(row[1]).append(',').append(row[2]).append(',').append(row[3]).append(',');
+            if (row[4] != null) {
+                csv.append('"').append(((String) row[4]).replace("\"", "\"\"")).append('"');
+            }
+            csv.append(',');
+            if (row[5] != null) {
+                csv.append(row[5]);
+            }
+            csv.append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_ANSWERS, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into answers failed", e);
+            }
+        });
+    }
+
+    private static <T> List<List<T>> chunks(List<T> rows) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            chunks.add(rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT)));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int rows, int columns) {
+        String row = "(" + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+        return String.join(", ", Collections.nCopies(rows, row));
+    }
+}
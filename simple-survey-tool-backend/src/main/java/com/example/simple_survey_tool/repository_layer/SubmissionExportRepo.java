@@ -0,0 +1,114 @@
+package com.example.simple_survey_tool.repository_layer;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reads the raw answers of a survey for export without loading them into memory, and submissions by ID.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SubmissionExportRepo {
+
+    private static final String EXPORT = "SELECT s.id, s.submitted_at, a.question_id, COALESCE(a.option_ordinal::text, a.answer)"
+            + " FROM submissions s LEFT JOIN answers a ON a.submission_id = s.id"
+            + " WHERE s.survey_id = ? ORDER BY s.submitted_at, s.id";
+
+    private static final String SUBMISSIONS = "SELECT s.id, s.survey_id, s.submitted_at, a.question_id, COALESCE(a.option_ordinal::text, a.answer)"
+            + " FROM submissions s JOIN answers a ON a.submission_id = s.id WHERE s.id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Number of rows the driver fetches per round trip while streaming.
+     */
+    @Value("${survey.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Callback for one answer row; rows of the same submission are passed consecutively.
+     */
+    @FunctionalInterface
+    public interface AnswerRowHandler {
+        /**
+         * @param submissionId UUID of the submission.
+         * @param submittedAt Time of the submission.
+         * @param questionId UUID of the answered question, or null for a submission without answers.
+         * @param answer Answer value, or null for a submission without answers.
+         */
+        void row(UUID submissionId, LocalDateTime submittedAt, UUID questionId, String answer);
+    }
+
+    /**
+     * Passes every answer of a survey to the handler, ordered by submission time.
+     *
+     * The rows are read through a forward-only cursor in chunks of "survey.export.fetch-size" rows, so memory
+     * use does not depend on the size of the survey. PostgreSQL only uses a cursor inside a transaction,
+     * so this must be called within one (a read-only transaction is enough).
+     *
+     * @param surveyId UUID of the survey.
+     * @param handler Receives the rows in order.
+     */
+    public void streamAnswers(UUID surveyId, AnswerRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, surveyId);
+            return statement;
+        }, rs -> {
+            Timestamp submittedAt = rs.getTimestamp(2);
+            handler.row(
+                    rs.getObject(1, UUID.class),
+                    submittedAt == null ? null : submittedAt.toLocalDateTime(),
+                    rs.getObject(3, UUID.class),
+                    rs.getString(4));
+        });
+    }
+
+    /**
+     * Reads submissions with their answers by ID, e.g. submissions stored by another node.
+     *
+     * @param ids UUIDs of the submissions.
+     * @return The submissions that exist, in no particular order.
+     */
+    public List<PendingSubmission> findSubmissions(Collection<UUID> ids) {
+        Map<UUID, SubmissionRows> rows = new LinkedHashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SUBMISSIONS);
+            statement.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+            return statement;
+        }, rs -> {
+            UUID id = rs.getObject(1, UUID.class);
+            SubmissionRows submission = rows.get(id);
+            if (submission == null) {
+                submission = new SubmissionRows(rs.getObject(2, UUID.class), rs.getTimestamp(3).toLocalDateTime(), new HashMap<>());
+                rows.put(id, submission);
+            }
+            submission.answers().put(rs.getObject(4, UUID.class), rs.getString(5));
+        });
+        List<PendingSubmission> submissions = new ArrayList<>(rows.size());
+        rows.forEach((id, submission) -> submissions.add(
+                new PendingSubmission(id, submission.surveyId(), submission.submittedAt(), submission.answers())));
+        return submissions;
+    }
+
+    private record SubmissionRows(UUID surveyId, LocalDateTime submittedAt, Map<UUID, String> answers) {
+    }
+}
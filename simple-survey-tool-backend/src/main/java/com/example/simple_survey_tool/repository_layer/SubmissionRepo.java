@@ -1,8 +1,54 @@
 package com.example.simple_survey_tool.repository_layer;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import com.example.simple_survey_tool.model_layer.Submission;
+import com.example.simple_survey_tool.model_layer.SubmissionSummary;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface SubmissionRepo extends JpaRepository<Submission, UUID> {
-}
\ No newline at end of file
+
+    /**
+     * First page of the submissions of a survey, ordered by (submittedAt, id).
+     */
+    @Query("SELECT new com.example.simple_survey_tool.model_layer.SubmissionSummary(s.id, s.submittedAt) "
+            + "FROM Submission s WHERE s.survey.id = :surveyId ORDER BY s.submittedAt, s.id")
+    List<SubmissionSummary> findSummaries(@Param("surveyId") UUID surveyId, Limit limit);
+
+    /**
+     * Page of the submissions of a survey following the given sort key, read by an index seek on
+     * (survey_id, submitted_at, id).
+     */
+    @Query("SELECT new com.example.simple_survey_tool.model_layer.SubmissionSummary(s.id, s.submittedAt) "
+            + "FROM Submission s WHERE s.survey.id = :surveyId AND (s.submittedAt, s.id) > (:submittedAt, :id) "
+            + "ORDER BY s.submittedAt, s.id")
+    List<SubmissionSummary> findSummariesAfter(@Param("surveyId") UUID surveyId, @Param("submittedAt") LocalDateTime submittedAt,
+            @Param("id") UUID id, Limit limit);
+
+    /**
+     * Which of the given submissions exist (in the current transaction's snapshot).
+     */
+    @Query("SELECT s.id FROM Submission s WHERE s.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Like {@link #findExistingIds(Collection)} for any number of IDs, queried in chunks
+     * (PostgreSQL accepts at most 32767 bind parameters per statement).
+     */
+    default List<UUID> findExistingIdsInChunks(Collection<UUID> ids) {
+        List<UUID> all = new ArrayList<>(ids);
+        List<UUID> existing = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += 1000) {
+            existing.addAll(findExistingIds(all.subList(i, Math.min(i + 1000, all.size()))));
+        }
+        return existing;
+    }
+}
@@ -1,11 +1,51 @@
 package com.example.simple_survey_tool.repository_layer;
 
 import com.example.simple_survey_tool.model_layer.Survey;
+import com.example.simple_survey_tool.model_layer.SurveySummary;
+import com.example.simple_survey_tool.model_layer.SurveyVersion;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface SurveyRepo extends JpaRepository<Survey, UUID>{
 
+    /**
+     * Atomically adds to the response count of a survey in a single UPDATE statement,
+     * so concurrent submissions never lose increments.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Survey s SET s.response_count = COALESCE(s.response_count, 0) + :delta, s.updatedAt = :updatedAt WHERE s.id = :id")
+    int incrementResponseCount(@Param("id") UUID id, @Param("delta") int delta, @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * First page of the survey listing, ordered by (createdAt, id).
+     */
+    @Query("SELECT new com.example.simple_survey_tool.model_layer.SurveySummary(s.id, s.description, s.createdAt, s.response_count) "
+            + "FROM Survey s ORDER BY s.createdAt, s.id")
+    List<SurveySummary> findSummaries(Limit limit);
+
+    /**
+     * Page of the survey listing following the given sort key. The row comparison is answered by an index
+     * seek on (created_at, id), so every page costs the same regardless of its position.
+     */
+    @Query("SELECT new com.example.simple_survey_tool.model_layer.SurveySummary(s.id, s.description, s.createdAt, s.response_count) "
+            + "FROM Survey s WHERE (s.createdAt, s.id) > (:createdAt, :id) ORDER BY s.createdAt, s.id")
+    List<SurveySummary> findSummariesAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
+
+    /**
+     * Reads the version columns of a survey by primary key, without its questions or answers.
+     */
+    @Query("SELECT new com.example.simple_survey_tool.model_layer.SurveyVersion(s.id, s.description, s.createdAt, s.updatedAt, s.response_count) "
+            + "FROM Survey s WHERE s.id = :id")
+    Optional<SurveyVersion> findVersion(@Param("id") UUID id);
 }
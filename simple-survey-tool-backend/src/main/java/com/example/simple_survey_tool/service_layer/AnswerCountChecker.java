@@ -0,0 +1,83 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.simple_survey_tool.model_layer.AnswerCount;
+import com.example.simple_survey_tool.model_layer.AnswerCountDrift;
+import com.example.simple_survey_tool.repository_layer.AnswerCountRepo;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Consistency check of the answer_counts table against a full recount of the answers table.
+ *
+ * Runs on the cron expression "survey.answer-counts.check-cron" (disabled by default). The number of
+ * drifting rows found by the last run is published as the "survey.answer_counts.drift" gauge.
+ * With "survey.answer-counts.repair=true" the drift is corrected by adding the difference, which is
+ * safe while submissions continue because each submission updates answers and counts atomically.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnswerCountChecker {
+
+    private static final int MAX_LOGGED_DRIFTS = 20;
+
+    private final AnswerCountRepo answerCountRepo;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    @Value("${survey.answer-counts.repair:false}")
+    private boolean repair;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("survey.answer_counts.drift", lastDrift, AtomicLong::get)
+            .description("Rows of answer_counts that differed from a full recount in the last check")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Compares the stored counts with a full recount and reports (and optionally repairs) the drift.
+     *
+     * @return The drifting rows found.
+     */
+    @Scheduled(cron = "${survey.answer-counts.check-cron:-}")
+    @Transactional
+    public List<AnswerCountDrift> check() {
+        List<AnswerCountDrift> drifts = answerCountRepo.findDrift();
+        lastDrift.set(drifts.size());
+
+        if (drifts.isEmpty()) {
+            log.info("answer_counts is consistent with the answers table");
+            return drifts;
+        }
+
+        log.warn("answer_counts differs from a full recount in {} rows", drifts.size());
+        drifts.stream().limit(MAX_LOGGED_DRIFTS).forEach(drift -> log.warn("Drift: {}", drift));
+
+        if (repair) {
+            Map<UUID, List<AnswerCount>> corrections = drifts.stream()
+                .collect(Collectors.groupingBy(AnswerCountDrift::surveyId, Collectors.mapping(
+                    drift -> new AnswerCount(drift.questionId(), drift.optionKey(), drift.actual() - drift.stored()),
+                    Collectors.toList())));
+            corrections.forEach(answerCountRepo::increment);
+            log.info("Repaired answer_counts for {} surveys", corrections.size());
+        }
+        return drifts;
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.simple_survey_tool.config.ReplicaReads;
+import com.example.simple_survey_tool.model_layer.AnswerCount;
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+import com.example.simple_survey_tool.model_layer.SubmissionsStoredEvent;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.model_layer.SurveyVersion;
+import com.example.simple_survey_tool.repository_layer.AnswerCountRepo;
+import com.example.simple_survey_tool.repository_layer.SubmissionRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Answers results requests with mode=approx in time independent of the number of answers.
+ *
+ * Counts of response options are exact: they are read from answer_counts by key lookups. The work of an exact
+ * result that grows with the volume is in the free-text answers, one answer_counts row per distinct text.
+ * Those are summarised per question by a {@link FreeTextSketch}: the most frequent answers with error bounds,
+ * the exact number of free-text answers and the estimated number of distinct ones.
+ *
+ * The sketches of a survey are built from answer_counts on its first approximate request (one REPEATABLE READ
+ * snapshot, like the index of {@link ResultsQueryService}) and updated with every committed submission afterwards.
+ * They are held in a cache bounded by "survey.approx.max-bytes" (stats as "cache.*" with cache="freeTextSketches").
+ */
+@Service
+@RequiredArgsConstructor
+public class ApproximateResultsService {
+
+    private final SurveyService surveyService;
+    private final AnswerCountRepo answerCountRepo;
+    private final SubmissionRepo submissionRepo;
+    private final PlatformTransactionManager transactionManager;
+    private final SubmissionEventDelay submissionEventDelay;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${survey.approx.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${survey.approx.top-answers:200}")
+    private int topAnswers;
+
+    @Value("${survey.approx.reported-answers:20}")
+    private int reportedAnswers;
+
+    private Cache<UUID, SurveySketches> sketches;
+    private TransactionTemplate loadTransaction;
+
+    @PostConstruct
+    void start() {
+        sketches = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            // Sketches do not grow beyond their capacity, so the upper bound is weighed once
+            .weigher((UUID id, SurveySketches survey) -> (int) Math.min(
+                survey.sketches.length * FreeTextSketch.maxBytes(topAnswers), Integer.MAX_VALUE))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sketches, "freeTextSketches");
+        loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setReadOnly(true);
+        loadTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Builds the results response of a survey with exact option counts and sketched free-text answers.
+     * Each question with free-text answers gets an "approximation" with the number of free-text answers,
+     * the 95% confidence interval of the number of distinct ones and the bounds of the reported counts.
+     *
+     * @param version Version of the survey, as read by {@link SurveyService#getSurveyVersion(UUID)}.
+     * @param error Largest acceptable overestimate of a reported count, relative to the free-text answers of its question.
+     * @return The response, or null if a sketch cannot guarantee the error and the exact results are needed.
+     * @throws IllegalArgumentException if the error is not between 0 and 1.
+     */
+    public Map<String, Object> getApproximateResults(SurveyVersion version, double error) {
+        if (!(error > 0 && error < 1)) {
+            throw new IllegalArgumentException("error must be between 0 and 1");
+        }
+        SurveyDefinition definition = surveyService.getSurveyDefinition(version.id());
+        SurveySketches survey = sketches.get(definition.id(), id -> new SurveySketches(definition, topAnswers));
+        load(survey);
+
+        List<QuestionDefinition> questions = definition.questions();
+        int maxOptions = questions.stream().mapToInt(question -> question.responseOptions().size()).max().orElse(0);
+        ResultAggregator aggregator = new ResultAggregator(questions);
+        for (AnswerCount count : answerCountRepo.findOptionCounts(definition.id(), questions.stream().map(QuestionDefinition::id).toList(), maxOptions)) {
+            int ordinal = definition.question(count.questionId()).ordinalOf(count.answer());
+            // Keys beyond the question's own options are free text and already in the sketch
+            if (ordinal > 0) {
+                aggregator.addOrdinal(count.questionId(), ordinal, count.count());
+            }
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(questions.size());
+        synchronized (survey) {
+            for (int i = 0; i < questions.size(); i++) {
+                Map<String, Object> result = new LinkedHashMap<>(aggregator.summary(i));
+                FreeTextSketch sketch = survey.sketches[i];
+                if (sketch.total() > 0) {
+                    long maxError = sketch.maxError();
+                    if (maxError > error * sketch.total()) {
+                        return null;
+                    }
+                    result.put("responses", withTopAnswers(result.get("responses"), sketch));
+                    result.put("approximation", approximation(sketch, maxError));
+                }
+                results.add(result);
+            }
+        }
+        Map<String, Object> response = surveyService.buildSurveyResultResponse(version, results);
+        response.put("mode", "approx");
+        return response;
+    }
+
+    private Map<String, Long> withTopAnswers(Object optionCounts, FreeTextSketch sketch) {
+        @SuppressWarnings("unchecked")
+        Map<String, Long> responses = new LinkedHashMap<>((Map<String, Long>) optionCounts);
+        sketch.top(reportedAnswers).forEach((answer, counter) -> responses.merge(answer, counter[0], Long::sum));
+        return responses;
+    }
+
+    private Map<String, Object> approximation(FreeTextSketch sketch, long maxError) {
+        long[] distinct = sketch.distinct();
+        Map<String, long[]> bounds = new LinkedHashMap<>();
+        sketch.top(reportedAnswers).forEach((answer, counter) -> bounds.put(answer, new long[] { counter[0] - counter[1], counter[0] }));
+        Map<String, Object> approximation = new LinkedHashMap<>();
+        approximation.put("freeTextAnswers", sketch.total());
+        approximation.put("distinctFreeTextAnswers", Map.of("estimate", distinct[0], "low", distinct[1], "high", distinct[2]));
+        approximation.put("maxError", maxError);
+        approximation.put("bounds", bounds);
+        return approximation;
+    }
+
+    private void load(SurveySketches survey) {
+        synchronized (survey) {
+            if (survey.loaded) {
+                return;
+            }
+        }
+        synchronized (survey.loadLock) {
+            synchronized (survey) {
+                if (survey.loaded) {
+                    return;
+                }
+                survey.heldBack = new ArrayList<>();
+            }
+            try {
+                // As for the query index: submissions committed before the load are not recorded, so it reads from the primary
+                ReplicaReads.onPrimary(() -> loadTransaction.executeWithoutResult(status -> {
+                    long snapshot = System.nanoTime();
+                    for (AnswerCount count : answerCountRepo.findBySurveyId(survey.definition.id())) {
+                        survey.addLoaded(count.questionId(), count.answer(), count.count());
+                    }
+                    submissionEventDelay.awaitEventsBefore(snapshot);
+                    synchronized (survey) {
+                        Set<UUID> loadedIds = new HashSet<>(submissionRepo.findExistingIdsInChunks(
+                            survey.heldBack.stream().map(PendingSubmission::id).toList()));
+                        survey.heldBack.stream().filter(submission -> !loadedIds.contains(submission.id())).forEach(survey::add);
+                        survey.heldBack = null;
+                        survey.loaded = true;
+                    }
+                }));
+            } catch (RuntimeException e) {
+                survey.reset();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Adds the free-text answers of committed submissions to the sketches of their surveys, if those are cached.
+     *
+     * @param event Submissions that were stored.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionsStored(SubmissionsStoredEvent event) {
+        for (PendingSubmission submission : event.submissions()) {
+            SurveySketches survey = sketches.getIfPresent(submission.surveyId());
+            if (survey != null) {
+                survey.record(submission);
+            }
+        }
+    }
+
+    /**
+     * @param surveyId UUID of a survey.
+     * @return Whether the survey's sketches are cached on this node.
+     */
+    public boolean isSketched(UUID surveyId) {
+        return sketches.asMap().containsKey(surveyId);
+    }
+
+    /**
+     * Drops all sketches, e.g. when submissions stored by other nodes may have been missed; they are rebuilt on the next request.
+     */
+    public void invalidateAll() {
+        sketches.invalidateAll();
+    }
+
+    /**
+     * Free-text sketches of one survey, one per question, and their load state. Guarded by the instance,
+     * except while loading, when only the loading thread writes the sketches and new submissions are held back.
+     */
+    private static final class SurveySketches {
+
+        private final SurveyDefinition definition;
+        private final Map<UUID, Integer> questionIndex = new HashMap<>();
+        private final int capacity;
+        private final FreeTextSketch[] sketches;
+        private final Object loadLock = new Object();
+        private boolean loaded;
+        private List<PendingSubmission> heldBack;
+
+        SurveySketches(SurveyDefinition definition, int capacity) {
+            this.definition = definition;
+            this.capacity = capacity;
+            this.sketches = new FreeTextSketch[definition.questions().size()];
+            for (int i = 0; i < sketches.length; i++) {
+                questionIndex.put(definition.questions().get(i).id(), i);
+                sketches[i] = new FreeTextSketch(capacity);
+            }
+        }
+
+        void addLoaded(UUID questionId, String answer, long count) {
+            Integer question = questionIndex.get(questionId);
+            if (question != null && count > 0 && definition.questions().get(question).ordinalOf(answer) == 0) {
+                sketches[question].add(answer, count);
+            }
+        }
+
+        /**
+         * Discards a failed load, leaving the sketches empty and unloaded.
+         */
+        synchronized void reset() {
+            heldBack = null;
+            for (int i = 0; i < sketches.length; i++) {
+                sketches[i] = new FreeTextSketch(capacity);
+            }
+        }
+
+        synchronized void record(PendingSubmission submission) {
+            if (heldBack != null) {
+                heldBack.add(submission);
+            } else if (loaded) {
+                add(submission);
+            }
+            // Not loaded yet: the load reads the submission from the database
+        }
+
+        void add(PendingSubmission submission) {
+            submission.answers().forEach((questionId, answer) -> addLoaded(questionId, answer, 1));
+        }
+    }
+}
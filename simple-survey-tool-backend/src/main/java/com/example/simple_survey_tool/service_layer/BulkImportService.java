@@ -0,0 +1,239 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.simple_survey_tool.model_layer.BulkImportError;
+import com.example.simple_survey_tool.model_layer.BulkImportResult;
+import com.example.simple_survey_tool.model_layer.BulkSubmission;
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.Question;
+import com.example.simple_survey_tool.model_layer.Survey;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.model_layer.UuidV7;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports many surveys or submissions from one request body.
+ *
+ * The body is read with Jackson's streaming parser one record at a time, so memory use is bounded by the
+ * batch size rather than by the size of the request. Invalid records are reported with their position and
+ * skipped; valid records are written in batches, one transaction per batch:
+ * - surveys through {@link SurveyService#saveSurveys(List)} (JDBC batches),
+ * - submissions through the {@link SubmissionBatchWriter} (multi-row INSERT / COPY), which also maintains the
+ *   answer counts, response counts, rollups and live results.
+ * Batches written before a failure stay written.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportService {
+
+    private final SurveyService surveyService;
+    private final SubmissionBatchWriter submissionBatchWriter;
+    private final ObjectMapper objectMapper;
+
+    @Value("${survey.bulk.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${survey.bulk.survey-batch-size:500}")
+    private int surveyBatchSize;
+
+    @Value("${survey.bulk.max-errors:1000}")
+    private int maxErrors;
+
+    /**
+     * Imports a JSON array of surveys, each in the format of a single survey creation.
+     *
+     * @param in Request body.
+     * @return Counts, rejected records (by array index + 1) and the IDs of the stored surveys.
+     * @throws IllegalArgumentException if the body is not a JSON array.
+     * @throws IOException if the body cannot be read.
+     */
+    public BulkImportResult importSurveys(InputStream in) throws IOException {
+        Progress progress = new Progress(maxErrors);
+        List<UUID> ids = new ArrayList<>();
+        List<Survey> batch = new ArrayList<>(surveyBatchSize);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of surveys");
+            }
+            long record = 0;
+            try {
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                    if (token == null) {
+                        throw new JsonParseException(parser, "Unexpected end of input");
+                    }
+                    record++;
+                    progress.received++;
+                    try {
+                        Survey survey = objectMapper.readValue(parser, Survey.class);
+                        validateSurvey(survey);
+                        batch.add(survey);
+                    } catch (JsonMappingException | IllegalArgumentException e) {
+                        skipToTopLevel(parser, 1);
+                        progress.fail(record, e);
+                    }
+                    if (batch.size() >= surveyBatchSize) {
+                        writeSurveys(batch, ids, progress);
+                    }
+                }
+            } catch (JsonParseException e) {
+                progress.fail(record + 1, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+            }
+        }
+        writeSurveys(batch, ids, progress);
+        return progress.result(ids);
+    }
+
+    /**
+     * Imports newline-delimited JSON submissions of one survey, one {@link BulkSubmission} per line.
+     * Submissions without ID get a time-ordered ID for their submission time, submissions without time are
+     * stored with the current time. A submission whose ID already exists is counted as duplicate and skipped.
+     *
+     * @param definition Definition of the survey the submissions belong to.
+     * @param in Request body.
+     * @return Counts and rejected records (by line number).
+     * @throws IOException if the body cannot be read.
+     */
+    public BulkImportResult importSubmissions(SurveyDefinition definition, InputStream in) throws IOException {
+        Progress progress = new Progress(maxErrors);
+        ObjectReader reader = objectMapper.readerFor(BulkSubmission.class);
+        List<PendingSubmission> batch = new ArrayList<>(batchSize);
+        Set<UUID> batchIds = new HashSet<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            long line = 0;
+            try {
+                // Top-level values separated by line breaks are read one after the other
+                for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                    line = parser.currentTokenLocation().getLineNr();
+                    progress.received++;
+                    try {
+                        BulkSubmission submission = reader.readValue(parser);
+                        SubmissionService.validateAnswers(definition, submission.answers());
+                        LocalDateTime submittedAt = submission.submittedAt() != null ? submission.submittedAt() : LocalDateTime.now();
+                        UUID id = submission.id() != null
+                            ? submission.id()
+                            : UuidV7.generate(submittedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                        if (batchIds.add(id)) {
+                            batch.add(new PendingSubmission(id, definition.id(), submittedAt, submission.answers()));
+                        } else {
+                            progress.duplicates++;
+                        }
+                    } catch (JsonMappingException | IllegalArgumentException e) {
+                        skipToTopLevel(parser, 0);
+                        progress.fail(line, e);
+                    }
+                    if (batch.size() >= batchSize) {
+                        writeSubmissions(batch, batchIds, progress);
+                    }
+                }
+            } catch (JsonParseException e) {
+                progress.fail(Math.max(line, e.getLocation() == null ? line : e.getLocation().getLineNr()),
+                    "Malformed JSON, import stopped: " + e.getOriginalMessage());
+            }
+        }
+        writeSubmissions(batch, batchIds, progress);
+        log.info("Bulk import into survey {}: {} submissions imported, {} duplicates, {} failed",
+            definition.id(), progress.imported, progress.duplicates, progress.failed);
+        return progress.result(List.of());
+    }
+
+    private void writeSurveys(List<Survey> batch, List<UUID> ids, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Survey survey : surveyService.saveSurveys(batch)) {
+            ids.add(survey.getId());
+        }
+        progress.imported += batch.size();
+        batch.clear();
+    }
+
+    private void writeSubmissions(List<PendingSubmission> batch, Set<UUID> batchIds, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int written = submissionBatchWriter.writeBatch(batch);
+        progress.imported += written;
+        progress.duplicates += batch.size() - written;
+        batch.clear();
+        batchIds.clear();
+    }
+
+    /**
+     * Checks that a survey can be saved: it needs questions, each with a text.
+     */
+    private static void validateSurvey(Survey survey) {
+        if (survey == null || survey.getQuestions() == null || survey.getQuestions().isEmpty()) {
+            throw new IllegalArgumentException("Survey has no questions");
+        }
+        for (Question question : survey.getQuestions()) {
+            if (question == null || question.getText() == null || question.getText().isBlank()) {
+                throw new IllegalArgumentException("Question without text");
+            }
+        }
+    }
+
+    /**
+     * Skips the rest of a record that failed to bind, up to the end of the value at the given nesting depth
+     * (0 for top-level values, 1 for elements of a top-level array).
+     */
+    private static void skipToTopLevel(JsonParser parser, int depth) throws IOException {
+        while (parser.getParsingContext().getNestingDepth() > depth) {
+            if (parser.nextToken() == null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Counts and errors of one import.
+     */
+    private static final class Progress {
+
+        private final int maxErrors;
+        private final List<BulkImportError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long duplicates;
+        private long failed;
+
+        Progress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(long record, Exception e) {
+            fail(record, e instanceof JsonMappingException mapping ? mapping.getOriginalMessage() : e.getMessage());
+        }
+
+        void fail(long record, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new BulkImportError(record, message));
+            }
+        }
+
+        BulkImportResult result(List<UUID> ids) {
+            return new BulkImportResult(received, imported, duplicates, failed, errors, ids);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.simple_survey_tool.model_layer.ClusterNotification;
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.SubmissionsStoredEvent;
+import com.example.simple_survey_tool.repository_layer.NotificationRepo;
+import com.example.simple_survey_tool.repository_layer.SubmissionExportRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the in-memory state of several nodes sharing one database coherent, using PostgreSQL LISTEN/NOTIFY.
+ * Enabled with "survey.cluster.enabled=true".
+ *
+ * Survey definitions never change and cached result bytes are keyed by the survey version read from the database,
+ * so those caches stay valid on every node. What goes stale are the structures fed by {@link SubmissionsStoredEvent}:
+ * live results streams, query indexes and free-text sketches. Therefore:
+ * - The IDs of committed submissions are collected and sent every "survey.cluster.publish-interval-ms" as
+ *   notifications on channel "survey_events", one per survey and up to 150 IDs. Sending them in one statement per
+ *   interval rather than inside each writing transaction avoids the global lock NOTIFY takes at commit.
+ * - Every node listens on its own connection. For a survey it watches, indexes or sketches it reads the notified
+ *   submissions and republishes them as a local {@link SubmissionsStoredEvent}; other surveys cost nothing.
+ * - After the listening connection is lost, notifications may have been missed: indexes and sketches are dropped
+ *   (rebuilt on next use) and live results subscribers are told to resync.
+ * - When sending fails, the submissions of that interval are not sent later, which would exceed the delay loads
+ *   wait for. Instead a gap notification is sent as soon as sending works again, and every node resynchronises
+ *   as after a lost connection.
+ * A submission on one node reaches the others after at most the publish interval plus one read. Index and sketch
+ * loads keep checking arriving submissions against their snapshot for that long (see {@link SubmissionEventDelay}),
+ * so a submission committed shortly before a load on another node is not counted twice.
+ *
+ * Cluster mode requires "survey.counter.mode=direct", and refuses to start otherwise. Striped counter deltas are
+ * held by the node that counted them until its next flush and are not part of the notifications, so the response
+ * count and survey version read by the other nodes, and with them their ETags and cached results, would miss
+ * submissions that their indexes and live results already include.
+ */
+@Service
+@ConditionalOnProperty(name = "survey.cluster.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterEventBus {
+
+    static final String CHANNEL = "survey_events";
+
+    // NOTIFY payloads must be shorter than 8000 bytes; a UUID takes 39 bytes in the JSON array
+    private static final int IDS_PER_NOTIFICATION = 150;
+
+    private final NotificationRepo notificationRepo;
+    private final SubmissionExportRepo submissionExportRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LiveResultsService liveResultsService;
+    private final ResultsQueryService resultsQueryService;
+    private final ApproximateResultsService approximateResultsService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${survey.cluster.reconnect-delay-ms:1000}")
+    private long reconnectDelayMs;
+
+    @Value("${survey.counter.mode:direct}")
+    private String counterMode;
+
+    private final String node = UUID.randomUUID().toString();
+    private final ConcurrentLinkedQueue<PendingSubmission> outbox = new ConcurrentLinkedQueue<>();
+    // Set when notifications could not be sent; only accessed by publish()
+    private boolean gap;
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listener;
+
+    @PostConstruct
+    void start() {
+        if (!"direct".equals(counterMode)) {
+            throw new IllegalStateException("survey.cluster.enabled=true requires survey.counter.mode=direct, not " + counterMode);
+        }
+        running = true;
+        listener = new Thread(this::listen, "cluster-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        publish();
+        running = false;
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                // Closing only unblocks the listener
+            }
+        }
+        listener.interrupt();
+        listener.join(reconnectDelayMs);
+    }
+
+    /**
+     * Queues committed submissions of this node for the next notification. Submissions republished from
+     * notifications of other nodes are published outside a transaction and therefore not sent again.
+     *
+     * @param event Submissions that were stored.
+     */
+    @TransactionalEventListener
+    public void onSubmissionsStored(SubmissionsStoredEvent event) {
+        outbox.addAll(event.submissions());
+    }
+
+    /**
+     * Sends the queued submission IDs to the other nodes, preceded by a gap notification if the previous send failed.
+     */
+    @Scheduled(fixedDelayString = "${survey.cluster.publish-interval-ms:100}")
+    public synchronized void publish() {
+        Map<UUID, List<UUID>> bySurvey = new HashMap<>();
+        for (PendingSubmission submission = outbox.poll(); submission != null; submission = outbox.poll()) {
+            bySurvey.computeIfAbsent(submission.surveyId(), id -> new ArrayList<>()).add(submission.id());
+        }
+        if (bySurvey.isEmpty() && !gap) {
+            return;
+        }
+        List<String> payloads = new ArrayList<>();
+        try {
+            if (gap) {
+                payloads.add(objectMapper.writeValueAsString(new ClusterNotification(node, null, List.of())));
+            }
+            for (Map.Entry<UUID, List<UUID>> survey : bySurvey.entrySet()) {
+                List<UUID> ids = survey.getValue();
+                for (int i = 0; i < ids.size(); i += IDS_PER_NOTIFICATION) {
+                    payloads.add(objectMapper.writeValueAsString(new ClusterNotification(node, survey.getKey(),
+                        ids.subList(i, Math.min(i + IDS_PER_NOTIFICATION, ids.size())))));
+                }
+            }
+            notificationRepo.notify(CHANNEL, payloads);
+            gap = false;
+        } catch (JsonProcessingException | RuntimeException e) {
+            // All notifications are sent by one statement, so none of them reached the other nodes
+            gap = true;
+            log.warn("Failed to notify other nodes of {} submissions, they will resynchronise",
+                bySurvey.values().stream().mapToInt(List::size).sum(), e);
+        }
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection listening = DriverManager.getConnection(url, username, password)) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) {
+                    onGap();
+                }
+                log.info("Listening for cluster notifications as node {}", node);
+                PGConnection pgConnection = listening.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(0);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cluster notification connection lost, reconnecting in {} ms", reconnectDelayMs, e);
+                reconnect = true;
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            ClusterNotification notification = objectMapper.readValue(payload, ClusterNotification.class);
+            UUID surveyId = notification.surveyId();
+            if (node.equals(notification.node())) {
+                return;
+            }
+            if (surveyId == null) {
+                log.warn("Node {} failed to send notifications, resynchronising", notification.node());
+                onGap();
+                return;
+            }
+            if (!(liveResultsService.isWatched(surveyId)
+                    || resultsQueryService.isIndexed(surveyId) || approximateResultsService.isSketched(surveyId))) {
+                return;
+            }
+            List<PendingSubmission> submissions = submissionExportRepo.findSubmissions(notification.submissionIds());
+            eventPublisher.publishEvent(new SubmissionsStoredEvent(submissions));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to apply cluster notification, resynchronising", e);
+            onGap();
+        }
+    }
+
+    private void onGap() {
+        resultsQueryService.invalidateAll();
+        approximateResultsService.invalidateAll();
+        liveResultsService.resyncAll();
+    }
+}
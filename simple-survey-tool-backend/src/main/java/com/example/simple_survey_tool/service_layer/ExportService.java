@@ -0,0 +1,261 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.repository_layer.SubmissionExportRepo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exports the raw submissions of a survey, one row per submission with one column per question.
+ * Rows are written while they are read from the database, so memory use is constant regardless of survey size.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setRootValueSeparator(null);
+
+    private final SubmissionExportRepo submissionExportRepo;
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON("ndjson", new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        /**
+         * @param name Format name as given in the request ("csv" or "ndjson").
+         * @return The format.
+         * @throws IllegalArgumentException if the format is not supported.
+         */
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + name);
+        }
+    }
+
+    /**
+     * Writes all submissions of a survey, ordered by submission time.
+     *
+     * CSV has a header row "submission_id,submitted_at,<question text>..." and an empty cell for unanswered questions.
+     * NDJSON has one object per line: {"submission_id":...,"submitted_at":...,"answers":{"<question id>":"<answer>",...}}.
+     * The stream is flushed but not closed.
+     *
+     * @param definition Definition of the survey; its questions are the export columns.
+     * @param format Output format.
+     * @param out Target stream.
+     * @throws IOException if writing fails.
+     */
+    @Transactional(readOnly = true)
+    public void export(SurveyDefinition definition, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer, definition.questions()) : new NdjsonRowWriter(writer, definition.questions());
+        Pivot pivot = new Pivot(definition.questions(), rowWriter);
+        rowWriter.header();
+        try {
+            submissionExportRepo.streamAnswers(definition.id(), pivot::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        pivot.finish();
+        rowWriter.flush();
+    }
+
+    /**
+     * Collects the consecutive answer rows of one submission into one array of answers by question column.
+     */
+    private static final class Pivot {
+
+        private final Map<UUID, Integer> columns = new HashMap<>();
+        private final RowWriter rowWriter;
+        private final String[] answers;
+        private UUID submissionId;
+        private LocalDateTime submittedAt;
+
+        Pivot(List<QuestionDefinition> questions, RowWriter rowWriter) {
+            for (int i = 0; i < questions.size(); i++) {
+                columns.put(questions.get(i).id(), i);
+            }
+            this.rowWriter = rowWriter;
+            this.answers = new String[questions.size()];
+        }
+
+        void add(UUID submissionId, LocalDateTime submittedAt, UUID questionId, String answer) {
+            if (!submissionId.equals(this.submissionId)) {
+                finish();
+                this.submissionId = submissionId;
+                this.submittedAt = submittedAt;
+            }
+            Integer column = questionId == null ? null : columns.get(questionId);
+            if (column != null) {
+                answers[column] = answer;
+            }
+        }
+
+        void finish() {
+            if (submissionId == null) {
+                return;
+            }
+            try {
+                rowWriter.row(submissionId, submittedAt, answers);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Arrays.fill(answers, null);
+            submissionId = null;
+        }
+    }
+
+    private interface RowWriter {
+        void header() throws IOException;
+
+        void row(UUID submissionId, LocalDateTime submittedAt, String[] answers) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final List<QuestionDefinition> questions;
+
+        CsvRowWriter(Writer writer, List<QuestionDefinition> questions) {
+            this.writer = writer;
+            this.questions = questions;
+        }
+
+        @Override
+        public void header() throws IOException {
+            writer.write("submission_id,submitted_at");
+            for (QuestionDefinition question : questions) {
+                writer.write(',');
+                writeCell(question.text());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(UUID submissionId, LocalDateTime submittedAt, String[] answers) throws IOException {
+            writer.write(submissionId.toString());
+            writer.write(',');
+            if (submittedAt != null) {
+                writer.write(submittedAt.toString());
+            }
+            for (String answer : answers) {
+                writer.write(',');
+                writeCell(answer);
+            }
+            writer.write("\r\n");
+        }
+
+        /**
+         * Writes a value as a CSV cell, quoted as in RFC 4180 if it contains a separator, quote or line break.
+         */
+        private void writeCell(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+        private final String[] questionIds;
+
+        NdjsonRowWriter(Writer writer, List<QuestionDefinition> questions) throws IOException {
+            this.writer = writer;
+            this.generator = JSON_FACTORY.createGenerator(writer);
+            this.questionIds = questions.stream().map(question -> question.id().toString()).toArray(String[]::new);
+        }
+
+        @Override
+        public void header() {
+            // NDJSON has no header
+        }
+
+        @Override
+        public void row(UUID submissionId, LocalDateTime submittedAt, String[] answers) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("submission_id", submissionId.toString());
+            generator.writeStringField("submitted_at", submittedAt == null ? null : submittedAt.toString());
+            generator.writeObjectFieldStart("answers");
+            for (int i = 0; i < answers.length; i++) {
+                if (answers[i] != null) {
+                    generator.writeStringField(questionIds[i], answers[i]);
+                }
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summarises the free-text answers of one question in bounded memory:
+ * - the exact number of answers,
+ * - the most frequent answers, with a Space-Saving sketch of fixed capacity. Every reported count may
+ *   overestimate the true count by at most its error, and no error exceeds total / capacity;
+ * - the number of distinct answers, with a HyperLogLog sketch of 2^14 registers (standard error 0.8%).
+ *
+ * Not thread-safe.
+ */
+public final class FreeTextSketch {
+
+    private static final int PRECISION = 14;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double STANDARD_ERROR = 1.04 / Math.sqrt(REGISTERS);
+
+    private final int capacity;
+    private final Map<String, long[]> counters;
+    private byte[] registers;
+    private long total;
+
+    /**
+     * @param capacity Number of answers counted individually.
+     */
+    public FreeTextSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * @param capacity Number of answers counted individually.
+     * @return Upper bound of the heap size of a sketch, in bytes.
+     */
+    public static long maxBytes(int capacity) {
+        return REGISTERS + capacity * 160L;
+    }
+
+    /**
+     * Counts an answer value several times, e.g. a pre-aggregated count.
+     *
+     * @param answer Answer value as submitted.
+     * @param count Number of times the value was given.
+     */
+    public void add(String answer, long count) {
+        total += count;
+        addDistinct(answer);
+        long[] counter = counters.get(answer);
+        if (counter != null) {
+            counter[0] += count;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(answer, new long[] { count, 0 });
+            return;
+        }
+        // Replace the smallest counter; the new answer may have had up to that many uncounted occurrences
+        String smallest = null;
+        long smallestCount = Long.MAX_VALUE;
+        for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] < smallestCount) {
+                smallest = entry.getKey();
+                smallestCount = entry.getValue()[0];
+            }
+        }
+        counters.remove(smallest);
+        counters.put(answer, new long[] { smallestCount + count, smallestCount });
+    }
+
+    private void addDistinct(String answer) {
+        if (registers == null) {
+            registers = new byte[REGISTERS];
+        }
+        long hash = hash(answer);
+        int register = (int) (hash >>> (64 - PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (rank > registers[register]) {
+            registers[register] = rank;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes, finalised with the MurmurHash3 mixer.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * @return Exact number of free-text answers counted.
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * @return Largest possible overestimate of any reported count.
+     */
+    public long maxError() {
+        if (counters.size() < capacity) {
+            return 0;
+        }
+        long smallest = Long.MAX_VALUE;
+        for (long[] counter : counters.values()) {
+            smallest = Math.min(smallest, counter[0]);
+        }
+        return smallest;
+    }
+
+    /**
+     * @param limit Largest number of answers to return.
+     * @return The most frequent answers by estimated count, most frequent first, each as {count, error}.
+     */
+    public Map<String, long[]> top(int limit) {
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(counters.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        Map<String, long[]> top = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            top.put(entry.getKey(), entry.getValue().clone());
+        }
+        return top;
+    }
+
+    /**
+     * @return Estimated number of distinct answers with its 95% confidence interval, as {estimate, low, high}.
+     */
+    public long[] distinct() {
+        if (registers == null) {
+            return new long[] { 0, 0, 0 };
+        }
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / REGISTERS);
+        double estimate = alpha * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            // Linear counting is more accurate for small cardinalities
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        double margin = 1.96 * STANDARD_ERROR * estimate;
+        return new long[] { Math.round(estimate), Math.max(0, Math.round(estimate - margin)), Math.round(estimate + margin) };
+    }
+}
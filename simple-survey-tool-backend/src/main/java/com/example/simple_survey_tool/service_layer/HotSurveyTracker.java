@@ -0,0 +1,90 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.simple_survey_tool.model_layer.HotSurvey;
+
+/**
+ * Tracks the surveys receiving the most requests with a Space-Saving sketch of fixed capacity
+ * ("survey.hot.capacity" counters), so the busiest surveys can be found without a metric tag per survey.
+ *
+ * Every survey with more than 1/capacity of the recent requests is guaranteed to be tracked. A survey that is
+ * not tracked replaces the one with the smallest count and inherits that count as its possible error.
+ * All counts are halved every "survey.hot.decay-interval-ms", so the ranking follows the current load.
+ */
+@Service
+public class HotSurveyTracker {
+
+    private final int capacity;
+    private final Map<UUID, long[]> counters;
+
+    public HotSurveyTracker(@Value("${survey.hot.capacity:100}") int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Counts one request for a survey.
+     *
+     * @param surveyId UUID of the requested survey.
+     */
+    public synchronized void record(UUID surveyId) {
+        long[] counter = counters.get(surveyId);
+        if (counter != null) {
+            counter[0]++;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(surveyId, new long[] { 1, 0 });
+            return;
+        }
+        // Replace the smallest counter; the newcomer may have had up to that many uncounted requests
+        UUID smallest = null;
+        long smallestCount = Long.MAX_VALUE;
+        for (Map.Entry<UUID, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] < smallestCount) {
+                smallest = entry.getKey();
+                smallestCount = entry.getValue()[0];
+            }
+        }
+        counters.remove(smallest);
+        counters.put(surveyId, new long[] { smallestCount + 1, smallestCount });
+    }
+
+    /**
+     * @param limit Largest number of surveys to return.
+     * @return The surveys with the highest estimated request counts, busiest first.
+     */
+    public synchronized List<HotSurvey> top(int limit) {
+        List<HotSurvey> surveys = new ArrayList<>(counters.size());
+        counters.forEach((surveyId, counter) -> surveys.add(new HotSurvey(surveyId, counter[0], counter[1])));
+        surveys.sort(Comparator.comparingLong(HotSurvey::count).reversed());
+        return surveys.subList(0, Math.min(limit, surveys.size()));
+    }
+
+    /**
+     * Halves all counts and errors and forgets surveys whose count drops to zero.
+     */
+    @Scheduled(fixedDelayString = "${survey.hot.decay-interval-ms:60000}")
+    public synchronized void decay() {
+        Iterator<long[]> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            long[] counter = iterator.next();
+            counter[0] >>= 1;
+            counter[1] >>= 1;
+            if (counter[0] == 0) {
+                iterator.remove();
+            }
+        }
+    }
+}
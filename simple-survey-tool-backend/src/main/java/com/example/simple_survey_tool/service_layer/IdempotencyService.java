@@ -0,0 +1,177 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.simple_survey_tool.repository_layer.IdempotencyKeyRepo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recognises retried submissions by the client's Idempotency-Key, per survey.
+ *
+ * The idempotency_keys table is the source of truth: its primary key admits one submission per key, including
+ * between nodes and across restarts, and keys are kept for "survey.idempotency.retention". In front of it,
+ * a {@link RotatingBloomFilter} of the keys seen by this node within "survey.idempotency.filter-window" in
+ * "survey.idempotency.filter-bytes" of memory tells new keys, the common case, apart without a lookup.
+ * Only keys the filter may have seen are looked up, so a retry is answered before any write transaction starts.
+ *
+ * Metrics: "survey.idempotency.checks" by result (new, duplicate, false_positive), "survey.idempotency.filter.bytes"
+ * and the estimated "survey.idempotency.filter.false_positive_rate".
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    /**
+     * Longest accepted key, the size of the idempotency_key column.
+     */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final int GENERATIONS = 4;
+    private static final int HASHES = 7;
+    private static final int PURGE_BATCH_SIZE = 10_000;
+
+    private final IdempotencyKeyRepo idempotencyKeyRepo;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${survey.idempotency.filter-bytes:4194304}")
+    private long filterBytes;
+
+    @Value("${survey.idempotency.filter-window:10m}")
+    private Duration filterWindow;
+
+    @Value("${survey.idempotency.retention:24h}")
+    private Duration retention;
+
+    private RotatingBloomFilter filter;
+    private long lastRotation;
+    private Counter newKeys;
+    private Counter duplicates;
+    private Counter falsePositives;
+
+    @PostConstruct
+    void start() {
+        filter = new RotatingBloomFilter(filterBytes, GENERATIONS, HASHES);
+        lastRotation = System.nanoTime();
+        newKeys = check("new");
+        duplicates = check("duplicate");
+        falsePositives = check("false_positive");
+        Gauge.builder("survey.idempotency.filter.bytes", filter, RotatingBloomFilter::bytes)
+            .description("Memory of the Bloom filter of recent idempotency keys")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("survey.idempotency.filter.false_positive_rate", filter, RotatingBloomFilter::falsePositiveRate)
+            .description("Estimated probability that a new idempotency key needs a database lookup")
+            .register(meterRegistry);
+    }
+
+    private Counter check(String result) {
+        return Counter.builder("survey.idempotency.checks")
+            .description("Idempotency keys checked before submitting")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param key Idempotency key sent by the client, or null.
+     * @throws IllegalArgumentException if the key is empty or longer than {@link #MAX_KEY_LENGTH}.
+     */
+    public static void validateKey(String key) {
+        if (key != null && (key.isBlank() || key.length() > MAX_KEY_LENGTH)) {
+            throw new IllegalArgumentException("Idempotency-Key must have 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Looks up the submission created with a key, if the filter may have seen the key.
+     *
+     * @param surveyId UUID of the survey.
+     * @param key Idempotency key sent by the client.
+     * @return UUID of the original submission, or null if the key is new to this node's window or the database.
+     */
+    public UUID findOriginal(UUID surveyId, String key) {
+        if (!filter.mightContain(token(surveyId, key))) {
+            newKeys.increment();
+            return null;
+        }
+        UUID original = idempotencyKeyRepo.findSubmissionId(surveyId, key);
+        if (original == null) {
+            falsePositives.increment();
+        } else {
+            duplicates.increment();
+        }
+        return original;
+    }
+
+    /**
+     * Stores a key for a new submission unless another submission has it already, e.g. a concurrent retry,
+     * a retry on another node or one older than the filter window. Joins the caller's transaction, so the key
+     * is released if the submission is rolled back.
+     *
+     * @param surveyId UUID of the survey.
+     * @param key Idempotency key sent by the client.
+     * @param submissionId UUID of the new submission.
+     * @return null if the key was stored for the new submission, otherwise the UUID of the original submission.
+     * @throws IllegalStateException if the key was taken and deleted again in the meantime.
+     */
+    public UUID claim(UUID surveyId, String key, UUID submissionId) {
+        filter.add(token(surveyId, key));
+        if (idempotencyKeyRepo.insert(surveyId, key, submissionId)) {
+            return null;
+        }
+        UUID original = idempotencyKeyRepo.findSubmissionId(surveyId, key);
+        if (original == null) {
+            throw new IllegalStateException("Idempotency key of survey " + surveyId + " was released concurrently");
+        }
+        duplicates.increment();
+        return original;
+    }
+
+    /**
+     * Releases a key claimed for a submission that was not accepted after all.
+     *
+     * @param surveyId UUID of the survey.
+     * @param key Idempotency key sent by the client.
+     * @param submissionId UUID of the submission the key was claimed for.
+     */
+    public void release(UUID surveyId, String key, UUID submissionId) {
+        idempotencyKeyRepo.delete(surveyId, key, submissionId);
+    }
+
+    private static String token(UUID surveyId, String key) {
+        return surveyId + ":" + key;
+    }
+
+    /**
+     * Starts a new filter generation every third of the filter window, so a key stays in the filter for at least
+     * the window, and deletes keys beyond the retention period in batches.
+     */
+    @Scheduled(fixedDelayString = "${survey.idempotency.maintenance-interval-ms:10000}")
+    public void maintain() {
+        if (System.nanoTime() - lastRotation >= filterWindow.toNanos() / (GENERATIONS - 1)) {
+            filter.rotate();
+            lastRotation = System.nanoTime();
+        }
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int deleted = 0;
+        for (int batch = PURGE_BATCH_SIZE; batch == PURGE_BATCH_SIZE;) {
+            batch = idempotencyKeyRepo.deleteOlderThan(before, PURGE_BATCH_SIZE);
+            deleted += batch;
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} idempotency keys older than {}", deleted, retention);
+        }
+    }
+}
@@ -0,0 +1,534 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.simple_survey_tool.config.ReplicaReads;
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+import com.example.simple_survey_tool.model_layer.SubmissionsStoredEvent;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.model_layer.SurveyVersion;
+import com.example.simple_survey_tool.repository_layer.SubmissionRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes result updates of surveys to Server-Sent Event subscribers.
+ *
+ * Committed submissions are counted into one pending {@link ResultAggregator} per watched survey; surveys
+ * without subscribers are skipped. Every "survey.live.interval-ms" the pending counts of each survey are
+ * turned into one "results" delta event, serialised once and handed to all subscribers of the survey,
+ * so a survey gets at most one push per interval no matter how many submissions or subscribers it has.
+ *
+ * The "snapshot" a subscriber starts from is taken at such a delta boundary, so every submission is in either the
+ * snapshot or a later delta, exactly once. For this a watched survey also keeps its total counts: they are loaded
+ * once per survey in a REPEATABLE READ snapshot on the primary, while the events arriving meanwhile are held back
+ * and those of submissions the snapshot already contained are dropped by ID, as for the query index of
+ * {@link ResultsQueryService}; afterwards every committed submission is added. New subscribers wait for the next
+ * boundary after the load and all get the totals of that boundary, so a survey is read from the database once
+ * and not per subscriber. Loads run on their own small pool ("survey.live.load-threads"), since each of them
+ * waits for late events, and neither block the senders nor, while querying, the boundaries of their survey. The response count is exact in direct counter mode; in striped mode the loaded count
+ * includes the unflushed increments, as on the results endpoint.
+ *
+ * Every subscriber has a small queue ("survey.live.queue-capacity") drained by a shared pool of sender threads,
+ * so a slow client never blocks the others. When its queue is full the oldest event is dropped, and the client
+ * gets a "resync" event before the next delta, telling it to reload the results. Idle connections hold
+ * no thread; only a comment is sent every "survey.live.heartbeat-ms" to detect closed connections.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveResultsService {
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("keep-alive").build();
+    private static final Set<DataWithMediaType> RESYNC = SseEmitter.event().name("resync").data("").build();
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final SurveyService surveyService;
+    private final SubmissionRepo submissionRepo;
+    private final PlatformTransactionManager transactionManager;
+    private final SubmissionEventDelay submissionEventDelay;
+
+    @Value("${survey.live.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    @Value("${survey.live.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${survey.live.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${survey.live.sender-threads:8}")
+    private int senderThreads;
+
+    @Value("${survey.live.load-threads:2}")
+    private int loadThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final Map<UUID, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private ExecutorService senders;
+    private ExecutorService loaders;
+    private Counter dropped;
+    private TransactionTemplate loadTransaction;
+
+    @PostConstruct
+    void start() {
+        // Senders mostly wait for client sockets, so they run on virtual threads when those are enabled
+        ThreadFactory threadFactory = virtualThreads
+            ? new VirtualThreadTaskExecutor("live-results-").getVirtualThreadFactory()
+            : new CustomizableThreadFactory("live-results-");
+        senders = Executors.newFixedThreadPool(senderThreads, threadFactory);
+        loaders = Executors.newFixedThreadPool(loadThreads, new CustomizableThreadFactory("live-results-load-"));
+        Gauge.builder("survey.live.subscribers", subscriberCount, AtomicInteger::get)
+            .description("Open live results streams")
+            .register(meterRegistry);
+        dropped = Counter.builder("survey.live.dropped")
+            .description("Live results events dropped because a subscriber could not keep up")
+            .register(meterRegistry);
+        loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setReadOnly(true);
+        loadTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @PreDestroy
+    void stop() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdown();
+        loaders.shutdownNow();
+    }
+
+    /**
+     * Opens a live results stream for a survey. The first event is the "snapshot" with the results at the next
+     * delta boundary, followed by a "results" delta for every later interval in which submissions were committed.
+     *
+     * @param definition Definition of the survey.
+     * @return The event stream, or null if "survey.live.max-subscribers" streams are already open.
+     */
+    public SseEmitter subscribe(SurveyDefinition definition) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        Subscriber subscriber = new Subscriber(definition.id(), new SseEmitter(timeoutMs));
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(e -> unsubscribe(subscriber));
+        // Registered before its snapshot is taken, so the channel records every submission the snapshot may miss
+        channels.compute(definition.id(), (id, channel) -> {
+            Channel target = channel != null ? channel : new Channel(definition);
+            target.subscribers.add(subscriber);
+            target.join(subscriber);
+            return target;
+        });
+        return subscriber.emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            subscriberCount.decrementAndGet();
+        }
+        channels.computeIfPresent(subscriber.surveyId, (id, channel) -> {
+            channel.subscribers.remove(subscriber);
+            channel.leave(subscriber);
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    /**
+     * Counts committed submissions into the pending delta of their survey, if the survey is watched.
+     *
+     * @param event Submissions that were stored.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionsStored(SubmissionsStoredEvent event) {
+        for (PendingSubmission submission : event.submissions()) {
+            Channel channel = channels.get(submission.surveyId());
+            if (channel != null) {
+                channel.record(submission);
+            }
+        }
+    }
+
+    /**
+     * @param surveyId UUID of a survey.
+     * @return Whether the survey has live results subscribers on this node.
+     */
+    public boolean isWatched(UUID surveyId) {
+        return channels.containsKey(surveyId);
+    }
+
+    /**
+     * Sends every subscriber a "resync" event, e.g. when submissions stored by other nodes may have been missed.
+     * The totals of the watched surveys are dropped as well and loaded again for the next subscriber.
+     */
+    public void resyncAll() {
+        channels.values().forEach(channel -> {
+            channel.invalidate();
+            channel.subscribers.forEach(subscriber -> {
+                if (!subscriber.started) {
+                    return;
+                }
+                synchronized (subscriber) {
+                    subscriber.lost = true;
+                }
+                enqueue(subscriber, HEARTBEAT);
+            });
+        });
+    }
+
+    /**
+     * Sends the pending delta of every watched survey with new submissions to its subscribers,
+     * and the snapshot of this boundary to the subscribers that joined since the previous one.
+     */
+    @Scheduled(fixedDelayString = "${survey.live.interval-ms:1000}")
+    public void publish() {
+        channels.values().forEach(channel -> {
+            Boundary boundary = channel.takeBoundary();
+            if (boundary.delta() != null) {
+                Set<DataWithMediaType> event = serialise("results", boundary.delta().get("sequence"), boundary.delta(), channel);
+                if (event != null) {
+                    // Subscribers joining at this boundary are not started yet; the delta is part of their snapshot
+                    channel.subscribers.forEach(subscriber -> {
+                        if (subscriber.started) {
+                            enqueue(subscriber, event);
+                        }
+                    });
+                }
+            }
+            if (boundary.loading() != null) {
+                // The load waits for late events of submissions in its snapshot, so it does not hold up the other surveys
+                loaders.execute(() -> load(channel, boundary.loading()));
+            }
+            if (!boundary.joined().isEmpty()) {
+                Map<String, Object> snapshot = surveyService.buildSurveyResultResponse(boundary.version(), boundary.results());
+                Set<DataWithMediaType> event = serialise("snapshot", boundary.sequence(), snapshot, channel);
+                for (Subscriber subscriber : boundary.joined()) {
+                    subscriber.started = true;
+                    if (event != null) {
+                        enqueue(subscriber, event);
+                    } else {
+                        subscriber.emitter.complete();
+                    }
+                }
+            }
+        });
+    }
+
+    private Set<DataWithMediaType> serialise(String name, Object sequence, Map<String, Object> data, Channel channel) {
+        try {
+            return SseEmitter.event()
+                .id(String.valueOf(sequence))
+                .name(name)
+                .data(objectMapper.writeValueAsBytes(data), MediaType.APPLICATION_JSON)
+                .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialise live results of survey {}", channel.definition.id(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Loads the total counts of a watched survey; the channel holds back the submissions recorded meanwhile.
+     * A failed load is retried at the next boundary at which subscribers are waiting.
+     *
+     * @param heldBack List the channel holds back submissions in for this load; replaced when the load is discarded.
+     */
+    private void load(Channel channel, List<PendingSubmission> heldBack) {
+        SurveyDefinition definition = channel.definition;
+        try {
+            // Submissions committed before the channel started holding back are only in the snapshot, so it must be current
+            ReplicaReads.onPrimary(() -> loadTransaction.executeWithoutResult(status -> {
+                long snapshot = System.nanoTime();
+                SurveyVersion version = surveyService.getSurveyVersion(definition.id());
+                ResultAggregator totals = surveyService.countResults(definition);
+                submissionEventDelay.awaitEventsBefore(snapshot);
+                // Submissions held back after this copy committed after the snapshot, so they are not looked up
+                List<UUID> heldBackIds;
+                synchronized (channel) {
+                    if (channel.heldBack != heldBack) {
+                        // Invalidated while loading
+                        return;
+                    }
+                    heldBackIds = heldBack.stream().map(PendingSubmission::id).toList();
+                }
+                // Looked up without holding the channel, so its boundaries and new submissions are not blocked
+                Set<UUID> loadedIds = new HashSet<>(submissionRepo.findExistingIdsInChunks(heldBackIds));
+                synchronized (channel) {
+                    if (channel.heldBack != heldBack) {
+                        return;
+                    }
+                    channel.finishLoading(version, totals,
+                        heldBack.stream().filter(submission -> !loadedIds.contains(submission.id())).toList());
+                }
+            }));
+        } catch (RuntimeException e) {
+            synchronized (channel) {
+                if (channel.heldBack == heldBack) {
+                    channel.heldBack = null;
+                }
+            }
+            log.warn("Failed to load live results of survey {}", definition.id(), e);
+        }
+    }
+
+    /**
+     * Sends a comment to every subscriber, so connections closed by the client or a proxy are noticed and released.
+     */
+    @Scheduled(fixedDelayString = "${survey.live.heartbeat-ms:15000}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT)));
+    }
+
+    /**
+     * Queues an event for a subscriber, dropping its oldest event if the queue is full,
+     * and starts a sender for it unless one is already draining its queue.
+     */
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> event) {
+        boolean startSender;
+        synchronized (subscriber) {
+            if (subscriber.queue.size() >= queueCapacity) {
+                subscriber.queue.pollFirst();
+                subscriber.lost = true;
+                dropped.increment();
+            }
+            subscriber.queue.addLast(event);
+            startSender = !subscriber.sending;
+            subscriber.sending = true;
+        }
+        if (startSender) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Set<DataWithMediaType> event;
+            boolean lost;
+            synchronized (subscriber) {
+                event = subscriber.queue.pollFirst();
+                if (event == null) {
+                    subscriber.sending = false;
+                    return;
+                }
+                lost = subscriber.lost;
+                subscriber.lost = false;
+            }
+            try {
+                if (lost) {
+                    subscriber.emitter.send(RESYNC);
+                }
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // The client is gone or the stream was completed; the container calls back onError/onCompletion
+                synchronized (subscriber) {
+                    subscriber.queue.clear();
+                    subscriber.sending = false;
+                }
+                unsubscribe(subscriber);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Subscribers, pending counts and total counts of one watched survey. Guarded by the instance,
+     * except for the subscribers, which are read without locking when events are handed out.
+     */
+    private static final class Channel {
+
+        private final SurveyDefinition definition;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private ResultAggregator pending;
+        private int pendingResponses;
+        private long sequence;
+        // Subscribers waiting for their snapshot
+        private List<Subscriber> joining = new ArrayList<>();
+        // Counts of all submissions up to now, and the survey version they started from, once loaded
+        private ResultAggregator totals;
+        private SurveyVersion version;
+        private long counted;
+        // Submissions recorded while the totals are loaded
+        private List<PendingSubmission> heldBack;
+
+        Channel(SurveyDefinition definition) {
+            this.definition = definition;
+            this.pending = new ResultAggregator(definition.questions());
+        }
+
+        synchronized void join(Subscriber subscriber) {
+            joining.add(subscriber);
+        }
+
+        synchronized void leave(Subscriber subscriber) {
+            joining.remove(subscriber);
+        }
+
+        synchronized void record(PendingSubmission submission) {
+            submission.answers().forEach(pending::add);
+            pendingResponses++;
+            if (heldBack != null) {
+                heldBack.add(submission);
+            } else if (totals != null) {
+                count(submission);
+            }
+            // Not loaded yet: the load reads the submission from the database
+        }
+
+        private void count(PendingSubmission submission) {
+            submission.answers().forEach(totals::add);
+            counted++;
+        }
+
+        /**
+         * Completes a load with the counts read from the database and the held-back submissions they did not contain.
+         * Called with the instance locked.
+         */
+        void finishLoading(SurveyVersion loadedVersion, ResultAggregator loadedTotals, List<PendingSubmission> notLoaded) {
+            version = loadedVersion;
+            totals = loadedTotals;
+            counted = 0;
+            heldBack = null;
+            notLoaded.forEach(this::count);
+        }
+
+        /**
+         * Drops the totals, e.g. after submissions may have been missed, and discards a load in progress.
+         */
+        synchronized void invalidate() {
+            totals = null;
+            version = null;
+            heldBack = null;
+        }
+
+        /**
+         * Closes the current interval: takes the counts collected since the last delta and, if the totals are
+         * loaded, the subscribers waiting for a snapshot along with the totals at this point. Starts holding back
+         * submissions for a load if subscribers are waiting and the totals are neither loaded nor being loaded.
+         *
+         * @return The boundary; its delta is null if there were no new submissions.
+         */
+        Boundary takeBoundary() {
+            ResultAggregator counts = null;
+            int responses;
+            long deltaSequence;
+            List<Subscriber> joined = List.of();
+            List<PendingSubmission> loading = null;
+            SurveyVersion snapshotVersion = null;
+            List<Map<String, Object>> snapshotResults = null;
+            synchronized (this) {
+                responses = pendingResponses;
+                if (responses > 0) {
+                    counts = pending;
+                    pending = counts.newPartial();
+                    pendingResponses = 0;
+                    sequence++;
+                }
+                deltaSequence = sequence;
+                if (!joining.isEmpty()) {
+                    if (totals != null) {
+                        joined = joining;
+                        joining = new ArrayList<>();
+                        snapshotVersion = version.plusPending(counted);
+                        snapshotResults = totals.summary();
+                    } else if (heldBack == null) {
+                        heldBack = new ArrayList<>();
+                        loading = heldBack;
+                    }
+                }
+            }
+            return new Boundary(counts == null ? null : delta(counts, responses, deltaSequence), loading,
+                deltaSequence, joined, snapshotVersion, snapshotResults);
+        }
+
+        /**
+         * Builds a delta: the number of new responses and, per question with new answers, the new answers by option label.
+         */
+        private Map<String, Object> delta(ResultAggregator counts, int responses, long deltaSequence) {
+            List<Map<String, Object>> results = new ArrayList<>();
+            List<QuestionDefinition> questions = definition.questions();
+            for (int i = 0; i < counts.questionCount(); i++) {
+                Object questionResponses = counts.summary(i).get("responses");
+                if (!((Map<?, ?>) questionResponses).isEmpty()) {
+                    results.add(Map.of("questionId", questions.get(i).id(), "responses", questionResponses));
+                }
+            }
+            Map<String, Object> delta = new LinkedHashMap<>();
+            delta.put("surveyId", definition.id());
+            delta.put("sequence", deltaSequence);
+            delta.put("newResponses", responses);
+            delta.put("results", results);
+            return delta;
+        }
+    }
+
+    /**
+     * What {@link Channel#takeBoundary()} took at the end of an interval.
+     *
+     * @param delta Delta of the interval, or null if there were no new submissions.
+     * @param loading List to hold back submissions in for a load to start, or null.
+     * @param sequence Sequence number of the last delta, including this one.
+     * @param joined Subscribers to send the snapshot to; they receive the deltas after this one.
+     * @param version Survey version of the snapshot, with the response count at this boundary.
+     * @param results Result summary of the snapshot.
+     */
+    private record Boundary(Map<String, Object> delta, List<PendingSubmission> loading, long sequence,
+            List<Subscriber> joined, SurveyVersion version, List<Map<String, Object>> results) {
+    }
+
+    private static final class Subscriber {
+
+        private final UUID surveyId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final Deque<Set<DataWithMediaType>> queue = new ArrayDeque<>();
+        private boolean sending;
+        private boolean lost;
+        // Set once the snapshot is queued; from then on the subscriber gets the deltas
+        private volatile boolean started;
+
+        Subscriber(UUID surveyId, SseEmitter emitter) {
+            this.surveyId = surveyId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.simple_survey_tool.config.StatementCounter;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Computes survey results on a dedicated, bounded ForkJoinPool.
+ *
+ * Rows (answer entities or pre-aggregated counts) are split into contiguous chunks, each chunk is counted
+ * into its own {@link ResultAggregator#newPartial()} and the partials are merged pairwise on the way back up.
+ * The per-question summaries are then built in parallel as well. Both steps fall back to the plain serial
+ * loop below their thresholds, so small surveys do not pay for task scheduling. Chunks are counted in the
+ * {@link StatementCounter} context of the calling thread, so statements run while counting (such as lazy loads
+ * of answer entities) are part of the statement count of its request.
+ *
+ * Configuration:
+ * - survey.results.parallelism: worker threads (0 = number of available processors, 1 = always serial).
+ * - survey.results.parallel-threshold: fewest rows that are counted in parallel.
+ * - survey.results.parallel-question-threshold: fewest questions whose summaries are built in parallel.
+ */
+@Service
+@Slf4j
+public class ParallelResultEngine {
+
+    // Chunks smaller than this are not split further, whatever the parallelism
+    private static final int MIN_CHUNK_SIZE = 8192;
+    // Chunks per worker thread, so that a slow chunk does not leave the other workers idle
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final int parallelism;
+    private final int rowThreshold;
+    private final int questionThreshold;
+    private final ForkJoinPool pool;
+
+    public ParallelResultEngine(
+            @Value("${survey.results.parallelism:0}") int parallelism,
+            @Value("${survey.results.parallel-threshold:100000}") int rowThreshold,
+            @Value("${survey.results.parallel-question-threshold:200}") int questionThreshold) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.rowThreshold = rowThreshold;
+        this.questionThreshold = questionThreshold;
+        this.pool = this.parallelism > 1
+            ? new ForkJoinPool(this.parallelism, ParallelResultEngine::newWorker, null, false)
+            : null;
+        log.info("Result computation uses {} threads for at least {} rows or {} questions",
+                this.parallelism, rowThreshold, questionThreshold);
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("results-" + thread.getPoolIndex());
+        return thread;
+    }
+
+    /**
+     * Counts rows into an aggregator, in parallel chunks if there are enough rows.
+     *
+     * @param aggregator Aggregator that receives the counts.
+     * @param rows Rows to count; must not be modified while they are counted.
+     * @param counter Counts one row into an aggregator; called concurrently, but never twice on the same aggregator at once.
+     * @return The aggregator.
+     */
+    public <T> ResultAggregator aggregate(ResultAggregator aggregator, List<T> rows, BiConsumer<ResultAggregator, T> counter) {
+        if (pool == null || rows.size() < rowThreshold) {
+            for (T row : rows) {
+                counter.accept(aggregator, row);
+            }
+            return aggregator;
+        }
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, rows.size() / (parallelism * CHUNKS_PER_THREAD));
+        return aggregator.merge(pool.invoke(
+            new ChunkTask<>(aggregator, rows, counter, StatementCounter.capture(), 0, rows.size(), chunkSize)));
+    }
+
+    /**
+     * Builds the result summary of an aggregator, one question per task if there are enough questions.
+     *
+     * @param aggregator Aggregator with the final counts.
+     * @return List of result summaries in question order, as {@link ResultAggregator#summary()}.
+     */
+    public List<Map<String, Object>> summary(ResultAggregator aggregator) {
+        if (pool == null || aggregator.questionCount() < questionThreshold) {
+            return aggregator.summary();
+        }
+        // A parallel stream started from a pool worker runs in that pool, not in the common pool
+        return pool.submit(() -> IntStream.range(0, aggregator.questionCount())
+                .parallel()
+                .mapToObj(aggregator::summary)
+                .toList())
+            .join();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Counts the rows [from, to) into a new partial aggregator, splitting the range in halves until it fits into one chunk.
+     */
+    private static final class ChunkTask<T> extends RecursiveTask<ResultAggregator> {
+
+        private final ResultAggregator prototype;
+        private final List<T> rows;
+        private final BiConsumer<ResultAggregator, T> counter;
+        private final StatementCounter.Context statements;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        ChunkTask(ResultAggregator prototype, List<T> rows, BiConsumer<ResultAggregator, T> counter,
+                StatementCounter.Context statements, int from, int to, int chunkSize) {
+            this.prototype = prototype;
+            this.rows = rows;
+            this.counter = counter;
+            this.statements = statements;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected ResultAggregator compute() {
+            if (to - from <= chunkSize) {
+                return statements.call(() -> {
+                    ResultAggregator partial = prototype.newPartial();
+                    for (int i = from; i < to; i++) {
+                        counter.accept(partial, rows.get(i));
+                    }
+                    return partial;
+                });
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask<T> left = new ChunkTask<>(prototype, rows, counter, statements, from, middle, chunkSize);
+            left.fork();
+            ResultAggregator right = new ChunkTask<>(prototype, rows, counter, statements, middle, to, chunkSize).compute();
+            return left.join().merge(right);
+        }
+    }
+}
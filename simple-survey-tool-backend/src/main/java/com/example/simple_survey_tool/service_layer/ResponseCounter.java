@@ -0,0 +1,154 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.simple_survey_tool.repository_layer.SurveyRepo;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the response count of surveys.
+ *
+ * Two modes are supported, selected by "survey.counter.mode":
+ * - direct (default): every increment is an atomic UPDATE in the caller's transaction.
+ * - striped: increments go to per-survey LongAdders once the caller's transaction has committed, and are
+ *   flushed to the surveys row on a schedule and on shutdown, so hot surveys do not serialise submissions on
+ *   the row lock. The stored count lags by at most one flush interval. Surveys idle for a whole interval are removed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResponseCounter {
+
+    private final SurveyRepo surveyRepo;
+
+    @Value("${survey.counter.mode:direct}")
+    private String mode;
+
+    private final Map<UUID, Stripe> pending = new ConcurrentHashMap<>();
+    // Stripes removed from pending whose last increments may still be in flight; guarded by flush()
+    private final List<Map.Entry<UUID, Stripe>> retired = new ArrayList<>();
+
+    /**
+     * Adds to the response count of a survey. In striped mode the delta is only counted if the caller's
+     * transaction commits.
+     *
+     * @param surveyId UUID of the survey.
+     * @param delta Number of responses to add.
+     */
+    public void increment(UUID surveyId, int delta) {
+        if (isStriped()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        addPending(surveyId, delta);
+                    }
+                });
+            } else {
+                addPending(surveyId, delta);
+            }
+        } else {
+            surveyRepo.incrementResponseCount(surveyId, delta, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Returns the increments of a survey that have not been flushed to the database yet.
+     *
+     * @param surveyId UUID of the survey.
+     * @return Unflushed delta, always 0 in direct mode.
+     */
+    public long pendingDelta(UUID surveyId) {
+        Stripe stripe = pending.get(surveyId);
+        return stripe == null ? 0 : stripe.delta.sum();
+    }
+
+    private void addPending(UUID surveyId, long delta) {
+        while (true) {
+            Stripe stripe = pending.computeIfAbsent(surveyId, id -> new Stripe());
+            stripe.writers.increment();
+            try {
+                if (!stripe.retired) {
+                    stripe.delta.add(delta);
+                    return;
+                }
+            } finally {
+                stripe.writers.decrement();
+            }
+            // Retired by a concurrent flush: count into a new stripe
+            pending.remove(surveyId, stripe);
+        }
+    }
+
+    /**
+     * Writes accumulated deltas to the surveys table, one atomic UPDATE per survey.
+     * A delta that fails to be written is added back and retried on the next flush.
+     * Stripes without increments since the previous flush are retired and removed; their last delta is written
+     * once no increment is in flight any more.
+     */
+    @Scheduled(fixedDelayString = "${survey.counter.flush-interval-ms:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        pending.forEach((surveyId, stripe) -> {
+            if (!write(surveyId, stripe)) {
+                stripe.retired = true;
+                pending.remove(surveyId, stripe);
+                retired.add(Map.entry(surveyId, stripe));
+            }
+        });
+        retired.removeIf(entry -> {
+            if (entry.getValue().writers.sum() != 0) {
+                return false;
+            }
+            write(entry.getKey(), entry.getValue());
+            return true;
+        });
+    }
+
+    /**
+     * @return Whether the stripe had a delta to write.
+     */
+    private boolean write(UUID surveyId, Stripe stripe) {
+        long delta = stripe.delta.sumThenReset();
+        if (delta == 0) {
+            return false;
+        }
+        try {
+            surveyRepo.incrementResponseCount(surveyId, Math.toIntExact(delta), LocalDateTime.now());
+        } catch (RuntimeException e) {
+            addPending(surveyId, delta);
+            log.warn("Failed to flush response count delta {} for survey {}", delta, surveyId, e);
+        }
+        return true;
+    }
+
+    private boolean isStriped() {
+        return "striped".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Unflushed increments of one survey. A writer registers in "writers" before it checks "retired", the flush
+     * sets "retired" before it checks "writers": once the flush sees no writers, no increment can reach the stripe.
+     */
+    private static final class Stripe {
+
+        private final LongAdder delta = new LongAdder();
+        private final LongAdder writers = new LongAdder();
+        private volatile boolean retired;
+    }
+}
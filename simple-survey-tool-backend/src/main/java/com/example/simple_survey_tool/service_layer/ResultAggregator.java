@@ -0,0 +1,191 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+
+/**
+ * Counts the answers of a survey per question and response option.
+ *
+ * Each question's options are addressed by their ordinal: an answer "1".."n" is counted into a dense
+ * long[] slot of its question without creating a map entry or boxing the count. Answers that are not
+ * an option number (free text, out of range) go to a small per-question overflow map.
+ * Answers to questions that are not part of the survey definition are ignored.
+ *
+ * An aggregator is not thread-safe. To count in parallel, give every chunk its own {@link #newPartial()}
+ * and {@link #merge(ResultAggregator)} the partial results afterwards.
+ */
+public final class ResultAggregator {
+
+    private final List<QuestionDefinition> questions;
+    private final Map<UUID, Integer> questionIndex;
+    private final long[][] counts;
+    private final Map<String, Long>[] overflow;
+
+    public ResultAggregator(List<QuestionDefinition> questions) {
+        this(List.copyOf(questions), indexQuestions(questions));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResultAggregator(List<QuestionDefinition> questions, Map<UUID, Integer> questionIndex) {
+        this.questions = questions;
+        this.questionIndex = questionIndex;
+        this.counts = new long[questions.size()][];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new long[questions.get(i).responseOptions().size()];
+        }
+        this.overflow = new Map[questions.size()];
+    }
+
+    private static Map<UUID, Integer> indexQuestions(List<QuestionDefinition> questions) {
+        Map<UUID, Integer> index = new HashMap<>();
+        for (int i = 0; i < questions.size(); i++) {
+            index.put(questions.get(i).id(), i);
+        }
+        return index;
+    }
+
+    /**
+     * Creates an empty aggregator for the same questions, to count a chunk of answers independently.
+     *
+     * @return Empty aggregator that can be merged into this one.
+     */
+    public ResultAggregator newPartial() {
+        return new ResultAggregator(questions, questionIndex);
+    }
+
+    /**
+     * Counts one answer.
+     *
+     * @param questionId UUID of the answered question.
+     * @param answer Answer value as submitted.
+     */
+    public void add(UUID questionId, String answer) {
+        add(questionId, answer, 1);
+    }
+
+    /**
+     * Counts an answer value several times, e.g. a pre-aggregated count.
+     *
+     * @param questionId UUID of the answered question.
+     * @param answer Answer value as submitted.
+     * @param count Number of times the value was given.
+     */
+    public void add(UUID questionId, String answer, long count) {
+        Integer question = questionIndex.get(questionId);
+        if (question == null || answer == null) {
+            return;
+        }
+        long[] questionCounts = counts[question];
+        int ordinal = QuestionDefinition.optionOrdinal(answer, questionCounts.length);
+        if (ordinal > 0) {
+            questionCounts[ordinal - 1] += count;
+        } else {
+            if (overflow[question] == null) {
+                overflow[question] = new HashMap<>();
+            }
+            overflow[question].merge(answer, count, Long::sum);
+        }
+    }
+
+    /**
+     * Counts a choice answer given by its option number, as stored in answers.option_ordinal.
+     *
+     * @param questionId UUID of the answered question.
+     * @param ordinal Option number 1..n.
+     * @param count Number of times the option was chosen.
+     */
+    public void addOrdinal(UUID questionId, int ordinal, long count) {
+        Integer question = questionIndex.get(questionId);
+        if (question == null) {
+            return;
+        }
+        long[] questionCounts = counts[question];
+        if (ordinal >= 1 && ordinal <= questionCounts.length) {
+            questionCounts[ordinal - 1] += count;
+        } else {
+            // An option that no longer exists is reported by its number, like any other unknown answer
+            add(questionId, Integer.toString(ordinal), count);
+        }
+    }
+
+    /**
+     * Adds the counts of a partial aggregator to this one.
+     *
+     * @param other Aggregator created by {@link #newPartial()} of this aggregator (or of one of its partials).
+     * @return This aggregator.
+     * @throws IllegalArgumentException if the other aggregator counts a different set of questions.
+     */
+    public ResultAggregator merge(ResultAggregator other) {
+        if (other.questionIndex != questionIndex) {
+            throw new IllegalArgumentException("Cannot merge results of a different survey definition");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            long[] target = counts[i];
+            long[] source = other.counts[i];
+            for (int j = 0; j < target.length; j++) {
+                target[j] += source[j];
+            }
+            if (other.overflow[i] != null) {
+                if (overflow[i] == null) {
+                    overflow[i] = new HashMap<>();
+                }
+                Map<String, Long> targetOverflow = overflow[i];
+                other.overflow[i].forEach((answer, count) -> targetOverflow.merge(answer, count, Long::sum));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Builds the per-question result summary: question text, response options and the counts keyed by
+     * option label (or by the raw answer for values that are not an option). Options without answers are omitted.
+     *
+     * @return List of result summaries in question order.
+     */
+    public List<Map<String, Object>> summary() {
+        List<Map<String, Object>> summary = new ArrayList<>(questions.size());
+        for (int i = 0; i < questions.size(); i++) {
+            summary.add(summary(i));
+        }
+        return summary;
+    }
+
+    /**
+     * Builds the result summary of one question, as an element of {@link #summary()}.
+     * Summaries of different questions only read this aggregator, so they can be built concurrently.
+     *
+     * @param question Index of the question in the survey definition, 0..{@link #questionCount()} - 1.
+     * @return Result summary of the question.
+     */
+    public Map<String, Object> summary(int question) {
+        QuestionDefinition definition = questions.get(question);
+        List<String> options = definition.responseOptions();
+        Map<String, Long> responses = new LinkedHashMap<>();
+        for (int j = 0; j < counts[question].length; j++) {
+            if (counts[question][j] != 0) {
+                responses.merge(options.get(j), counts[question][j], Long::sum);
+            }
+        }
+        if (overflow[question] != null) {
+            overflow[question].forEach((answer, count) -> responses.merge(answer, count, Long::sum));
+        }
+        return Map.of(
+            "questionText", definition.text(),
+            "responseOptions", options,
+            "responses", responses
+        );
+    }
+
+    /**
+     * @return Number of questions counted by this aggregator.
+     */
+    public int questionCount() {
+        return questions.size();
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.simple_survey_tool.config.ReplicaReads;
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.ResultsQuery;
+import com.example.simple_survey_tool.model_layer.SubmissionsStoredEvent;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.repository_layer.SubmissionExportRepo;
+import com.example.simple_survey_tool.repository_layer.SubmissionRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers filtered results requests and cross-tabulations from a {@link SurveyIndex} per survey.
+ *
+ * The index of a survey is built on its first query by streaming the answers from the database in one
+ * REPEATABLE READ transaction, and kept up to date with every committed submission afterwards. The load
+ * ends no earlier than {@link SubmissionEventDelay} after its snapshot, so no submission is counted twice.
+ * Indexes are held in a cache bounded by their estimated size ("survey.query.index-max-bytes");
+ * the least recently used ones are evicted and rebuilt when queried again. Cache statistics are
+ * published as "cache.*" metrics with cache="surveyIndexes".
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResultsQueryService {
+
+    private final SubmissionExportRepo submissionExportRepo;
+    private final SubmissionRepo submissionRepo;
+    private final PlatformTransactionManager transactionManager;
+    private final SubmissionEventDelay submissionEventDelay;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${survey.query.index-max-bytes:268435456}")
+    private long indexMaxBytes;
+
+    @Value("${survey.query.index-idle-timeout:1h}")
+    private Duration indexIdleTimeout;
+
+    private Cache<UUID, SurveyIndex> indexes;
+    private TransactionTemplate loadTransaction;
+
+    @PostConstruct
+    void start() {
+        indexes = Caffeine.newBuilder()
+            .maximumWeight(indexMaxBytes)
+            .weigher((UUID id, SurveyIndex index) -> (int) Math.min(index.estimatedBytes(), Integer.MAX_VALUE))
+            .expireAfterAccess(indexIdleTimeout)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "surveyIndexes");
+        // One snapshot for the answers and the check of the submissions held back during the load
+        loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setReadOnly(true);
+        loadTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Evaluates a filtered results request against the survey's index, building the index first if needed.
+     *
+     * @param definition Definition of the survey.
+     * @param query Filters, time range and cross-tabulations.
+     * @return Number of matching submissions, per-question results among them and the cross-tabulations.
+     * @throws IllegalArgumentException if the query refers to an unknown question or answer.
+     */
+    public Map<String, Object> query(SurveyDefinition definition, ResultsQuery query) {
+        SurveyIndex index = indexes.get(definition.id(), id -> new SurveyIndex(definition));
+        load(index, definition);
+        return index.query(query);
+    }
+
+    private void load(SurveyIndex index, SurveyDefinition definition) {
+        if (index.isLoaded()) {
+            return;
+        }
+        synchronized (index.loadLock()) {
+            if (index.isLoaded()) {
+                return;
+            }
+            long start = System.nanoTime();
+            index.startLoading();
+            try {
+                // Submissions committed before the load are not recorded, so it must not read from a lagging replica
+                ReplicaReads.onPrimary(() -> loadTransaction.executeWithoutResult(status -> {
+                    long snapshot = System.nanoTime();
+                    RowCursor cursor = new RowCursor(index);
+                    submissionExportRepo.streamAnswers(definition.id(), cursor::add);
+                    // Late events of submissions in the snapshot are held back and checked against it as well
+                    submissionEventDelay.awaitEventsBefore(snapshot);
+                    index.finishLoading(submissionRepo::findExistingIdsInChunks);
+                }));
+            } catch (RuntimeException e) {
+                index.reset();
+                throw e;
+            }
+            // Re-weigh the now filled index; this may evict other indexes
+            indexes.asMap().replace(definition.id(), index, index);
+            log.info("Indexed {} submissions of survey {} ({} KB) in {} ms", index.size(), definition.id(),
+                index.estimatedBytes() >> 10, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Adds committed submissions to the indexes of their surveys, if those are cached.
+     *
+     * @param event Submissions that were stored.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionsStored(SubmissionsStoredEvent event) {
+        Map<UUID, List<PendingSubmission>> bySurvey = new HashMap<>();
+        for (PendingSubmission submission : event.submissions()) {
+            if (indexes.getIfPresent(submission.surveyId()) != null) {
+                bySurvey.computeIfAbsent(submission.surveyId(), id -> new ArrayList<>()).add(submission);
+            }
+        }
+        bySurvey.forEach((surveyId, submissions) -> {
+            SurveyIndex index = indexes.getIfPresent(surveyId);
+            if (index != null) {
+                index.record(submissions);
+            }
+        });
+    }
+
+    /**
+     * @param surveyId UUID of a survey.
+     * @return Whether the survey's index is cached on this node.
+     */
+    public boolean isIndexed(UUID surveyId) {
+        return indexes.asMap().containsKey(surveyId);
+    }
+
+    /**
+     * Drops all indexes, e.g. when submissions stored by other nodes may have been missed; they are rebuilt on the next query.
+     */
+    public void invalidateAll() {
+        indexes.invalidateAll();
+    }
+
+    /**
+     * Re-weighs the cached indexes, which grow with every recorded submission, so the memory budget holds.
+     */
+    @Scheduled(fixedDelayString = "${survey.query.reweigh-interval-ms:60000}")
+    public void reweigh() {
+        indexes.asMap().forEach((id, index) -> indexes.asMap().replace(id, index, index));
+    }
+
+    /**
+     * Turns the consecutive answer rows of each submission into one index row.
+     */
+    private static final class RowCursor {
+
+        private final SurveyIndex index;
+        private UUID submissionId;
+        private int row;
+
+        RowCursor(SurveyIndex index) {
+            this.index = index;
+        }
+
+        void add(UUID submissionId, LocalDateTime submittedAt, UUID questionId, String answer) {
+            if (!submissionId.equals(this.submissionId)) {
+                this.submissionId = submissionId;
+                row = index.addRow(submittedAt);
+            }
+            index.addAnswer(row, questionId, answer);
+        }
+    }
+}
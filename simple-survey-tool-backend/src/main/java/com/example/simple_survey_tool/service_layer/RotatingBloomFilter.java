@@ -0,0 +1,131 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of the keys added during a sliding time window, in fixed memory.
+ *
+ * The window is split into generations of equal length, each with its own bit array. Keys are added to the current
+ * generation and looked up in all of them; {@link #rotate()} clears the oldest generation and makes it the current one.
+ * A key added within the last (generations - 1) rotations is always found; a key never added is reported with the
+ * false positive probability of {@link #falsePositiveRate()}, which grows with the keys added per generation.
+ *
+ * Thread-safe: bits are set atomically, and rotation never clears a generation that is still being added to.
+ */
+public final class RotatingBloomFilter {
+
+    private final AtomicLongArray[] generations;
+    private final long bitsPerGeneration;
+    private final int hashes;
+    private volatile int current;
+
+    /**
+     * @param bytes Memory of all bit arrays together, at least 8 bytes per generation.
+     * @param generations Number of generations, at least 2.
+     * @param hashes Number of bits set per key (7 gives a false positive rate of 1% at about 10 bits per key).
+     */
+    public RotatingBloomFilter(long bytes, int generations, int hashes) {
+        if (generations < 2 || bytes / generations < 8 || hashes < 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter size");
+        }
+        int words = (int) Math.min(bytes / generations / Long.BYTES, Integer.MAX_VALUE);
+        this.generations = new AtomicLongArray[generations];
+        for (int i = 0; i < generations; i++) {
+            this.generations[i] = new AtomicLongArray(words);
+        }
+        this.bitsPerGeneration = (long) words * Long.SIZE;
+        this.hashes = hashes;
+    }
+
+    /**
+     * @param key Key to add to the current generation.
+     */
+    public void add(String key) {
+        AtomicLongArray bits = generations[current];
+        long h1 = hash(key);
+        long h2 = mix(h1 + 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitsPerGeneration);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long value = bits.get(word);
+            while ((value & mask) == 0 && !bits.compareAndSet(word, value, value | mask)) {
+                value = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * @param key Key to look up.
+     * @return false if the key was not added within the window, true if it probably was.
+     */
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 + 0x9e3779b97f4a7c15L) | 1;
+        for (AtomicLongArray bits : generations) {
+            boolean all = true;
+            for (int i = 0; i < hashes && all; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitsPerGeneration);
+                all = (bits.get((int) (bit >>> 6)) & (1L << bit)) != 0;
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forgets the keys of the oldest generation and starts a new generation.
+     */
+    public synchronized void rotate() {
+        int oldest = (current + 1) % generations.length;
+        AtomicLongArray bits = generations[oldest];
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0);
+        }
+        current = oldest;
+    }
+
+    /**
+     * @return Memory of the bit arrays in bytes.
+     */
+    public long bytes() {
+        return bitsPerGeneration / Byte.SIZE * generations.length;
+    }
+
+    /**
+     * @return Estimated probability that a key never added is reported as contained, from the bits set so far.
+     */
+    public double falsePositiveRate() {
+        double allNegative = 1;
+        for (AtomicLongArray bits : generations) {
+            long set = 0;
+            for (int i = 0; i < bits.length(); i++) {
+                set += Long.bitCount(bits.get(i));
+            }
+            allNegative *= 1 - Math.pow((double) set / bitsPerGeneration, hashes);
+        }
+        return 1 - allNegative;
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes, finalised with the MurmurHash3 mixer.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.simple_survey_tool.model_layer.AnswerCount;
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.SubmissionsStoredEvent;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.repository_layer.AnswerCountRepo;
+import com.example.simple_survey_tool.repository_layer.SubmissionBatchRepo;
+import com.example.simple_survey_tool.repository_layer.SurveyRepo;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Group-commits many validated submissions in one transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class SubmissionBatchWriter {
+
+    private final SubmissionBatchRepo submissionBatchRepo;
+    private final AnswerCountRepo answerCountRepo;
+    private final ResponseCounter responseCounter;
+    private final TimeseriesService timeseriesService;
+    private final SurveyService surveyService;
+    private final SurveyRepo surveyRepo;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Writes submissions, their answers, the answer counts, the response counts and the per-minute rollups in one transaction,
+     * and publishes a {@link SubmissionsStoredEvent} for the newly written ones.
+     * Submissions that already exist are skipped entirely, so a batch can safely be written again.
+     *
+     * @param submissions Validated submissions.
+     * @return Number of submissions that were newly written.
+     * @throws DataIntegrityViolationException if a survey of the submissions does not exist (any more).
+     */
+    @Transactional
+    public int writeBatch(List<PendingSubmission> submissions) {
+        Map<UUID, SurveyDefinition> definitions = definitions(submissions);
+        Set<UUID> inserted = new HashSet<>(submissionBatchRepo.insertSubmissions(submissions));
+        List<PendingSubmission> written = submissions.stream()
+            .filter(submission -> inserted.contains(submission.id()))
+            .toList();
+        if (written.isEmpty()) {
+            return 0;
+        }
+        submissionBatchRepo.insertAnswers(written, definitions);
+
+        // Aggregate per survey so each counter row is touched once per batch, in key order to avoid
+        // deadlocks between concurrent writers
+        Map<UUID, Map<UUID, Map<String, Long>>> answerCounts = new TreeMap<>();
+        Map<UUID, Integer> responseCounts = new TreeMap<>();
+        for (PendingSubmission submission : written) {
+            Map<UUID, Map<String, Long>> surveyCounts = answerCounts.computeIfAbsent(submission.surveyId(), id -> new HashMap<>());
+            submission.answers().forEach((questionId, answer) ->
+                surveyCounts.computeIfAbsent(questionId, id -> new HashMap<>()).merge(answer, 1L, Long::sum));
+            responseCounts.merge(submission.surveyId(), 1, Integer::sum);
+        }
+        answerCounts.forEach((surveyId, counts) -> answerCountRepo.increment(surveyId, counts.entrySet().stream()
+            .flatMap(question -> question.getValue().entrySet().stream()
+                .map(option -> new AnswerCount(question.getKey(), option.getKey(), option.getValue())))
+            .toList()));
+        responseCounts.forEach(responseCounter::increment);
+        timeseriesService.recordSubmissions(written);
+        eventPublisher.publishEvent(new SubmissionsStoredEvent(written));
+        return written.size();
+    }
+
+    /**
+     * Looks up the (cached) definitions of the surveys of the given submissions.
+     * Existence is checked first: a survey deleted after the submission was accepted is a permanent failure, while
+     * a failed definition lookup would mark this transaction rollback-only and make every retry fail the same way.
+     */
+    private Map<UUID, SurveyDefinition> definitions(List<PendingSubmission> submissions) {
+        Map<UUID, SurveyDefinition> definitions = new HashMap<>();
+        for (PendingSubmission submission : submissions) {
+            UUID surveyId = submission.surveyId();
+            if (!definitions.containsKey(surveyId)) {
+                if (!surveyRepo.existsById(surveyId)) {
+                    throw new DataIntegrityViolationException("Survey " + surveyId + " does not exist");
+                }
+                definitions.put(surveyId, surveyService.getSurveyDefinition(surveyId));
+            }
+        }
+        return definitions;
+    }
+}
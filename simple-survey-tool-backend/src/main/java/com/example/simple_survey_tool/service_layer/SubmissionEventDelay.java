@@ -0,0 +1,56 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.simple_survey_tool.model_layer.SubmissionsStoredEvent;
+
+/**
+ * Bounds the time between the commit of a submission and its {@link SubmissionsStoredEvent} on this node.
+ *
+ * Loads of in-memory state (query indexes, free-text sketches) read a snapshot and hold back the events arriving
+ * meanwhile, then drop those of submissions the snapshot already contained. An event of a submission committed
+ * just before the snapshot can still arrive after the load read it: a local one after its commit returned, one from
+ * another node in cluster mode after up to one publish interval plus the read of the notified submissions.
+ * Loads therefore keep holding back events until that delay has passed since their snapshot.
+ */
+@Service
+public class SubmissionEventDelay {
+
+    @Value("${survey.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    @Value("${survey.cluster.publish-interval-ms:100}")
+    private long publishIntervalMs;
+
+    @Value("${survey.query.load-settle-ms:200}")
+    private long settleMs;
+
+    /**
+     * @return Milliseconds after a commit by which its event has arrived.
+     */
+    public long maxDelayMs() {
+        return (clusterEnabled ? publishIntervalMs : 0) + settleMs;
+    }
+
+    /**
+     * Waits until the events of all submissions committed before a snapshot have arrived.
+     *
+     * @param snapshotNanos {@link System#nanoTime()} before the snapshot was taken.
+     * @throws IllegalStateException if interrupted while waiting.
+     */
+    public void awaitEventsBefore(long snapshotNanos) {
+        long remaining = snapshotNanos + TimeUnit.MILLISECONDS.toNanos(maxDelayMs()) - System.nanoTime();
+        if (remaining <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for submission events", e);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local append-only spill file for accepted submissions that are not committed to the database yet.
+ *
+ * Every submission is appended as one JSON line and forced to disk before it is acknowledged. Forcing is
+ * group-committed: while one caller forces the file, others keep appending, and the next force covers all of them.
+ * The journal is split into segments of about "survey.ingestion.segment-bytes", named after the spill file with a
+ * sequence number appended; a full segment is deleted once every entry in it has been committed, the current one
+ * is truncated once it has nothing outstanding. Entries that survive a crash are replayed on the next start;
+ * replaying is idempotent because submissions carry their IDs. Uses a lock instead of synchronized so virtual
+ * threads are not pinned while waiting for the disk.
+ */
+@Slf4j
+public class SubmissionJournal implements Closeable {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final long segmentBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition forced = lock.newCondition();
+
+    // Segments written by a previous run, oldest first
+    private final List<Path> leftovers;
+    // Segments of this run by sequence number; the last one is appended to. All fields below are guarded by lock
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment current;
+    // Bytes appended over all segments, and how many of them are known to be on disk
+    private long appended;
+    private long durable;
+    // Segment being forced outside the lock, if any
+    private Segment forcing;
+
+    /**
+     * @param path Spill file; segments are stored next to it with a sequence number appended to its name.
+     * @param objectMapper Serialises the entries.
+     * @param segmentBytes Size from which the next append starts a new segment.
+     */
+    public SubmissionJournal(Path path, ObjectMapper objectMapper, long segmentBytes) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.objectMapper = objectMapper;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(this.path.getParent());
+        this.leftovers = findLeftovers();
+        long sequence = leftovers.isEmpty() ? 1 : sequenceOf(leftovers.get(leftovers.size() - 1)) + 1;
+        this.current = openSegment(sequence);
+    }
+
+    /**
+     * Reads the submissions left in the journal by a previous run.
+     * Lines that cannot be parsed (e.g. a torn write at the moment of a crash) are skipped.
+     *
+     * @return Submissions in append order.
+     */
+    public List<PendingSubmission> readAll() throws IOException {
+        List<PendingSubmission> submissions = new ArrayList<>();
+        for (Path leftover : leftovers) {
+            try (BufferedReader reader = Files.newBufferedReader(leftover, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        submissions.add(objectMapper.readValue(line, PendingSubmission.class));
+                    } catch (IOException e) {
+                        log.warn("Skipping unreadable entry in submission journal {}", leftover, e);
+                    }
+                }
+            }
+        }
+        return submissions;
+    }
+
+    /**
+     * Removes the entries of the previous run, after they have been replayed.
+     */
+    public void removeReplayed() throws IOException {
+        for (Path leftover : leftovers) {
+            Files.deleteIfExists(leftover);
+        }
+        leftovers.clear();
+    }
+
+    /**
+     * Appends a submission and returns once it is on disk.
+     *
+     * @param submission Accepted submission.
+     * @return Sequence number of the segment holding the entry, to be passed to {@link #committed(Collection)}.
+     */
+    public long append(PendingSubmission submission) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(submission) + "\n").getBytes(StandardCharsets.UTF_8);
+        lock.lock();
+        try {
+            if (current.size >= segmentBytes) {
+                rotate();
+            }
+            Segment segment = current;
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                segment.channel.write(buffer);
+            }
+            segment.size += line.length;
+            segment.outstanding++;
+            appended += line.length;
+            awaitDurable(appended);
+            return segment.sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the journal is on disk up to the given offset, forcing it unless another caller already does.
+     * Called with the lock held; the lock is released while forcing, so appends continue meanwhile.
+     */
+    private void awaitDurable(long offset) throws IOException {
+        while (durable < offset) {
+            if (forcing != null) {
+                forced.awaitUninterruptibly();
+                continue;
+            }
+            // Everything appended so far is in the current segment or in older ones, which were forced when they were left
+            Segment segment = current;
+            long target = appended;
+            forcing = segment;
+            lock.unlock();
+            boolean success = false;
+            try {
+                segment.channel.force(false);
+                success = true;
+            } finally {
+                lock.lock();
+                forcing = null;
+                if (success) {
+                    durable = Math.max(durable, target);
+                }
+                forced.signalAll();
+                removeIfCommitted(segment);
+            }
+        }
+    }
+
+    /**
+     * Starts a new segment; the one left is forced first, so forcing the current segment covers all appended entries.
+     */
+    private void rotate() throws IOException {
+        Segment previous = current;
+        previous.channel.force(false);
+        current = openSegment(previous.sequence + 1);
+        removeIfCommitted(previous);
+    }
+
+    /**
+     * Records that submissions have been committed. Segments left behind are deleted once all their entries
+     * are committed, the current segment is truncated.
+     *
+     * @param sequences Segment of each committed submission, as returned by {@link #append(PendingSubmission)}.
+     */
+    public void committed(Collection<Long> sequences) throws IOException {
+        lock.lock();
+        try {
+            Set<Segment> touched = new HashSet<>();
+            for (long sequence : sequences) {
+                Segment segment = segments.get(sequence);
+                if (segment != null) {
+                    segment.outstanding--;
+                    touched.add(segment);
+                }
+            }
+            for (Segment segment : touched) {
+                removeIfCommitted(segment);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeIfCommitted(Segment segment) throws IOException {
+        if (segment.outstanding > 0 || segment == forcing || !segments.containsKey(segment.sequence)) {
+            return;
+        }
+        if (segment != current) {
+            segments.remove(segment.sequence);
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } else if (segment.size > 0) {
+            // Not forced: entries that reappear after a crash are committed already and replay as no-ops
+            segment.channel.truncate(0);
+            segment.channel.position(0);
+            segment.size = 0;
+        }
+    }
+
+    private Segment openSegment(long sequence) throws IOException {
+        Path segmentPath = path.resolveSibling(path.getFileName() + "." + sequence);
+        FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        Segment segment = new Segment(sequence, segmentPath, channel);
+        segments.put(sequence, segment);
+        return segment;
+    }
+
+    /**
+     * @return Segments of previous runs in append order, starting with a spill file written before segments existed.
+     */
+    private List<Path> findLeftovers() throws IOException {
+        String prefix = path.getFileName() + ".";
+        List<Path> found = new ArrayList<>();
+        if (Files.exists(path)) {
+            found.add(path);
+        }
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            files.filter(file -> file.getFileName().toString().startsWith(prefix)
+                    && file.getFileName().toString().substring(prefix.length()).matches("\\d+"))
+                .sorted(Comparator.comparingLong(this::sequenceOf))
+                .forEach(found::add);
+        }
+        return found;
+    }
+
+    private long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return segment.equals(path) ? 0 : Long.parseLong(name.substring(name.lastIndexOf('.') + 1));
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+                if (segment.outstanding == 0) {
+                    Files.deleteIfExists(segment.path);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Segment {
+
+        private final long sequence;
+        private final Path path;
+        private final FileChannel channel;
+        private long size;
+        // Appended but not yet committed entries
+        private long outstanding;
+
+        Segment(long sequence, Path path, FileChannel channel) {
+            this.sequence = sequence;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind ingestion of submissions, enabled with "survey.ingestion.mode=queued".
+ *
+ * - Accepted submissions are appended to a local journal (group-committed to disk) and put into a bounded
+ *   in-memory ring buffer; when the buffer is full they are rejected so the caller can apply backpressure.
+ * - A small pool of writer threads drains the buffer and group-commits up to "survey.ingestion.batch-size"
+ *   submissions per transaction with multi-row inserts.
+ * - On shutdown no new submissions are accepted and the buffer is drained; anything that could not be
+ *   committed stays in the journal and is replayed on the next start.
+ *
+ * Metrics: "survey.ingestion.queue.depth", "survey.ingestion.commit.latency", "survey.ingestion.batch.size"
+ * and "survey.ingestion.rejected".
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionQueue {
+
+    private static final long RETRY_BACKOFF_MS = 1000;
+    private static final int REPLAY_ATTEMPTS = 10;
+
+    private final SubmissionBatchWriter batchWriter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${survey.ingestion.mode:sync}")
+    private String mode;
+
+    @Value("${survey.ingestion.capacity:10000}")
+    private int capacity;
+
+    @Value("${survey.ingestion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${survey.ingestion.writer-threads:2}")
+    private int writerThreads;
+
+    @Value("${survey.ingestion.spill-file:ingestion/submissions.journal}")
+    private Path spillFile;
+
+    @Value("${survey.ingestion.segment-bytes:16777216}")
+    private long segmentBytes;
+
+    @Value("${survey.ingestion.drain-timeout-ms:30000}")
+    private long drainTimeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private BlockingQueue<Journaled> buffer;
+    private Semaphore permits;
+    private SubmissionJournal journal;
+    private ExecutorService writers;
+    private volatile boolean accepting;
+
+    private Timer commitLatency;
+    private DistributionSummary batchSizes;
+    private Counter rejected;
+
+    @PostConstruct
+    void start() throws IOException, InterruptedException {
+        if (!isEnabled()) {
+            return;
+        }
+        buffer = new ArrayBlockingQueue<>(capacity);
+        permits = new Semaphore(capacity);
+        journal = new SubmissionJournal(spillFile, objectMapper, segmentBytes);
+
+        Gauge.builder("survey.ingestion.queue.depth", buffer, BlockingQueue::size)
+            .description("Accepted submissions waiting to be committed")
+            .register(meterRegistry);
+        commitLatency = Timer.builder("survey.ingestion.commit.latency")
+            .description("Time to group-commit one batch of submissions")
+            .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("survey.ingestion.batch.size")
+            .description("Submissions per group commit")
+            .register(meterRegistry);
+        rejected = Counter.builder("survey.ingestion.rejected")
+            .description("Submissions rejected because the buffer was full")
+            .register(meterRegistry);
+
+        replayJournal();
+
+        accepting = true;
+        // Writers mostly wait for the database, so they run on virtual threads when those are enabled
+        ThreadFactory threadFactory = virtualThreads
+            ? new VirtualThreadTaskExecutor("submission-writer-").getVirtualThreadFactory()
+            : new CustomizableThreadFactory("submission-writer-");
+        writers = Executors.newFixedThreadPool(writerThreads, threadFactory);
+        for (int i = 0; i < writerThreads; i++) {
+            writers.execute(this::drain);
+        }
+        log.info("Queued submission ingestion started (capacity {}, batch size {}, {} writers)", capacity, batchSize, writerThreads);
+    }
+
+    /**
+     * @return true if submissions are ingested through this queue instead of synchronously.
+     */
+    public boolean isEnabled() {
+        return "queued".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Accepts a validated submission for asynchronous writing. Once this method returns true the
+     * submission is durable in the journal and will be committed eventually.
+     *
+     * @param submission Validated submission with its final ID.
+     * @return false if the buffer is full and the submission was not accepted.
+     * @throws SubmissionsNotAcceptedException if the queue is shutting down.
+     * @throws IOException if the submission could not be written to the journal.
+     */
+    public boolean offer(PendingSubmission submission) throws IOException {
+        if (!accepting) {
+            throw new SubmissionsNotAcceptedException("Submission queue is not accepting submissions");
+        }
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            return false;
+        }
+        long segment;
+        try {
+            segment = journal.append(submission);
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        // Cannot block: a permit guarantees a free slot
+        buffer.add(new Journaled(submission, segment));
+        return true;
+    }
+
+    private void drain() {
+        List<Journaled> batch = new ArrayList<>(batchSize);
+        while (accepting || !buffer.isEmpty()) {
+            try {
+                Journaled first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Commits one batch, retrying on failures until the queue is shut down.
+     * Batches rejected by constraints (e.g. the survey was deleted) are split so only the offending submissions are dropped.
+     */
+    private void commit(List<Journaled> batch) throws InterruptedException {
+        long start = System.nanoTime();
+        writeWithRetry(batch.stream().map(Journaled::submission).toList(), Integer.MAX_VALUE);
+        commitLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+
+        permits.release(batch.size());
+        try {
+            journal.committed(batch.stream().map(Journaled::segment).toList());
+        } catch (IOException e) {
+            log.warn("Failed to remove committed submissions from the journal", e);
+        }
+    }
+
+    /**
+     * Writes a batch, retrying transient failures. Writing is idempotent, so a retry after a
+     * partially successful attempt does not duplicate submissions.
+     *
+     * @return Number of submissions that were newly written.
+     * @throws IllegalStateException if the batch could not be written within the given attempts.
+     */
+    private int writeWithRetry(List<PendingSubmission> batch, int attempts) throws InterruptedException {
+        boolean individually = false;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return individually ? writeIndividually(batch) : batchWriter.writeBatch(batch);
+            } catch (DataIntegrityViolationException e) {
+                individually = true;
+            } catch (RuntimeException e) {
+                if (attempt >= attempts) {
+                    throw new IllegalStateException("Could not write " + batch.size() + " submissions", e);
+                }
+                log.warn("Failed to commit {} submissions, retrying", batch.size(), e);
+                Thread.sleep(RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    private int writeIndividually(List<PendingSubmission> batch) {
+        int written = 0;
+        for (PendingSubmission submission : batch) {
+            try {
+                written += batchWriter.writeBatch(List.of(submission));
+            } catch (DataIntegrityViolationException e) {
+                log.error("Dropping submission {} for survey {}: {}", submission.id(), submission.surveyId(), e.getMostSpecificCause().getMessage());
+            }
+        }
+        return written;
+    }
+
+    private void replayJournal() throws IOException, InterruptedException {
+        List<PendingSubmission> entries = journal.readAll();
+        if (entries.isEmpty()) {
+            journal.removeReplayed();
+            return;
+        }
+        log.info("Replaying {} submissions from {}", entries.size(), spillFile);
+        int written = 0;
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            // Throws after the last attempt and keeps the journal for the next start instead of losing acknowledged submissions
+            written += writeWithRetry(entries.subList(from, Math.min(entries.size(), from + batchSize)), REPLAY_ATTEMPTS);
+        }
+        journal.removeReplayed();
+        log.info("Replayed submission journal, {} submissions were not committed before", written);
+    }
+
+    /**
+     * An accepted submission with the journal segment it was appended to.
+     */
+    private record Journaled(PendingSubmission submission, long segment) {
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        if (!isEnabled() || writers == null) {
+            return;
+        }
+        accepting = false;
+        writers.shutdown();
+        if (!writers.awaitTermination(drainTimeoutMs, TimeUnit.MILLISECONDS)) {
+            log.warn("Submission queue not drained within {} ms, {} submissions remain in {}", drainTimeoutMs, buffer.size(), spillFile);
+            writers.shutdownNow();
+        }
+        journal.close();
+    }
+}
@@ -1,19 +1,41 @@
 package com.example.simple_survey_tool.service_layer;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import com.example.simple_survey_tool.config.StatementCounter;
 import com.example.simple_survey_tool.model_layer.Answer;
-import com.example.simple_survey_tool.model_layer.Question;
+import com.example.simple_survey_tool.model_layer.AnswerCount;
+import com.example.simple_survey_tool.model_layer.KeysetCursor;
+import com.example.simple_survey_tool.model_layer.KeysetPage;
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
 import com.example.simple_survey_tool.model_layer.Submission;
+import com.example.simple_survey_tool.model_layer.SubmissionAnswer;
+import com.example.simple_survey_tool.model_layer.SubmissionSummary;
+import com.example.simple_survey_tool.model_layer.SubmissionView;
+import com.example.simple_survey_tool.model_layer.SubmissionsStoredEvent;
+import com.example.simple_survey_tool.model_layer.SubmitAnswersRequest;
 import com.example.simple_survey_tool.model_layer.Survey;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.model_layer.UuidV7;
+import com.example.simple_survey_tool.repository_layer.AnswerCountRepo;
 import com.example.simple_survey_tool.repository_layer.AnswerRepo;
+import com.example.simple_survey_tool.repository_layer.QuestionRepo;
 import com.example.simple_survey_tool.repository_layer.SubmissionRepo;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -24,7 +46,111 @@ import lombok.RequiredArgsConstructor;
 public class SubmissionService {
     private final SubmissionRepo submissionRepo;
     private final AnswerRepo answerRepo;
+    private final AnswerCountRepo answerCountRepo;
+    private final QuestionRepo questionRepo;
     private final SurveyService surveyService;
+    private final TimeseriesService timeseriesService;
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdempotencyService idempotencyService;
+
+    /**
+     * Largest page size of the keyset-paginated listings.
+     */
+    @Value("${survey.listing.max-limit:500}")
+    private int maxPageSize;
+
+    /**
+     * Stores a complete submission in a single transaction.
+     *
+     * - Takes the survey and its question set from the cached survey definition.
+     * - Validates every answer against the question set before anything is written.
+     * - Inserts the submission and all answers as JDBC batches, and increments the answer counts, the response count
+     *   and the per-minute rollups.
+     * - Publishes a {@link SubmissionsStoredEvent} for live results.
+     * - Records the number of statements sent to the database as the "survey.submission.round_trips" metric.
+     *
+     * @param request Request containing survey ID and answers.
+     * @return The saved Submission entity.
+     * @throws jakarta.persistence.EntityNotFoundException if the survey does not exist.
+     * @throws IllegalArgumentException if an answer references a question that is not part of the survey.
+     */
+    @Transactional
+    public Submission submitAnswers(SubmitAnswersRequest request) {
+        return submitAnswers(request, null);
+    }
+
+    /**
+     * Stores a complete submission like {@link #submitAnswers(SubmitAnswersRequest)}, once per idempotency key:
+     * a retry with the key of a stored submission writes nothing and returns the original submission.
+     *
+     * @param request Request containing survey ID and answers.
+     * @param idempotencyKey Key sent by the client with every attempt of the submission, or null.
+     * @return The saved Submission entity, or the original one (with ID and survey only) for a retry.
+     * @throws jakarta.persistence.EntityNotFoundException if the survey does not exist.
+     * @throws IllegalArgumentException if an answer references a question that is not part of the survey or the key is invalid.
+     */
+    @Transactional
+    public Submission submitAnswers(SubmitAnswersRequest request, String idempotencyKey) {
+        long statementsBefore = statementCounter.current();
+
+        IdempotencyService.validateKey(idempotencyKey);
+        SurveyDefinition definition = surveyService.getSurveyDefinition(request.getSurveyId());
+        if (idempotencyKey != null) {
+            UUID original = idempotencyService.findOriginal(definition.id(), idempotencyKey);
+            if (original != null) {
+                return originalSubmission(original, definition.id());
+            }
+        }
+
+        Submission submission = createSubmission(definition.id());
+        if (idempotencyKey != null) {
+            UUID original = idempotencyService.claim(definition.id(), idempotencyKey, submission.getId());
+            if (original != null) {
+                // Stored concurrently or by another node: discard the new submission, nothing has been flushed yet
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return originalSubmission(original, definition.id());
+            }
+        }
+        storeAnswers(submission, definition, request.getAnswers());
+        surveyService.updateSurvey(submission.getSurvey());
+        List<PendingSubmission> stored = List.of(
+            new PendingSubmission(submission.getId(), definition.id(), submission.getSubmittedAt(), request.getAnswers()));
+        timeseriesService.recordSubmissions(stored);
+        eventPublisher.publishEvent(new SubmissionsStoredEvent(stored));
+
+        // Flush inside the measured window so the batched inserts are counted
+        answerRepo.flush();
+        DistributionSummary.builder("survey.submission.round_trips")
+            .description("Database statements executed per survey submission")
+            .register(meterRegistry)
+            .record(statementCounter.current() - statementsBefore);
+
+        return submission;
+    }
+
+    private static Submission originalSubmission(UUID id, UUID surveyId) {
+        Submission submission = new Submission();
+        submission.setId(id);
+        submission.setSurvey(new Survey(surveyId));
+        return submission;
+    }
+
+    /**
+     * Validates a submission against the cached survey definition without writing anything,
+     * for ingestion through the {@link SubmissionQueue}.
+     *
+     * @param request Request containing survey ID and answers.
+     * @return The validated submission with a newly assigned ID and the current time as submission time.
+     * @throws jakarta.persistence.EntityNotFoundException if the survey does not exist.
+     * @throws IllegalArgumentException if an answer references a question that is not part of the survey.
+     */
+    public PendingSubmission prepareSubmission(SubmitAnswersRequest request) {
+        SurveyDefinition definition = surveyService.getSurveyDefinition(request.getSurveyId());
+        validateAnswers(definition, request.getAnswers());
+        return new PendingSubmission(UuidV7.generate(), definition.id(), LocalDateTime.now(), request.getAnswers());
+    }
 
     /**
      * Creates a new submission record for a given survey.
@@ -56,28 +182,73 @@ public class SubmissionService {
 
     /**
      * Helper method to save answers for each question in the survey.
+     * All answers are validated against the cached survey definition before they are saved in one batch.
      * @param submission - The Submission entity to associate answers with.
      * @param surveyId - The ID of the survey being submitted.
      * @param answers - Map of answers, where the key is the question ID and the value is the answer text.
      */
     public void saveAnswers(Submission submission, UUID surveyId, Map<UUID, String> answers) {
-        answers.forEach((questionId, answerText) -> {
-            // Retrieve the question associated with the answer
-            
-            Question question = surveyService.getQuestionsBySurveyId(surveyId)
-                .stream()
-                .filter(q -> q.getId().equals(questionId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Question not found"));
+        storeAnswers(submission, surveyService.getSurveyDefinition(surveyId), answers);
+    }
+
+    /**
+     * Saves the answers of a submission and adds them to the answer_counts table.
+     */
+    private void storeAnswers(Submission submission, SurveyDefinition definition, Map<UUID, String> answers) {
+        saveResponses(toAnswers(submission, definition, answers));
+        answerCountRepo.increment(definition.id(), answers.entrySet().stream()
+            .map(entry -> new AnswerCount(entry.getKey(), entry.getValue(), 1L))
+            .toList());
+    }
+
+    /**
+     * Validates the submitted answers against the survey's questions and builds the answer entities.
+     * Questions are referenced by ID only, without loading them.
+     * @param submission - The Submission entity to associate answers with.
+     * @param definition - Definition of the survey being submitted.
+     * @param answers - Map of answers, where the key is the question ID and the value is the answer text.
+     * @return Unsaved Answer entities, one per submitted answer.
+     * @throws IllegalArgumentException if no answers are given or an answer references an unknown question.
+     */
+    private List<Answer> toAnswers(Submission submission, SurveyDefinition definition, Map<UUID, String> answers) {
+        validateAnswers(definition, answers);
 
+        List<Answer> result = new ArrayList<>(answers.size());
+        answers.forEach((questionId, answerText) -> {
             // Create the answer entity and associate it with the submission and question
             Answer answer = new Answer();
             answer.setSubmission(submission);
-            answer.setQuestion(question);
-            answer.setAnswer(answerText);
+            answer.setSurveyId(definition.id());
+            answer.setQuestion(questionRepo.getReferenceById(questionId));
+            // Choice answers are stored as option number, free-form answers as text
+            int ordinal = definition.question(questionId).ordinalOf(answerText);
+            if (ordinal > 0) {
+                answer.setOptionOrdinal((short) ordinal);
+            } else {
+                answer.setAnswer(answerText);
+            }
+            result.add(answer);
+        });
+        return result;
+    }
 
-            // Save the answer to the database
-            saveResponses(List.of(answer));
+    /**
+     * Checks that answers are given and that each one belongs to a question of the survey.
+     * @param definition - Definition of the survey being submitted.
+     * @param answers - Map of answers, where the key is the question ID and the value is the answer text.
+     * @throws IllegalArgumentException if no answers are given or an answer references an unknown question.
+     */
+    static void validateAnswers(SurveyDefinition definition, Map<UUID, String> answers) {
+        if (answers == null || answers.isEmpty()) {
+            throw new IllegalArgumentException("No answers provided");
+        }
+        answers.forEach((questionId, answerText) -> {
+            if (definition.question(questionId) == null) {
+                throw new IllegalArgumentException("Question not found");
+            }
+            if (answerText == null) {
+                throw new IllegalArgumentException("Missing answer for question " + questionId);
+            }
         });
     }
 
@@ -87,7 +258,40 @@ public class SubmissionService {
      * @param surveyId The UUID of the survey whose answers are to be retrieved.
      * @return A list of Answer entities linked to the given survey ID.
      */
+    @Transactional(readOnly = true)
     public List<Answer> getAnswersBySurveyId(UUID surveyId) {
         return answerRepo.findAllBySurveyId(surveyId);
     }
+
+    /**
+     * Lists the submissions of a survey with their answers, ordered by submission time, one page at a time
+     * (keyset pagination on submitted_at and id). The answers of a page are loaded with one additional query.
+     *
+     * @param surveyId UUID of the survey.
+     * @param after Cursor from the previous page, or null for the first page.
+     * @param limit Page size; capped at "survey.listing.max-limit".
+     * @return Page of submissions with the cursor of the next page.
+     * @throws IllegalArgumentException if the cursor is invalid or the limit is not positive.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<SubmissionView> listSubmissions(UUID surveyId, String after, int limit) {
+        Limit pageLimit = SurveyService.pageLimit(limit, maxPageSize);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        List<SubmissionSummary> rows = cursor == null
+            ? submissionRepo.findSummaries(surveyId, pageLimit)
+            : submissionRepo.findSummariesAfter(surveyId, cursor.time(), cursor.id(), pageLimit);
+        KeysetPage<SubmissionSummary> page = SurveyService.toPage(rows, limit, maxPageSize,
+            submission -> new KeysetCursor(submission.submittedAt(), submission.id()));
+        if (page.items().isEmpty()) {
+            return new KeysetPage<>(List.of(), null);
+        }
+
+        Map<UUID, Map<UUID, String>> answers = new HashMap<>();
+        for (SubmissionAnswer answer : answerRepo.findBySubmissionIds(page.items().stream().map(SubmissionSummary::id).toList())) {
+            answers.computeIfAbsent(answer.submissionId(), id -> new HashMap<>()).put(answer.questionId(), answer.answer());
+        }
+        return new KeysetPage<>(page.items().stream()
+            .map(submission -> new SubmissionView(submission.id(), submission.submittedAt(), answers.getOrDefault(submission.id(), Map.of())))
+            .toList(), page.nextCursor());
+    }
 }
@@ -0,0 +1,12 @@
+package com.example.simple_survey_tool.service_layer;
+
+/**
+ * Thrown by {@link SubmissionQueue#offer} when the queue is not accepting submissions, e.g. while shutting down.
+ * The submission was not stored; the client may retry on another node or later.
+ */
+public class SubmissionsNotAcceptedException extends RuntimeException {
+
+    public SubmissionsNotAcceptedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.RoaringBitmapWriter;
+
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+import com.example.simple_survey_tool.model_layer.ResultsQuery;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+
+/**
+ * In-memory columnar index of the submissions of one survey, for filtered results and cross-tabulations.
+ *
+ * Every submission is a row number. Per question the index keeps:
+ * - an ordinal column (the chosen option number per row, 0 if unanswered or free text),
+ * - one compressed bitmap of rows per response option, and one of rows with a free-text answer.
+ * A filter is an OR of option bitmaps, all filters are ANDed, and a count is the cardinality of an AND,
+ * so no row is touched for the marginal counts. Cross-tabulations read the two ordinal columns of the
+ * matching rows. Options beyond 255 have a bitmap but no column value and cannot be cross-tabulated.
+ *
+ * The index is filled by {@link #startLoading()}, {@link #addRow(LocalDateTime)} / {@link #addAnswer(int, UUID, String)}
+ * and {@link #finishLoading(Function)}. Submissions recorded while loading are held back and added afterwards
+ * unless the load already read them. Queries and additions are guarded by a read-write lock.
+ */
+public final class SurveyIndex {
+
+    private static final int MAX_COLUMN_ORDINAL = 255;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final SurveyDefinition definition;
+    private final Map<UUID, Integer> questionIndex = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object loadLock = new Object();
+    private final RoaringBitmap[][] options;
+    private final RoaringBitmap[] other;
+    private byte[][] columns;
+    private long[] submittedAt;
+    private int size;
+
+    // Load state, guarded by this
+    private boolean loaded;
+    private List<PendingSubmission> heldBack;
+
+    public SurveyIndex(SurveyDefinition definition) {
+        this.definition = definition;
+        List<QuestionDefinition> questions = definition.questions();
+        this.options = new RoaringBitmap[questions.size()][];
+        this.other = new RoaringBitmap[questions.size()];
+        this.columns = new byte[questions.size()][INITIAL_CAPACITY];
+        this.submittedAt = new long[INITIAL_CAPACITY];
+        for (int i = 0; i < questions.size(); i++) {
+            questionIndex.put(questions.get(i).id(), i);
+            options[i] = new RoaringBitmap[questions.get(i).responseOptions().size()];
+            for (int j = 0; j < options[i].length; j++) {
+                options[i][j] = new RoaringBitmap();
+            }
+            other[i] = new RoaringBitmap();
+        }
+    }
+
+    /**
+     * @return Lock to hold while loading, so only one thread loads the index.
+     */
+    Object loadLock() {
+        return loadLock;
+    }
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Starts holding back recorded submissions. Must be called before the load reads its snapshot.
+     */
+    synchronized void startLoading() {
+        heldBack = new ArrayList<>();
+    }
+
+    /**
+     * Adds a submission read by the load; its answers follow with {@link #addAnswer(int, UUID, String)}.
+     *
+     * @param time Submission time.
+     * @return Row number of the submission.
+     */
+    int addRow(LocalDateTime time) {
+        if (size == submittedAt.length) {
+            int capacity = size + (size >> 1);
+            submittedAt = Arrays.copyOf(submittedAt, capacity);
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = Arrays.copyOf(columns[i], capacity);
+            }
+        }
+        submittedAt[size] = time.toEpochSecond(ZoneOffset.UTC);
+        return size++;
+    }
+
+    /**
+     * Indexes one answer of a row. Answers to questions that are not part of the survey are ignored.
+     */
+    void addAnswer(int row, UUID questionId, String answer) {
+        Integer question = questionId == null ? null : questionIndex.get(questionId);
+        if (question == null || answer == null) {
+            return;
+        }
+        int ordinal = QuestionDefinition.optionOrdinal(answer, options[question].length);
+        if (ordinal == 0) {
+            other[question].add(row);
+            return;
+        }
+        options[question][ordinal - 1].add(row);
+        if (ordinal <= MAX_COLUMN_ORDINAL) {
+            columns[question][row] = (byte) ordinal;
+        }
+    }
+
+    /**
+     * Ends the load: adds the submissions held back since {@link #startLoading()} that the load did not read,
+     * compresses the bitmaps and lets {@link #record(List)} add submissions directly from now on.
+     *
+     * @param alreadyLoaded Returns which of the given submission IDs were visible to the load.
+     */
+    synchronized void finishLoading(Function<Collection<UUID>, Collection<UUID>> alreadyLoaded) {
+        if (!heldBack.isEmpty()) {
+            Set<UUID> loadedIds = new HashSet<>(alreadyLoaded.apply(heldBack.stream().map(PendingSubmission::id).toList()));
+            for (PendingSubmission submission : heldBack) {
+                if (!loadedIds.contains(submission.id())) {
+                    add(submission);
+                }
+            }
+        }
+        heldBack = null;
+        for (int i = 0; i < options.length; i++) {
+            for (RoaringBitmap bitmap : options[i]) {
+                bitmap.runOptimize();
+            }
+            other[i].runOptimize();
+        }
+        loaded = true;
+    }
+
+    /**
+     * Discards a failed load, leaving the index empty and unloaded.
+     */
+    synchronized void reset() {
+        heldBack = null;
+        size = 0;
+        for (int i = 0; i < options.length; i++) {
+            for (RoaringBitmap bitmap : options[i]) {
+                bitmap.clear();
+            }
+            other[i].clear();
+            Arrays.fill(columns[i], (byte) 0);
+        }
+    }
+
+    /**
+     * Adds committed submissions of this survey. Before the index is loaded they are ignored, since the load
+     * reads them from the database; while it is loading they are held back.
+     *
+     * @param submissions Committed submissions.
+     */
+    public void record(List<PendingSubmission> submissions) {
+        synchronized (this) {
+            if (heldBack != null) {
+                heldBack.addAll(submissions);
+                return;
+            }
+            if (!loaded) {
+                return;
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            submissions.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(PendingSubmission submission) {
+        int row = addRow(submission.submittedAt());
+        submission.answers().forEach((questionId, answer) -> addAnswer(row, questionId, answer));
+    }
+
+    /**
+     * Evaluates a filtered results request.
+     *
+     * @param query Filters, time range and cross-tabulations.
+     * @return Number of matching submissions, the per-question results among them and the cross-tabulations.
+     * @throws IllegalArgumentException if a filter or cross-tabulation refers to an unknown question or answer.
+     */
+    public Map<String, Object> query(ResultsQuery query) {
+        List<RoaringBitmap[]> filters = new ArrayList<>();
+        for (ResultsQuery.Filter filter : query.filters()) {
+            filters.add(filterOptions(filter));
+        }
+        List<int[]> crossTabs = new ArrayList<>();
+        for (ResultsQuery.CrossTab crossTab : query.crossTabs()) {
+            crossTabs.add(new int[] { crossTabQuestion(crossTab.rowQuestionId()), crossTabQuestion(crossTab.columnQuestionId()) });
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matching = RoaringBitmap.bitmapOfRange(0, size);
+            for (RoaringBitmap[] accepted : filters) {
+                matching.and(FastAggregation.or(accepted));
+            }
+            if (query.submittedFrom() != null || query.submittedTo() != null) {
+                matching = filterTime(matching, query.submittedFrom(), query.submittedTo());
+            }
+
+            List<Map<String, Object>> results = new ArrayList<>(options.length);
+            for (int i = 0; i < options.length; i++) {
+                results.add(questionResult(i, matching));
+            }
+            List<Map<String, Object>> tables = new ArrayList<>(crossTabs.size());
+            for (int[] pair : crossTabs) {
+                tables.add(crossTab(pair[0], pair[1], matching));
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("surveyId", definition.id());
+            response.put("matchingResponses", matching.getLongCardinality());
+            response.put("results", results);
+            response.put("crossTabs", tables);
+            return response;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap[] filterOptions(ResultsQuery.Filter filter) {
+        Integer question = filter.questionId() == null ? null : questionIndex.get(filter.questionId());
+        if (question == null) {
+            throw new IllegalArgumentException("Filter question not found: " + filter.questionId());
+        }
+        if (filter.answers() == null || filter.answers().isEmpty()) {
+            throw new IllegalArgumentException("Filter without answers for question " + filter.questionId());
+        }
+        QuestionDefinition definitionOfQuestion = definition.questions().get(question);
+        RoaringBitmap[] accepted = new RoaringBitmap[filter.answers().size()];
+        for (int i = 0; i < accepted.length; i++) {
+            String answer = filter.answers().get(i);
+            int ordinal = answer == null ? 0 : definitionOfQuestion.ordinalOf(answer);
+            if (ordinal == 0) {
+                ordinal = definitionOfQuestion.responseOptions().indexOf(answer) + 1;
+            }
+            if (ordinal == 0) {
+                throw new IllegalArgumentException("Unknown answer \"" + answer + "\" for question " + filter.questionId());
+            }
+            accepted[i] = options[question][ordinal - 1];
+        }
+        return accepted;
+    }
+
+    private int crossTabQuestion(UUID questionId) {
+        Integer question = questionId == null ? null : questionIndex.get(questionId);
+        if (question == null) {
+            throw new IllegalArgumentException("Cross-tab question not found: " + questionId);
+        }
+        if (options[question].length > MAX_COLUMN_ORDINAL) {
+            throw new IllegalArgumentException("Question " + questionId + " has too many options to cross-tabulate");
+        }
+        return question;
+    }
+
+    private RoaringBitmap filterTime(RoaringBitmap rows, LocalDateTime from, LocalDateTime to) {
+        long start = from == null ? Long.MIN_VALUE : from.toEpochSecond(ZoneOffset.UTC);
+        long end = to == null ? Long.MAX_VALUE : to.toEpochSecond(ZoneOffset.UTC);
+        RoaringBitmapWriter<RoaringBitmap> writer = RoaringBitmapWriter.writer().get();
+        IntIterator iterator = rows.getIntIterator();
+        while (iterator.hasNext()) {
+            int row = iterator.next();
+            if (submittedAt[row] >= start && submittedAt[row] < end) {
+                writer.add(row);
+            }
+        }
+        return writer.get();
+    }
+
+    /**
+     * Result of one question among the matching rows, shaped like an element of {@link ResultAggregator#summary()}
+     * with the number of free-text answers, which are not listed individually.
+     */
+    private Map<String, Object> questionResult(int question, RoaringBitmap matching) {
+        QuestionDefinition questionDefinition = definition.questions().get(question);
+        Map<String, Long> responses = new LinkedHashMap<>();
+        for (int j = 0; j < options[question].length; j++) {
+            long count = RoaringBitmap.andCardinality(matching, options[question][j]);
+            if (count != 0) {
+                responses.merge(questionDefinition.responseOptions().get(j), count, Long::sum);
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("questionId", questionDefinition.id());
+        result.put("questionText", questionDefinition.text());
+        result.put("responseOptions", questionDefinition.responseOptions());
+        result.put("responses", responses);
+        result.put("otherResponses", (long) RoaringBitmap.andCardinality(matching, other[question]));
+        return result;
+    }
+
+    private Map<String, Object> crossTab(int rowQuestion, int columnQuestion, RoaringBitmap matching) {
+        byte[] rowColumn = columns[rowQuestion];
+        byte[] columnColumn = columns[columnQuestion];
+        long[][] counts = new long[options[rowQuestion].length][options[columnQuestion].length];
+        IntIterator iterator = matching.getIntIterator();
+        while (iterator.hasNext()) {
+            int row = iterator.next();
+            int rowOrdinal = rowColumn[row] & 0xFF;
+            int columnOrdinal = columnColumn[row] & 0xFF;
+            if (rowOrdinal != 0 && columnOrdinal != 0) {
+                counts[rowOrdinal - 1][columnOrdinal - 1]++;
+            }
+        }
+        Map<String, Object> table = new LinkedHashMap<>();
+        table.put("rowQuestionId", definition.questions().get(rowQuestion).id());
+        table.put("columnQuestionId", definition.questions().get(columnQuestion).id());
+        table.put("rowOptions", definition.questions().get(rowQuestion).responseOptions());
+        table.put("columnOptions", definition.questions().get(columnQuestion).responseOptions());
+        table.put("counts", counts);
+        return table;
+    }
+
+    /**
+     * @return Approximate heap size of the index in bytes, used as its weight in the index cache.
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) submittedAt.length * (Long.BYTES + columns.length);
+            for (int i = 0; i < options.length; i++) {
+                for (RoaringBitmap bitmap : options[i]) {
+                    bytes += bitmap.getLongSizeInBytes();
+                }
+                bytes += other[i].getLongSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of indexed submissions.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
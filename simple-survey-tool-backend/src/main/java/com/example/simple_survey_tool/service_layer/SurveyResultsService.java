@@ -0,0 +1,45 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.example.simple_survey_tool.config.CacheConfig;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.model_layer.SurveyVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serves the results response of a survey as ready-to-send JSON bytes.
+ *
+ * The bytes are cached by the results ETag of the survey version. As long as no submission arrives,
+ * every poll of the results is answered from the cache without counting or serialising again;
+ * the next submission changes the ETag and the old entry ages out of the size-bounded cache.
+ */
+@Service
+@RequiredArgsConstructor
+public class SurveyResultsService {
+
+    private final SurveyService surveyService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Computes and serialises the results response of a survey version.
+     * Results counted after the version was read may already be included; the next version recomputes them.
+     *
+     * @param version Version of the survey, as read by {@link SurveyService#getSurveyVersion(java.util.UUID)}.
+     * @return Serialised results response.
+     * @throws JsonProcessingException if the response cannot be serialised.
+     */
+    @Cacheable(cacheNames = CacheConfig.SURVEY_RESULTS, key = "#version.resultsEtag()")
+    public byte[] getResultsJson(SurveyVersion version) throws JsonProcessingException {
+        SurveyDefinition definition = surveyService.getSurveyDefinition(version.id());
+        List<Map<String, Object>> resultSummary = surveyService.getResultSummary(definition);
+        return objectMapper.writeValueAsBytes(surveyService.buildSurveyResultResponse(version, resultSummary));
+    }
+}
@@ -6,13 +6,30 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.simple_survey_tool.config.CacheConfig;
 import com.example.simple_survey_tool.model_layer.Answer;
+import com.example.simple_survey_tool.model_layer.AnswerCount;
+import com.example.simple_survey_tool.model_layer.KeysetCursor;
+import com.example.simple_survey_tool.model_layer.KeysetPage;
+import com.example.simple_survey_tool.model_layer.OptionCount;
 import com.example.simple_survey_tool.model_layer.Question;
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
 import com.example.simple_survey_tool.model_layer.Survey;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.model_layer.SurveySummary;
+import com.example.simple_survey_tool.model_layer.SurveyVersion;
+import com.example.simple_survey_tool.repository_layer.AnswerCountRepo;
+import com.example.simple_survey_tool.repository_layer.AnswerRepo;
 import com.example.simple_survey_tool.repository_layer.QuestionRepo;
 import com.example.simple_survey_tool.repository_layer.SurveyRepo;
 
@@ -28,8 +45,36 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SurveyService {
 
+    /**
+     * Response options of questions that are saved without options.
+     */
+    private static final List<String> DEFAULT_LIKERT_SCALE = List.of(
+            "Totally disagree",
+            "Disagree",
+            "Neutral",
+            "Agree",
+            "Fully Agree"
+    );
+
     private final SurveyRepo surveyRepo;
     private final QuestionRepo questionRepo;
+    private final ResponseCounter responseCounter;
+    private final AnswerRepo answerRepo;
+    private final AnswerCountRepo answerCountRepo;
+    private final ParallelResultEngine parallelResultEngine;
+
+    /**
+     * Where result counts come from: "counts" (incrementally maintained answer_counts table),
+     * "aggregate" (GROUP BY over the answers) or "entities" (load all answers, count in memory).
+     */
+    @Value("${survey.results.source:counts}")
+    private String resultsSource;
+
+    /**
+     * Largest page size of the keyset-paginated listings.
+     */
+    @Value("${survey.listing.max-limit:500}")
+    private int maxPageSize;
 
     /**
      * Retrieves all surveys from the repository.
@@ -40,6 +85,49 @@ public class SurveyService {
         return surveyRepo.findAll();
     }
 
+    /**
+     * Lists surveys ordered by creation time, one page at a time.
+     * Pages are addressed by the sort key of the previous page's last row (keyset pagination), so every page
+     * is read by an index seek and costs the same no matter how far into the list it is.
+     *
+     * @param after Cursor from the previous page, or null for the first page.
+     * @param limit Page size; capped at "survey.listing.max-limit".
+     * @return Page of survey summaries with the cursor of the next page.
+     * @throws IllegalArgumentException if the cursor is invalid or the limit is not positive.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<SurveySummary> listSurveys(String after, int limit) {
+        Limit pageLimit = pageLimit(limit, maxPageSize);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        List<SurveySummary> rows = cursor == null
+            ? surveyRepo.findSummaries(pageLimit)
+            : surveyRepo.findSummariesAfter(cursor.time(), cursor.id(), pageLimit);
+        return toPage(rows, limit, maxPageSize, survey -> new KeysetCursor(survey.createdAt(), survey.id()));
+    }
+
+    /**
+     * Validates a requested page size and returns the query limit: one row more than the page,
+     * to detect whether a next page exists.
+     */
+    static Limit pageLimit(int limit, int maxPageSize) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Limit.of(Math.min(limit, maxPageSize) + 1);
+    }
+
+    /**
+     * Cuts the rows of a {@link #pageLimit(int, int)} query down to the page and creates the next cursor.
+     */
+    static <T> KeysetPage<T> toPage(List<T> rows, int limit, int maxPageSize, Function<T, KeysetCursor> sortKey) {
+        int pageSize = Math.min(limit, maxPageSize);
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new KeysetPage<>(items, sortKey.apply(items.get(pageSize - 1)).encode());
+    }
+
     /**
      * Fetches a survey by its unique ID.
      *
@@ -47,11 +135,46 @@ public class SurveyService {
      * @return Survey object if found.
      * @throws EntityNotFoundException if the survey is not found.
      */
+    @Transactional(readOnly = true)
     public Survey getSurveyById(UUID id) {
         return surveyRepo.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Survey with id " + id + " not found"));
     }
 
+    /**
+     * Reads the current version of a survey from its row alone, for conditional requests.
+     * Responses that the response counter has not flushed yet are included, so the version
+     * changes with every submission on this instance even in "striped" mode.
+     * With read replicas the version is read from the replica that the request's results are read from,
+     * so the results are never older than the version they are cached by.
+     *
+     * @param id UUID of the survey.
+     * @return Version of the survey.
+     * @throws EntityNotFoundException if the survey is not found.
+     */
+    @Transactional(readOnly = true)
+    public SurveyVersion getSurveyVersion(UUID id) {
+        return surveyRepo.findVersion(id)
+                .map(version -> version.plusPending(responseCounter.pendingDelta(id)))
+                .orElseThrow(() -> new EntityNotFoundException("Survey with id " + id + " not found"));
+    }
+
+    /**
+     * Fetches the definition of a survey (survey and questions with deserialised options) as an immutable snapshot.
+     * Definitions do not change after they are saved, so they are served from the "surveyDefinitions" cache
+     * and only loaded from the database on a miss.
+     *
+     * @param id UUID of the survey.
+     * @return Survey definition if found.
+     * @throws EntityNotFoundException if the survey is not found.
+     */
+    @Cacheable(CacheConfig.SURVEY_DEFINITIONS)
+    @Transactional(readOnly = true)
+    public SurveyDefinition getSurveyDefinition(UUID id) {
+        Survey survey = getSurveyById(id);
+        return SurveyDefinition.of(survey, getQuestionsBySurveyId(id));
+    }
+
     /**
      * Saves a new survey and its associated questions.
      * 
@@ -62,55 +185,62 @@ public class SurveyService {
      * @param survey Survey object to be saved.
      * @return The saved Survey with updated question references.
      */
+    @Transactional
     public Survey saveSurvey(Survey survey) {
-        survey.setCreatedAt(LocalDateTime.now());
-        survey.setUpdatedAt(LocalDateTime.now());
-        survey.setResponse_count(0); // initialize response count
-
-        // Save the survey first to get an ID for linking questions
-        Survey savedSurvey = surveyRepo.save(survey);
-        log.info("Survey with id: {} saved successfully", savedSurvey.getId());
-
-        List<Question> savedQuestions = new ArrayList<>();
-
-        // Define default Likert scale options
-        List<String> defaultLikertScale = List.of(
-                "Totally disagree",
-                "Disagree",
-                "Neutral",
-                "Agree",
-                "Fully Agree"
-        );
-
-        // Save each question and associate it with the saved survey
-        for (Question question : survey.getQuestions()) {
-            // Assign default options if none are provided
-            if (question.getResponseOptions() == null || question.getResponseOptions().isEmpty()) {
-                question.setResponseOptions(defaultLikertScale);
-            }
+        Survey savedSurvey = saveSurveys(List.of(survey)).get(0);
+        log.info("Survey with id: {} and {} questions saved successfully", savedSurvey.getId(), savedSurvey.getQuestions().size());
+        return savedSurvey;
+    }
 
-            // Create a new question instance tied to the saved survey
-            Question newQuestion = new Question(savedSurvey, question.getText());
-            newQuestion.setResponseOptions(question.getResponseOptions());
+    /**
+     * Saves new surveys and their questions in one transaction, as {@link #saveSurvey(Survey)} does for one survey.
+     * Surveys, questions and response options are sent as JDBC batches.
+     *
+     * @param surveys Survey objects to be saved.
+     * @return The saved Surveys with updated question references, in the given order.
+     */
+    @Transactional
+    public List<Survey> saveSurveys(List<Survey> surveys) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Survey survey : surveys) {
+            // IDs are always assigned on save; a given ID would turn the save into an update of that survey
+            survey.setId(null);
+            survey.setCreatedAt(now);
+            survey.setUpdatedAt(now);
+            survey.setResponse_count(0); // initialize response count
+        }
 
-            // Persist the question
-            Question savedQuestion = questionRepo.save(newQuestion);
-            log.info("Question with id: {} and survey_id: {} saved successfully",
-                    savedQuestion.getId(), savedQuestion.getSurvey_id());
+        // Save the surveys first to get IDs for linking questions
+        List<Survey> savedSurveys = surveyRepo.saveAll(surveys);
 
-            savedQuestions.add(savedQuestion);
+        List<Question> allQuestions = new ArrayList<>();
+        for (int i = 0; i < savedSurveys.size(); i++) {
+            Survey savedSurvey = savedSurveys.get(i);
+            List<Question> questions = surveys.get(i).getQuestions() == null ? List.of() : surveys.get(i).getQuestions();
+            List<Question> savedQuestions = new ArrayList<>(questions.size());
+            for (Question question : questions) {
+                // Create a new question instance tied to the saved survey, with default options if none are provided
+                Question newQuestion = new Question(savedSurvey, question.getText());
+                newQuestion.setResponseOptions(new ArrayList<>(
+                        question.getResponseOptions() == null || question.getResponseOptions().isEmpty()
+                            ? DEFAULT_LIKERT_SCALE
+                            : question.getResponseOptions()));
+                savedQuestions.add(newQuestion);
+            }
+            allQuestions.addAll(savedQuestions);
+            // Link the questions to the survey and return the full survey object
+            savedSurvey.setQuestions(savedQuestions);
         }
-
-        // Link the saved questions to the survey and return the full survey object
-        savedSurvey.setQuestions(savedQuestions);
-        return savedSurvey;
+        questionRepo.saveAll(allQuestions);
+        return savedSurveys;
     }
 
     /**
-     * Deletes a survey by its unique ID.
+     * Deletes a survey by its unique ID and evicts its cached definition.
      *
      * @param id UUID of the survey to be deleted.
      */
+    @CacheEvict(CacheConfig.SURVEY_DEFINITIONS)
     public void deleteSurveyById(UUID id) {
         surveyRepo.deleteById(id);
     }
@@ -121,23 +251,60 @@ public class SurveyService {
      * @param surveyId UUID of the survey.
      * @return List of questions associated with the survey.
      */
+    @Transactional(readOnly = true)
     public List<Question> getQuestionsBySurveyId(UUID surveyId) {
         return questionRepo.findBySurveyIdCustom(surveyId);
     }
 
     /**
      * Increments the response count for a survey and updates its last updated timestamp.
+     * The increment is applied atomically in the database (or accumulated, see {@link ResponseCounter})
+     * instead of a read-modify-write of the entity.
      *
      * @param survey The survey object to update.
      */
     public void updateSurvey(Survey survey) {
-        survey.setResponse_count(survey.getResponse_count() + 1); // increment response count
-        survey.setUpdatedAt(LocalDateTime.now()); // update timestamp
-        surveyRepo.save(survey);
+        responseCounter.increment(survey.getId(), 1);
+    }
+
+
+    /**
+     * Counts the answers of a survey grouped by question and answer value.
+     *
+     * By default the counts are read from the answer_counts table, which is kept up to date by every
+     * submission, so the cost depends on the number of questions and options rather than on the number
+     * of responses. "survey.results.source=aggregate" recounts the answers in the database instead and
+     * "survey.results.source=entities" falls back to loading every answer entity.
+     *
+     * @param surveyId UUID of the survey.
+     * @return Map of answer counts grouped by question ID.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, Map<String, Long>> getGroupedAnswers(UUID surveyId) {
+        if ("entities".equalsIgnoreCase(resultsSource)) {
+            return groupAnswersByQuestion(answerRepo.findAllBySurveyId(surveyId));
+        }
+        if ("aggregate".equalsIgnoreCase(resultsSource)) {
+            return groupAnswerCounts(answerRepo.countBySurveyId(surveyId));
+        }
+        return groupAnswerCounts(answerCountRepo.findBySurveyId(surveyId));
     }
 
+    /**
+     * Helper method to group pre-aggregated answer counts by question.
+     * @param answerCounts - Counts per question and answer value.
+     * @return Map of answer counts grouped by question ID.
+     */
+    public Map<UUID, Map<String, Long>> groupAnswerCounts(List<AnswerCount> answerCounts) {
+        Map<UUID, Map<String, Long>> grouped = new HashMap<>();
+        for (AnswerCount answerCount : answerCounts) {
+            grouped.computeIfAbsent(answerCount.questionId(), id -> new HashMap<>())
+                .merge(answerCount.answer(), answerCount.count(), Long::sum);
+        }
+        return grouped;
+    }
 
-        /**
+    /**
      * Helper method to group answers by question.
      * @param allAnswers - List of all answers for the survey.
      * @return Map of answers grouped by question ID.
@@ -147,60 +314,98 @@ public class SurveyService {
             .collect(Collectors.groupingBy(
                 answer -> answer.getQuestion().getId(),
                 Collectors.groupingBy(
-                    Answer::getAnswer,
+                    Answer::getValue,
                     Collectors.counting()
                 )
             ));
     }
 
     /**
-     * Generates a summary of the results for each question in the survey.
-     * @param questions - List of survey questions.
-     * @param groupedAnswers - Map of grouped answers by question.
+     * Computes the result summary of a survey directly from the configured results source,
+     * counting into a {@link ResultAggregator} without building intermediate maps.
+     * Large inputs are counted and summarised in parallel by the {@link ParallelResultEngine}.
+     *
+     * @param definition Definition of the survey.
      * @return List of result summaries for each question.
      */
-    public List<Map<String, Object>> generateResultSummary(List<Question> questions, Map<UUID, Map<String, Long>> groupedAnswers) {
-        return questions.stream().map(question -> {
-            Map<String, String> optionMap = createOptionMap(question.getResponseOptions());
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getResultSummary(SurveyDefinition definition) {
+        return parallelResultEngine.summary(countResults(definition));
+    }
 
-            Map<String, Long> rawResults = groupedAnswers.getOrDefault(question.getId(), Map.of());
+    /**
+     * Counts the answers of a survey from the configured results source, as summarised by {@link #getResultSummary(SurveyDefinition)}.
+     *
+     * @param definition Definition of the survey.
+     * @return Aggregator with the counts of all stored answers.
+     */
+    @Transactional(readOnly = true)
+    public ResultAggregator countResults(SurveyDefinition definition) {
+        ResultAggregator aggregator = new ResultAggregator(definition.questions());
+        if ("entities".equalsIgnoreCase(resultsSource)) {
+            aggregateAnswers(aggregator, answerRepo.findAllBySurveyId(definition.id()));
+        } else if ("aggregate".equalsIgnoreCase(resultsSource)) {
+            parallelResultEngine.aggregate(aggregator, answerRepo.countOptionsBySurveyId(definition.id()), SurveyService::countOption);
+        } else {
+            parallelResultEngine.aggregate(aggregator, answerCountRepo.findBySurveyId(definition.id()),
+                (partial, answerCount) -> partial.add(answerCount.questionId(), answerCount.answer(), answerCount.count()));
+        }
+        return aggregator;
+    }
+
+    /**
+     * Helper method to count answer entities into an aggregator.
+     * @param aggregator - Aggregator for the survey's questions.
+     * @param answers - Answers of the survey.
+     * @return The aggregator.
+     */
+    public ResultAggregator aggregateAnswers(ResultAggregator aggregator, List<Answer> answers) {
+        return parallelResultEngine.aggregate(aggregator, answers, SurveyService::countAnswer);
+    }
 
-            // Map numeric answers to corresponding labels
-            Map<String, Long> mappedResults = mapAnswersToLabels(rawResults, optionMap);
+    private static void countAnswer(ResultAggregator aggregator, Answer answer) {
+        if (answer.getOptionOrdinal() != null) {
+            aggregator.addOrdinal(answer.getQuestion().getId(), answer.getOptionOrdinal(), 1);
+        } else {
+            aggregator.add(answer.getQuestion().getId(), answer.getAnswer());
+        }
+    }
 
-            return Map.of(
-                "questionText", question.getText(),
-                "responseOptions", question.getResponseOptions(),
-                "responses", mappedResults
-            );
-        }).collect(Collectors.toList());
+    private static void countOption(ResultAggregator aggregator, OptionCount optionCount) {
+        if (optionCount.ordinal() != null) {
+            aggregator.addOrdinal(optionCount.questionId(), optionCount.ordinal(), optionCount.count());
+        } else {
+            aggregator.add(optionCount.questionId(), optionCount.answer(), optionCount.count());
+        }
     }
 
     /**
-     * Creates a map of numeric answer labels to actual response options.
-     * @param responseOptions - List of possible response options.
-     * @return Map of numeric labels to response options.
+     * Generates a summary of the results for each question in the survey.
+     * Numeric answers "1".."n" are reported under the label of the corresponding response option.
+     * @param questions - List of survey questions.
+     * @param groupedAnswers - Map of grouped answers by question.
+     * @return List of result summaries for each question.
      */
-    private Map<String, String> createOptionMap(List<String> responseOptions) {
-        Map<String, String> optionMap = new HashMap<>();
-        for (int i = 0; i < responseOptions.size(); i++) {
-            optionMap.put(String.valueOf(i + 1), responseOptions.get(i));
-        }
-        return optionMap;
+    public List<Map<String, Object>> generateResultSummary(List<QuestionDefinition> questions, Map<UUID, Map<String, Long>> groupedAnswers) {
+        ResultAggregator aggregator = new ResultAggregator(questions);
+        groupedAnswers.forEach((questionId, answers) ->
+            answers.forEach((answer, count) -> aggregator.add(questionId, answer, count)));
+        return aggregator.summary();
     }
 
     /**
-     * Maps raw numeric answers to their corresponding response labels.
-     * @param rawResults - Map of raw answers.
-     * @param optionMap - Map of numeric labels to response options.
-     * @return Mapped answers with labels as keys.
+     * Builds the final response structure for survey results from a survey version.
+     * @param version - The survey version the results were computed for.
+     * @param resultSummary - The summary of survey results.
+     * @return The complete response map with survey metadata and results.
      */
-    private Map<String, Long> mapAnswersToLabels(Map<String, Long> rawResults, Map<String, String> optionMap) {
-        return rawResults.entrySet().stream()
-            .collect(Collectors.toMap(
-                entry -> optionMap.getOrDefault(entry.getKey(), entry.getKey()), // Map "1" to "Strongly Disagree"
-                Map.Entry::getValue
-            ));
+    public Map<String, Object> buildSurveyResultResponse(SurveyVersion version, List<Map<String, Object>> resultSummary) {
+        Survey survey = new Survey(version.id());
+        survey.setDescription(version.description());
+        survey.setCreatedAt(version.createdAt());
+        survey.setUpdatedAt(version.updatedAt());
+        survey.setResponse_count(version.responseCount());
+        return buildSurveyResultResponse(survey, resultSummary);
     }
 
     /**
@@ -0,0 +1,115 @@
+package com.example.simple_survey_tool.service_layer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.simple_survey_tool.model_layer.BucketAnswerCount;
+import com.example.simple_survey_tool.model_layer.BucketCount;
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.model_layer.TimeBucket;
+import com.example.simple_survey_tool.repository_layer.RollupRepo;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Maintains and reads the per-minute rollups of submissions and answers behind the timeseries endpoint.
+ */
+@Service
+@RequiredArgsConstructor
+public class TimeseriesService {
+
+    private final RollupRepo rollupRepo;
+
+    /**
+     * Largest number of buckets a single timeseries request may span.
+     */
+    @Value("${survey.timeseries.max-buckets:10000}")
+    private int maxBuckets;
+
+    /**
+     * Adds submissions to the rollups of their minute. Joins the caller's transaction.
+     * Counts are aggregated per survey and minute first, so each rollup row is touched once per call.
+     *
+     * @param submissions Newly stored submissions.
+     */
+    public void recordSubmissions(List<PendingSubmission> submissions) {
+        Map<UUID, Map<LocalDateTime, Long>> submissionCounts = new TreeMap<>();
+        Map<UUID, Map<LocalDateTime, Map<UUID, Map<String, Long>>>> answerCounts = new TreeMap<>();
+        for (PendingSubmission submission : submissions) {
+            LocalDateTime minute = TimeBucket.MINUTE.truncate(submission.submittedAt());
+            submissionCounts.computeIfAbsent(submission.surveyId(), id -> new HashMap<>()).merge(minute, 1L, Long::sum);
+            Map<UUID, Map<String, Long>> minuteCounts = answerCounts
+                .computeIfAbsent(submission.surveyId(), id -> new HashMap<>())
+                .computeIfAbsent(minute, start -> new HashMap<>());
+            submission.answers().forEach((questionId, answer) ->
+                minuteCounts.computeIfAbsent(questionId, id -> new HashMap<>()).merge(answer, 1L, Long::sum));
+        }
+        submissionCounts.forEach((surveyId, counts) -> rollupRepo.incrementSubmissions(surveyId, counts.entrySet().stream()
+            .map(bucket -> new BucketCount(bucket.getKey(), bucket.getValue()))
+            .toList()));
+        answerCounts.forEach((surveyId, buckets) -> {
+            List<BucketAnswerCount> deltas = new ArrayList<>();
+            buckets.forEach((minute, questions) -> questions.forEach((questionId, options) ->
+                options.forEach((answer, count) -> deltas.add(new BucketAnswerCount(minute, questionId, answer, count)))));
+            rollupRepo.incrementAnswers(surveyId, deltas);
+        });
+    }
+
+    /**
+     * Builds the timeseries of a survey: per bucket the number of submissions and the per-question
+     * option distribution, in the same shape as the survey results. Buckets without submissions are omitted.
+     *
+     * @param definition Definition of the survey.
+     * @param bucket Bucket size.
+     * @param from Start of the range (inclusive), or null for the bucket size's default range before "to".
+     * @param to End of the range (exclusive), or null for now.
+     * @return Response map with the survey ID, bucket size, range and buckets.
+     * @throws IllegalArgumentException if the range is empty or spans more than "survey.timeseries.max-buckets" buckets.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getTimeseries(SurveyDefinition definition, TimeBucket bucket, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = bucket.truncate(from != null ? from : end.minus(bucket.defaultRange()));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Empty time range");
+        }
+        if (bucket.bucketsBetween(start, end) > maxBuckets) {
+            throw new IllegalArgumentException("Time range spans more than " + maxBuckets + " buckets");
+        }
+
+        ResultAggregator template = new ResultAggregator(definition.questions());
+        Map<LocalDateTime, ResultAggregator> answersByBucket = new HashMap<>();
+        for (BucketAnswerCount count : rollupRepo.findAnswerCounts(definition.id(), bucket, start, end)) {
+            answersByBucket.computeIfAbsent(count.bucketStart(), bucketStart -> template.newPartial())
+                .add(count.questionId(), count.answer(), count.count());
+        }
+
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        for (BucketCount count : rollupRepo.findSubmissionCounts(definition.id(), bucket, start, end)) {
+            ResultAggregator answers = answersByBucket.getOrDefault(count.bucketStart(), template);
+            buckets.add(Map.of(
+                "bucketStart", count.bucketStart(),
+                "submissions", count.count(),
+                "results", answers.summary()
+            ));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("surveyId", definition.id());
+        response.put("bucket", bucket.field());
+        response.put("from", start);
+        response.put("to", end);
+        response.put("buckets", buckets);
+        return response;
+    }
+}
@@ -0,0 +1,7 @@
+-- V8 installed the triggers mirroring the classic tables into the partitioned ones on every deployment, which doubled
+-- the cost of every insert. They are now installed by db/partitioning/01_mirror.sql for the duration of a move only.
+-- A move in progress continues with 01_mirror.sql and backfill.sql, which copies the rows written in between.
+DROP TRIGGER IF EXISTS mirror_answer ON answers;
+DROP TRIGGER IF EXISTS mirror_submission ON submissions;
+DROP FUNCTION IF EXISTS mirror_answer();
+DROP FUNCTION IF EXISTS mirror_submission();
@@ -0,0 +1,3 @@
+-- Supports the per-survey GROUP BY question_id, answer aggregation of results
+CREATE INDEX IF NOT EXISTS idx_answer_question_id_answer ON answers (question_id, answer);
+CREATE INDEX IF NOT EXISTS idx_submission_survey_id ON submissions (survey_id);
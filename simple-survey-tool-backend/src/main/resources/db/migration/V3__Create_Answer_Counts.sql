@@ -0,0 +1,16 @@
+-- Result counts per survey, question and answer value, maintained incrementally by each submission
+CREATE TABLE IF NOT EXISTS answer_counts (
+    survey_id UUID NOT NULL,
+    question_id UUID NOT NULL,
+    option_key TEXT NOT NULL,
+    count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (survey_id, question_id, option_key)
+);
+
+-- Backfill from the answers submitted so far
+INSERT INTO answer_counts (survey_id, question_id, option_key, count)
+SELECT s.survey_id, a.question_id, a.answer, COUNT(*)
+FROM answers a
+JOIN submissions s ON s.id = a.submission_id
+GROUP BY s.survey_id, a.question_id, a.answer
+ON CONFLICT (survey_id, question_id, option_key) DO UPDATE SET count = EXCLUDED.count;
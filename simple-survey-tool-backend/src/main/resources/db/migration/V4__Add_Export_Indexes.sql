@@ -0,0 +1,3 @@
+-- Supports streaming the submissions of a survey in submission order together with their answers
+CREATE INDEX IF NOT EXISTS idx_submission_survey_id_submitted_at ON submissions (survey_id, submitted_at, id);
+CREATE INDEX IF NOT EXISTS idx_answer_submission_id ON answers (submission_id);
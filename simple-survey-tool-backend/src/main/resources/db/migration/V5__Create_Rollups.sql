@@ -0,0 +1,31 @@
+-- Submissions and answer counts per survey and minute, maintained incrementally by each submission.
+-- Hour and day buckets are summed from the minute rows.
+CREATE TABLE IF NOT EXISTS submission_rollups (
+    survey_id UUID NOT NULL,
+    bucket_start timestamp NOT NULL,
+    submissions BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (survey_id, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS answer_rollups (
+    survey_id UUID NOT NULL,
+    bucket_start timestamp NOT NULL,
+    question_id UUID NOT NULL,
+    option_key TEXT NOT NULL,
+    count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (survey_id, bucket_start, question_id, option_key)
+);
+
+-- Backfill from the submissions and answers stored so far
+INSERT INTO submission_rollups (survey_id, bucket_start, submissions)
+SELECT survey_id, date_trunc('minute', COALESCE(submitted_at, CURRENT_TIMESTAMP)), COUNT(*)
+FROM submissions
+GROUP BY 1, 2
+ON CONFLICT (survey_id, bucket_start) DO UPDATE SET submissions = EXCLUDED.submissions;
+
+INSERT INTO answer_rollups (survey_id, bucket_start, question_id, option_key, count)
+SELECT s.survey_id, date_trunc('minute', COALESCE(s.submitted_at, CURRENT_TIMESTAMP)), a.question_id, a.answer, COUNT(*)
+FROM answers a
+JOIN submissions s ON s.id = a.submission_id
+GROUP BY 1, 2, 3, 4
+ON CONFLICT (survey_id, bucket_start, question_id, option_key) DO UPDATE SET count = EXCLUDED.count;
@@ -0,0 +1,6 @@
+-- Keyset pagination of surveys by (created_at, id); submissions are paged by (survey_id, submitted_at, id),
+-- which is covered by idx_submission_survey_id_submitted_at.
+-- Rows without a timestamp would never appear in a keyset page, so give them one first.
+UPDATE surveys SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+UPDATE submissions SET submitted_at = CURRENT_TIMESTAMP WHERE submitted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_survey_created_at_id ON surveys (created_at, id);
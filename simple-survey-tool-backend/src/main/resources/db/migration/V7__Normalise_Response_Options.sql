@@ -0,0 +1,31 @@
+-- Response options move from the ";;"-joined questions.response_options column into one row per option,
+-- numbered from 1 in the order they were given
+CREATE TABLE IF NOT EXISTS question_options (
+    question_id UUID NOT NULL REFERENCES questions(id) ON DELETE CASCADE,
+    ordinal SMALLINT NOT NULL,
+    label TEXT NOT NULL,
+    PRIMARY KEY (question_id, ordinal)
+);
+
+INSERT INTO question_options (question_id, ordinal, label)
+SELECT q.id, o.ordinal, o.label
+FROM questions q
+CROSS JOIN LATERAL unnest(string_to_array(q.response_options, ';;')) WITH ORDINALITY AS o(label, ordinal)
+WHERE q.response_options <> '';
+
+ALTER TABLE questions DROP COLUMN response_options;
+
+-- Choice answers are stored as the option ordinal; answer keeps the text of free-form answers only
+ALTER TABLE answers ADD COLUMN option_ordinal SMALLINT;
+ALTER TABLE answers ALTER COLUMN answer DROP NOT NULL;
+
+UPDATE answers a
+SET option_ordinal = a.answer::smallint, answer = NULL
+WHERE a.answer ~ '^[1-9][0-9]{0,3}$'
+  AND a.answer::smallint <= (SELECT COUNT(*) FROM question_options o WHERE o.question_id = a.question_id);
+
+ALTER TABLE answers ADD CONSTRAINT answers_value_check CHECK ((option_ordinal IS NULL) <> (answer IS NULL));
+
+-- Results are counted per question and ordinal; the text column is only set for the few free-form answers
+DROP INDEX IF EXISTS idx_answer_question_id_answer;
+CREATE INDEX IF NOT EXISTS idx_answer_question_id_option ON answers (question_id, option_ordinal, answer);
@@ -0,0 +1,81 @@
+-- First step of the online move of submissions and answers to hash-partitioned tables (see README, "Partitioned storage").
+-- Only catalog changes and new empty tables: nothing here rewrites or scans the existing tables.
+
+-- Partition key of answers; the application sets it on every insert, older rows get it during the backfill
+ALTER TABLE answers ADD COLUMN IF NOT EXISTS survey_id UUID;
+
+-- Partitioned copies, hashed on survey_id so all rows of a survey live in one partition.
+-- Primary keys must contain the partition key, hence (survey_id, id).
+CREATE TABLE IF NOT EXISTS submissions_partitioned (
+    id UUID NOT NULL,
+    survey_id UUID NOT NULL REFERENCES surveys(id),
+    submitted_at timestamp DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (survey_id, id)
+) PARTITION BY HASH (survey_id);
+
+CREATE TABLE IF NOT EXISTS answers_partitioned (
+    id UUID NOT NULL,
+    survey_id UUID NOT NULL,
+    submission_id UUID NOT NULL,
+    question_id UUID NOT NULL REFERENCES questions(id),
+    answer TEXT,
+    option_ordinal SMALLINT,
+    created_at timestamp DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (survey_id, id),
+    FOREIGN KEY (survey_id, submission_id) REFERENCES submissions_partitioned (survey_id, id) ON DELETE CASCADE,
+    CONSTRAINT answers_partitioned_value_check CHECK ((option_ordinal IS NULL) <> (answer IS NULL))
+) PARTITION BY HASH (survey_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS submissions_p%s PARTITION OF submissions_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS answers_p%s PARTITION OF answers_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+    END LOOP;
+END $$;
+
+-- Same access paths as the classic tables, including an index for every foreign key
+CREATE INDEX IF NOT EXISTS idx_submission_p_survey_id_submitted_at ON submissions_partitioned (survey_id, submitted_at, id);
+CREATE INDEX IF NOT EXISTS idx_answer_p_submission_id ON answers_partitioned (survey_id, submission_id);
+CREATE INDEX IF NOT EXISTS idx_answer_p_question_id_option ON answers_partitioned (question_id, option_ordinal, answer);
+
+-- Until the swap, every write to the classic tables is mirrored into the partitioned ones
+CREATE OR REPLACE FUNCTION mirror_submission() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO submissions_partitioned (id, survey_id, submitted_at)
+        VALUES (NEW.id, NEW.survey_id, NEW.submitted_at)
+        ON CONFLICT DO NOTHING;
+        RETURN NEW;
+    END IF;
+    DELETE FROM submissions_partitioned WHERE survey_id = OLD.survey_id AND id = OLD.id;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION mirror_answer() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        IF NEW.survey_id IS NULL THEN
+            SELECT s.survey_id INTO NEW.survey_id FROM submissions s WHERE s.id = NEW.submission_id;
+        END IF;
+        INSERT INTO answers_partitioned (id, survey_id, submission_id, question_id, answer, option_ordinal, created_at)
+        VALUES (NEW.id, NEW.survey_id, NEW.submission_id, NEW.question_id, NEW.answer, NEW.option_ordinal, NEW.created_at)
+        ON CONFLICT DO NOTHING;
+        RETURN NEW;
+    END IF;
+    DELETE FROM answers_partitioned
+    WHERE id = OLD.id
+      AND survey_id = COALESCE(OLD.survey_id, (SELECT s.survey_id FROM submissions s WHERE s.id = OLD.submission_id));
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS mirror_submission ON submissions;
+CREATE TRIGGER mirror_submission AFTER INSERT OR DELETE ON submissions
+    FOR EACH ROW EXECUTE FUNCTION mirror_submission();
+
+-- BEFORE, so a missing survey_id is filled in on the classic row as well
+DROP TRIGGER IF EXISTS mirror_answer ON answers;
+CREATE TRIGGER mirror_answer BEFORE INSERT OR DELETE ON answers
+    FOR EACH ROW EXECUTE FUNCTION mirror_answer();
@@ -0,0 +1,11 @@
+-- Idempotency keys of submissions: a retried POST /submit with the same Idempotency-Key header for the same survey
+-- is answered with the original submission instead of storing it again. No foreign key to submissions, so the table
+-- is independent of the partitioned storage swap; keys are deleted after the retention period.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    survey_id UUID NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    submission_id UUID NOT NULL,
+    created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (survey_id, idempotency_key)
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_created_at ON idempotency_keys (created_at);
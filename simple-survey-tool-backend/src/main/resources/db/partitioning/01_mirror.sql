@@ -0,0 +1,44 @@
+-- Step 2 of the move to partitioned storage (see README, "Partitioned storage"), run right before backfill.sql:
+--   psql -f 01_mirror.sql
+-- From here until the swap, every write to the classic tables is mirrored into the partitioned ones. The triggers
+-- write each row twice and slow down inserts, COPY in particular, so they are only installed for the move.
+
+CREATE OR REPLACE FUNCTION mirror_submission() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO submissions_partitioned (id, survey_id, submitted_at)
+        VALUES (NEW.id, NEW.survey_id, NEW.submitted_at)
+        ON CONFLICT DO NOTHING;
+        RETURN NEW;
+    END IF;
+    DELETE FROM submissions_partitioned WHERE survey_id = OLD.survey_id AND id = OLD.id;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION mirror_answer() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        IF NEW.survey_id IS NULL THEN
+            SELECT s.survey_id INTO NEW.survey_id FROM submissions s WHERE s.id = NEW.submission_id;
+        END IF;
+        INSERT INTO answers_partitioned (id, survey_id, submission_id, question_id, answer, option_ordinal, created_at)
+        VALUES (NEW.id, NEW.survey_id, NEW.submission_id, NEW.question_id, NEW.answer, NEW.option_ordinal, NEW.created_at)
+        ON CONFLICT DO NOTHING;
+        RETURN NEW;
+    END IF;
+    DELETE FROM answers_partitioned
+    WHERE id = OLD.id
+      AND survey_id = COALESCE(OLD.survey_id, (SELECT s.survey_id FROM submissions s WHERE s.id = OLD.submission_id));
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS mirror_submission ON submissions;
+CREATE TRIGGER mirror_submission AFTER INSERT OR DELETE ON submissions
+    FOR EACH ROW EXECUTE FUNCTION mirror_submission();
+
+-- BEFORE, so a missing survey_id is filled in on the classic row as well
+DROP TRIGGER IF EXISTS mirror_answer ON answers;
+CREATE TRIGGER mirror_answer BEFORE INSERT OR DELETE ON answers
+    FOR EACH ROW EXECUTE FUNCTION mirror_answer();
@@ -0,0 +1,42 @@
+-- Step 3 of the move to partitioned storage (see README, "Partitioned storage"), run after 01_mirror.sql:
+--   psql -v batch_size=50000 -f backfill.sql
+-- Copies the rows written before the mirror triggers were installed into the partitioned tables in small batches,
+-- each in its own transaction, walking the classic tables in primary key order. Rows already mirrored are skipped.
+-- Can be stopped and started again at any time.
+
+CREATE OR REPLACE PROCEDURE backfill_partitioned_storage(batch_size INT)
+LANGUAGE plpgsql AS $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    max_id UUID;
+BEGIN
+    LOOP
+        SELECT MAX(id) INTO max_id FROM (
+            SELECT id FROM submissions WHERE id > last_id ORDER BY id LIMIT batch_size
+        ) batch;
+        EXIT WHEN max_id IS NULL;
+        INSERT INTO submissions_partitioned (id, survey_id, submitted_at)
+        SELECT id, survey_id, submitted_at FROM submissions WHERE id > last_id AND id <= max_id
+        ON CONFLICT DO NOTHING;
+        last_id := max_id;
+        COMMIT;
+    END LOOP;
+
+    last_id := '00000000-0000-0000-0000-000000000000';
+    LOOP
+        SELECT MAX(id) INTO max_id FROM (
+            SELECT id FROM answers WHERE id > last_id ORDER BY id LIMIT batch_size
+        ) batch;
+        EXIT WHEN max_id IS NULL;
+        INSERT INTO answers_partitioned (id, survey_id, submission_id, question_id, answer, option_ordinal, created_at)
+        SELECT a.id, COALESCE(a.survey_id, s.survey_id), a.submission_id, a.question_id, a.answer, a.option_ordinal, a.created_at
+        FROM answers a JOIN submissions s ON s.id = a.submission_id
+        WHERE a.id > last_id AND a.id <= max_id
+        ON CONFLICT DO NOTHING;
+        last_id := max_id;
+        COMMIT;
+    END LOOP;
+END;
+$$;
+
+CALL backfill_partitioned_storage(:batch_size);
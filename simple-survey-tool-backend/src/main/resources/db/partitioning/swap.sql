@@ -0,0 +1,20 @@
+-- Step 5 of the move to partitioned storage, run after verify.sql reports no missing rows:
+--   psql -f swap.sql
+-- Renames the partitioned tables into place in one short transaction. Writers wait for the locks for
+-- the duration of the renames only; the classic tables are kept as *_classic until they are dropped manually.
+BEGIN;
+LOCK TABLE submissions, answers IN ACCESS EXCLUSIVE MODE;
+
+DROP TRIGGER IF EXISTS mirror_answer ON answers;
+DROP TRIGGER IF EXISTS mirror_submission ON submissions;
+
+ALTER TABLE answers RENAME TO answers_classic;
+ALTER TABLE submissions RENAME TO submissions_classic;
+ALTER TABLE submissions_partitioned RENAME TO submissions;
+ALTER TABLE answers_partitioned RENAME TO answers;
+COMMIT;
+
+-- After a verification period:
+--   DROP TABLE answers_classic;
+--   DROP TABLE submissions_classic;
+--   DROP FUNCTION mirror_answer(), mirror_submission();
@@ -0,0 +1,9 @@
+-- Step 4 of the move to partitioned storage: both layouts must hold the same rows before the swap.
+-- Expected output: two rows with missing = 0.
+SELECT 'submissions' AS table_name, COUNT(*) AS missing
+FROM submissions c
+WHERE NOT EXISTS (SELECT 1 FROM submissions_partitioned p WHERE p.survey_id = c.survey_id AND p.id = c.id)
+UNION ALL
+SELECT 'answers', COUNT(*)
+FROM answers c
+WHERE NOT EXISTS (SELECT 1 FROM answers_partitioned p WHERE p.id = c.id AND p.submission_id = c.submission_id);
@@ -0,0 +1,135 @@
+package com.example.simple_survey_tool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Runs two nodes against one local PostgreSQL with "survey.cluster.enabled=true" and checks that a submission
+ * on node A shows up in the filtered results of node B, whose index was built before the submission, and that
+ * one committed right before node B builds its index is counted once. Run with ./gradlew clusterTest.
+ */
+@Tag("cluster")
+class ClusterCoherenceTest {
+
+    private static final long MAX_LAG_MS = 2_000;
+    // Long enough for an index load to complete before the notification of an earlier submission arrives
+    private static final long PUBLISH_INTERVAL_MS = 300;
+
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys";
+        nodeA = startNode(jdbcUrl);
+        nodeB = startNode(jdbcUrl);
+    }
+
+    private static ConfigurableApplicationContext startNode(String jdbcUrl) {
+        // Command line arguments, since default properties would not override application.properties
+        return new SpringApplicationBuilder(SimpleSurveyToolApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--survey.cluster.enabled=true",
+                        "--survey.cluster.publish-interval-ms=" + PUBLISH_INTERVAL_MS);
+    }
+
+    @AfterAll
+    static void stopNodes() throws Exception {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void submissionOnOneNodeReachesIndexOfOtherNode() throws Exception {
+        JsonNode saved = createSurvey();
+        String surveyId = saved.get("id").asText();
+
+        // Builds node B's index while the survey has no submissions
+        assertEquals(0, matchingResponses(surveyId));
+
+        submit(saved);
+
+        long start = System.nanoTime();
+        long matching = 0;
+        while (matching == 0 && System.nanoTime() - start < MAX_LAG_MS * 1_000_000) {
+            Thread.sleep(20);
+            matching = matchingResponses(surveyId);
+        }
+        assertEquals(1, matching, "Submission on node A not visible on node B within " + MAX_LAG_MS + " ms");
+    }
+
+    @Test
+    void submissionCommittedBeforeIndexLoadIsCountedOnce() throws Exception {
+        JsonNode saved = createSurvey();
+        String surveyId = saved.get("id").asText();
+
+        // Node B loads the submission with its index; node A's notification of it arrives afterwards
+        submit(saved);
+        assertEquals(1, matchingResponses(surveyId));
+
+        Thread.sleep(3 * PUBLISH_INTERVAL_MS);
+        assertEquals(1, matchingResponses(surveyId));
+    }
+
+    private static JsonNode createSurvey() throws Exception {
+        ObjectNode survey = JSON.createObjectNode();
+        survey.put("description", "Cluster survey");
+        survey.withArray("questions").addObject().put("text", "Question 1");
+        return JSON.readTree(post(nodeA, "/", survey.toString()));
+    }
+
+    private static void submit(JsonNode survey) throws Exception {
+        ObjectNode submission = JSON.createObjectNode();
+        submission.put("surveyId", survey.get("id").asText());
+        submission.putObject("answers").put(survey.get("questions").get(0).get("id").asText(), 1);
+        post(nodeA, "/submit", submission.toString());
+    }
+
+    private static long matchingResponses(String surveyId) throws Exception {
+        return JSON.readTree(post(nodeB, "/" + surveyId + "/results/query", "{}")).get("matchingResponses").asLong();
+    }
+
+    private static String post(ConfigurableApplicationContext node, String path, String body) throws Exception {
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        HttpResponse<String> response = HTTP.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/surveys" + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return response.body();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.simple_survey_tool.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ReplicaLagMonitorTest {
+
+    private static final long MAX_LAG_MS = 1_000;
+
+    private final ReplicaLagMonitor monitor = new ReplicaLagMonitor(null, List.of("replica-1", "replica-2"), List.of(), MAX_LAG_MS);
+
+    @Test
+    void replicaIsAsFreshAsTheNewestPrimarySampleItReplayed() {
+        monitor.recordPrimary(10_000, 100);
+        monitor.recordPrimary(10_200, 200);
+        monitor.recordPrimary(10_400, 300);
+        monitor.recordReplica(0, 250L);
+        monitor.recordReplica(1, 300L);
+
+        // replica-1 has everything committed before 10_200, replica-2 everything before 10_400
+        assertTrue(monitor.isEligible("replica-1", 10_200, 11_200));
+        assertFalse(monitor.isEligible("replica-1", 10_201, 11_200));
+        assertFalse(monitor.isEligible("replica-1", 0, 11_201));
+        assertTrue(monitor.isEligible("replica-2", 10_400, 11_400));
+    }
+
+    @Test
+    void picksFreshReplicasInTurnAndFallsBackToPrimary() {
+        monitor.recordPrimary(10_000, 100);
+        monitor.recordReplica(0, 100L);
+        monitor.recordReplica(1, 100L);
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-1"),
+            List.of(monitor.pick(0, 10_500), monitor.pick(0, 10_500), monitor.pick(0, 10_500)));
+        assertEquals(ReplicaReads.PRIMARY, monitor.pick(10_001, 10_500));
+        assertEquals(ReplicaReads.PRIMARY, monitor.pick(0, 11_001));
+    }
+
+    @Test
+    void unknownOrStoppedReplicaIsNotUsed() {
+        monitor.recordPrimary(10_000, 100);
+        monitor.recordReplica(0, 99L);
+        monitor.recordReplica(1, null);
+
+        assertEquals(ReplicaReads.PRIMARY, monitor.pick(0, 10_000));
+        assertEquals(Double.NaN, monitor.lagMs(1));
+    }
+
+    @Test
+    void requestStaysOnPrimaryOnceItLeftItsReplica() {
+        monitor.recordPrimary(System.currentTimeMillis(), 100);
+        monitor.recordReplica(0, 100L);
+        ReplicaReads.start(0);
+        try {
+            assertEquals("replica-1", ReplicaReads.route(monitor));
+            assertEquals("replica-1", ReplicaReads.route(monitor));
+            ReplicaReads.onPrimary(() -> assertEquals(ReplicaReads.PRIMARY, ReplicaReads.route(monitor)));
+
+            monitor.recordReplica(0, null);
+            monitor.recordReplica(1, 100L);
+            assertEquals(ReplicaReads.PRIMARY, ReplicaReads.route(monitor));
+            monitor.recordReplica(0, 100L);
+            assertEquals(ReplicaReads.PRIMARY, ReplicaReads.route(monitor));
+        } finally {
+            ReplicaReads.end();
+        }
+    }
+}
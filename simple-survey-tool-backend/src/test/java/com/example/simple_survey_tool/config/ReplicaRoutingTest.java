@@ -0,0 +1,128 @@
+package com.example.simple_survey_tool.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Runs several transactions within one request, with the request's EntityManager kept open as open-in-view does,
+ * against the routing DataSource. The replica is the same local PostgreSQL behind a read-only connection, so a
+ * write routed to it fails as on a standby; the connections tell their database by their application name.
+ */
+@SpringBootTest
+class ReplicaRoutingTest {
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+
+    @MockitoBean
+    private ReplicaLagMonitor monitor;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys";
+        registry.add("spring.datasource.url", () -> jdbcUrl + "&ApplicationName=primary");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("survey.replica.urls", () -> jdbcUrl + "&ApplicationName=replica-1&readOnly=true&readOnlyMode=always");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void replicaIsFresh() {
+        when(monitor.pick(anyLong(), anyLong())).thenReturn("replica-1");
+        when(monitor.isEligible(anyString(), anyLong(), anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void writeAfterReadOnlyTransactionRunsOnPrimary() {
+        inRequest(() -> {
+            assertEquals("replica-1", inTransaction(true));
+            assertEquals("primary", inTransaction(false));
+            assertEquals("replica-1", inTransaction(true));
+        });
+    }
+
+    @Test
+    void loadOnPrimaryAfterReadOnlyTransactionRunsOnPrimary() {
+        inRequest(() -> {
+            assertEquals("replica-1", inTransaction(true));
+            ReplicaReads.onPrimary(() -> assertEquals("primary", inTransaction(true)));
+        });
+    }
+
+    /**
+     * Runs a transaction that reads, and unless it is read-only writes, and returns the name of its database.
+     */
+    private String inTransaction(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> {
+            if (!readOnly) {
+                entityManager.createNativeQuery("INSERT INTO surveys (id, description, created_at, updated_at, response_count)"
+                        + " VALUES (?1, 'routing', now(), now(), 0)")
+                    .setParameter(1, UUID.randomUUID())
+                    .executeUpdate();
+            }
+            return (String) entityManager.createNativeQuery("SELECT current_setting('application_name')").getSingleResult();
+        });
+    }
+
+    /**
+     * Runs work with one EntityManager for all its transactions, as OpenEntityManagerInViewInterceptor does.
+     */
+    private void inRequest(Runnable work) {
+        EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+        ReplicaReads.start(0);
+        try {
+            work.run();
+        } finally {
+            ReplicaReads.end();
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(requestEntityManager);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.simple_survey_tool.model_layer.AnswerCountDrift;
+import com.example.simple_survey_tool.model_layer.SubmitAnswersRequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Damages the answer_counts table in three ways (a wrong count, a missing row, a row without answers) and
+ * checks that the consistency check reports exactly those rows, publishes their number, and repairs them.
+ */
+@SpringBootTest
+class AnswerCountCheckerTest {
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+
+    @Autowired
+    private AnswerCountChecker answerCountChecker;
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void driftIsReportedAndRepaired() {
+        UUID surveyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count) VALUES (?, 'drift', now(), now(), 0)",
+                surveyId);
+        jdbcTemplate.update("INSERT INTO questions (id, text, survey_id) VALUES (?, 'Question', ?)", surveyId, surveyId);
+        jdbcTemplate.update("INSERT INTO question_options (question_id, ordinal, label) SELECT ?, g, g::text FROM generate_series(1, 3) g", surveyId);
+        for (String answer : List.of("1", "1", "1", "2", "2", "other")) {
+            SubmitAnswersRequest request = new SubmitAnswersRequest();
+            request.setSurveyId(surveyId.toString());
+            request.setAnswers(Map.of(surveyId, answer));
+            submissionService.submitAnswers(request);
+        }
+        assertTrue(answerCountChecker.check().isEmpty(), "Counts maintained by submissions drift");
+        assertEquals(0, drift());
+
+        jdbcTemplate.update("UPDATE answer_counts SET count = count + 4 WHERE survey_id = ? AND option_key = '1'", surveyId);
+        jdbcTemplate.update("DELETE FROM answer_counts WHERE survey_id = ? AND option_key = 'other'", surveyId);
+        jdbcTemplate.update("INSERT INTO answer_counts (survey_id, question_id, option_key, count) VALUES (?, ?, '3', 2)", surveyId, surveyId);
+
+        List<AnswerCountDrift> drifts = answerCountChecker.check().stream()
+            .sorted(Comparator.comparing(AnswerCountDrift::optionKey))
+            .toList();
+        assertEquals(List.of(
+                new AnswerCountDrift(surveyId, surveyId, "1", 7, 3),
+                new AnswerCountDrift(surveyId, surveyId, "3", 2, 0),
+                new AnswerCountDrift(surveyId, surveyId, "other", 0, 1)),
+            drifts);
+        assertEquals(3, drift());
+        // Without repair, the check only reports
+        assertEquals(3, answerCountChecker.check().size());
+
+        ReflectionTestUtils.setField(answerCountChecker, "repair", true);
+        try {
+            assertEquals(3, answerCountChecker.check().size());
+        } finally {
+            ReflectionTestUtils.setField(answerCountChecker, "repair", false);
+        }
+        assertTrue(answerCountChecker.check().isEmpty(), "Drift left after repair");
+        assertEquals(0, drift());
+        assertEquals(3L, count(surveyId, "1"));
+        assertEquals(1L, count(surveyId, "other"));
+    }
+
+    private double drift() {
+        return meterRegistry.get("survey.answer_counts.drift").gauge().value();
+    }
+
+    private long count(UUID surveyId, String optionKey) {
+        return jdbcTemplate.queryForObject("SELECT count FROM answer_counts WHERE survey_id = ? AND option_key = ?",
+                Long.class, surveyId, optionKey);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.simple_survey_tool.config.StatementCounter;
+import com.example.simple_survey_tool.model_layer.Submission;
+import com.example.simple_survey_tool.model_layer.SubmitAnswersRequest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Stores submissions against a local PostgreSQL and checks that all answers are written with a number of
+ * statements that does not grow with the number of questions, and that a submission with an invalid answer
+ * writes nothing at all.
+ */
+@SpringBootTest
+class BatchedSubmissionTest {
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void statementsDoNotGrowWithTheNumberOfAnswers() {
+        List<UUID> small = createSurvey(2);
+        List<UUID> large = createSurvey(40);
+        // The first submission of each survey loads and caches its definition
+        submit(small);
+        submit(large);
+
+        long smallStatements = statementsOf(() -> submit(small));
+        long largeStatements = statementsOf(() -> submit(large));
+
+        assertTrue(smallStatements > 0);
+        assertEquals(smallStatements, largeStatements, "Statements per submission depend on the number of answers");
+        assertEquals(2L * 40, count("SELECT COUNT(*) FROM answers WHERE survey_id = ?", large.get(0)));
+        assertEquals(2, count("SELECT response_count FROM surveys WHERE id = ?", large.get(0)));
+    }
+
+    @Test
+    void invalidAnswerWritesNothing() {
+        List<UUID> questions = createSurvey(5);
+        UUID surveyId = questions.get(0);
+        Map<UUID, String> answers = answers(questions);
+        // A question of another survey, after valid answers
+        answers.put(createSurvey(1).get(0), "1");
+
+        SubmitAnswersRequest request = new SubmitAnswersRequest();
+        request.setSurveyId(surveyId.toString());
+        request.setAnswers(answers);
+        assertThrows(IllegalArgumentException.class, () -> submissionService.submitAnswers(request));
+
+        assertEquals(0, count("SELECT COUNT(*) FROM submissions WHERE survey_id = ?", surveyId));
+        assertEquals(0, count("SELECT COUNT(*) FROM answers WHERE survey_id = ?", surveyId));
+        assertEquals(0, count("SELECT COUNT(*) FROM answer_counts WHERE survey_id = ?", surveyId));
+        assertEquals(0, count("SELECT response_count FROM surveys WHERE id = ?", surveyId));
+    }
+
+    /**
+     * Creates a survey with the given number of questions; the first question has the survey's ID.
+     *
+     * @return IDs of the questions.
+     */
+    private List<UUID> createSurvey(int questionCount) {
+        UUID surveyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count) VALUES (?, 'batched', now(), now(), 0)",
+                surveyId);
+        List<UUID> questions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            UUID questionId = i == 0 ? surveyId : UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO questions (id, text, survey_id) VALUES (?, 'Question', ?)", questionId, surveyId);
+            jdbcTemplate.update("INSERT INTO question_options (question_id, ordinal, label) SELECT ?, g, g::text FROM generate_series(1, 3) g", questionId);
+            questions.add(questionId);
+        }
+        return questions;
+    }
+
+    private Submission submit(List<UUID> questions) {
+        SubmitAnswersRequest request = new SubmitAnswersRequest();
+        request.setSurveyId(questions.get(0).toString());
+        request.setAnswers(answers(questions));
+        return submissionService.submitAnswers(request);
+    }
+
+    private static Map<UUID, String> answers(List<UUID> questions) {
+        Map<UUID, String> answers = new HashMap<>();
+        for (int i = 0; i < questions.size(); i++) {
+            answers.put(questions.get(i), String.valueOf(1 + i % 3));
+        }
+        return answers;
+    }
+
+    private long statementsOf(Runnable task) {
+        long before = statementCounter.current();
+        task.run();
+        return statementCounter.current() - before;
+    }
+
+    private long count(String sql, UUID id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+}
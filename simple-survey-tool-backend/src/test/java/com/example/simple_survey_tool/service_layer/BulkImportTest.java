@@ -0,0 +1,162 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.simple_survey_tool.model_layer.BulkImportError;
+import com.example.simple_survey_tool.model_layer.BulkImportResult;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Imports NDJSON submissions mixing valid and invalid lines, and checks that each invalid line is reported
+ * with its line number while the valid ones are stored, that repeated IDs are counted as duplicates, and that
+ * malformed JSON stops the import after the lines before it.
+ */
+@SpringBootTest
+class BulkImportTest {
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void invalidLinesAreReportedAndValidLinesStored() throws Exception {
+        SurveyDefinition definition = createSurvey();
+        UUID question = definition.id();
+        UUID repeated = UUID.randomUUID();
+        String body = String.join("\n",
+            answers(question, "1"),
+            answers(UUID.randomUUID(), "1"),
+            "{\"answers\":\"not an object\"}",
+            "{\"id\":\"" + repeated + "\",\"submitted_at\":\"2025-03-01T10:00:00\",\"answers\":{\"" + question + "\":\"2\"}}",
+            "",
+            "{\"id\":\"" + repeated + "\",\"answers\":{\"" + question + "\":\"3\"}}",
+            "{\"answers\":{}}",
+            "{\"submitted_at\":\"yesterday\",\"answers\":{\"" + question + "\":\"1\"}}",
+            answers(question, "free text"));
+
+        BulkImportResult result = bulkImportService.importSubmissions(definition, in(body));
+
+        assertEquals(8, result.received());
+        assertEquals(3, result.imported());
+        assertEquals(1, result.duplicates());
+        assertEquals(4, result.failed());
+        assertEquals(List.of(2L, 3L, 7L, 8L), result.errors().stream().map(BulkImportError::record).toList());
+        assertEquals("Question not found", result.errors().get(0).message());
+        assertEquals("No answers provided", result.errors().get(2).message());
+        assertEquals(3, count("SELECT COUNT(*) FROM submissions WHERE survey_id = ?", question));
+        assertEquals(3, count("SELECT response_count FROM surveys WHERE id = ?", question));
+        // The first line with the ID is kept
+        assertEquals(2, count("SELECT option_ordinal FROM answers WHERE submission_id = ?", repeated));
+
+        // Importing the same ID again is a duplicate, not an error
+        result = bulkImportService.importSubmissions(definition, in(
+                "{\"id\":\"" + repeated + "\",\"answers\":{\"" + question + "\":\"1\"}}"));
+        assertEquals(0, result.imported());
+        assertEquals(1, result.duplicates());
+        assertTrue(result.errors().isEmpty());
+        assertEquals(3, count("SELECT response_count FROM surveys WHERE id = ?", question));
+    }
+
+    @Test
+    void malformedJsonStopsTheImportAfterThePrecedingLines() throws Exception {
+        SurveyDefinition definition = createSurvey();
+        String body = String.join("\n",
+            answers(definition.id(), "1"),
+            answers(definition.id(), "2"),
+            "{\"answers\": {\"" + definition.id() + "\": \"3\"",
+            answers(definition.id(), "3"));
+
+        BulkImportResult result = bulkImportService.importSubmissions(definition, in(body));
+
+        assertEquals(2, result.imported());
+        assertEquals(1, result.failed());
+        BulkImportError error = result.errors().get(0);
+        assertTrue(error.record() >= 3, "Error reported before the malformed line: " + error.record());
+        assertTrue(error.message().startsWith("Malformed JSON, import stopped"), error.message());
+        assertEquals(2, count("SELECT COUNT(*) FROM submissions WHERE survey_id = ?", definition.id()));
+    }
+
+    @Test
+    void reportedErrorsAreCappedButAllCounted() throws Exception {
+        SurveyDefinition definition = createSurvey();
+        String body = String.join("\n", "{\"answers\":{}}", "{\"answers\":{}}", "{\"answers\":{}}", answers(definition.id(), "1"));
+
+        Object before = ReflectionTestUtils.getField(bulkImportService, "maxErrors");
+        ReflectionTestUtils.setField(bulkImportService, "maxErrors", 2);
+        BulkImportResult result;
+        try {
+            result = bulkImportService.importSubmissions(definition, in(body));
+        } finally {
+            ReflectionTestUtils.setField(bulkImportService, "maxErrors", before);
+        }
+
+        assertEquals(3, result.failed());
+        assertEquals(List.of(1L, 2L), result.errors().stream().map(BulkImportError::record).toList());
+        assertEquals(1, result.imported());
+    }
+
+    private SurveyDefinition createSurvey() {
+        UUID surveyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count) VALUES (?, 'bulk', now(), now(), 0)",
+                surveyId);
+        jdbcTemplate.update("INSERT INTO questions (id, text, survey_id) VALUES (?, 'Question', ?)", surveyId, surveyId);
+        jdbcTemplate.update("INSERT INTO question_options (question_id, ordinal, label) SELECT ?, g, g::text FROM generate_series(1, 3) g", surveyId);
+        return surveyService.getSurveyDefinition(surveyId);
+    }
+
+    private static String answers(UUID questionId, String answer) {
+        return "{\"answers\":{\"" + questionId + "\":\"" + answer + "\"}}";
+    }
+
+    private static ByteArrayInputStream in(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long count(String sql, UUID id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+}
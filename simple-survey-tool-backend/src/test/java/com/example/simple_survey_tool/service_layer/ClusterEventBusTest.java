@@ -0,0 +1,98 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.simple_survey_tool.model_layer.ClusterNotification;
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.SubmissionsStoredEvent;
+import com.example.simple_survey_tool.repository_layer.NotificationRepo;
+import com.example.simple_survey_tool.repository_layer.SubmissionExportRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ClusterEventBusTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NotificationRepo notificationRepo = mock(NotificationRepo.class);
+    private final ClusterEventBus bus = new ClusterEventBus(notificationRepo, mock(SubmissionExportRepo.class),
+            mock(ApplicationEventPublisher.class), mock(LiveResultsService.class), mock(ResultsQueryService.class),
+            mock(ApproximateResultsService.class), objectMapper);
+
+    @Test
+    void failedSendIsFollowedByGapNotification() throws Exception {
+        List<List<String>> sent = new ArrayList<>();
+        doThrow(new DataAccessResourceFailureException("Connection refused"))
+            .doAnswer(invocation -> sent.add(invocation.getArgument(1)))
+            .when(notificationRepo).notify(eq(ClusterEventBus.CHANNEL), any());
+
+        bus.onSubmissionsStored(new SubmissionsStoredEvent(List.of(submission())));
+        bus.publish();
+        PendingSubmission next = submission();
+        bus.onSubmissionsStored(new SubmissionsStoredEvent(List.of(next)));
+        bus.publish();
+
+        assertEquals(1, sent.size());
+        List<String> payloads = sent.get(0);
+        assertEquals(2, payloads.size());
+        assertNull(objectMapper.readValue(payloads.get(0), ClusterNotification.class).surveyId(), "Gap expected first");
+        ClusterNotification notification = objectMapper.readValue(payloads.get(1), ClusterNotification.class);
+        assertEquals(next.surveyId(), notification.surveyId());
+        assertEquals(List.of(next.id()), notification.submissionIds());
+    }
+
+    @Test
+    void gapIsSentWithoutNewSubmissionsAndOnlyOnce() throws Exception {
+        List<List<String>> sent = new ArrayList<>();
+        doThrow(new DataAccessResourceFailureException("Connection refused"))
+            .doAnswer(invocation -> sent.add(invocation.getArgument(1)))
+            .when(notificationRepo).notify(eq(ClusterEventBus.CHANNEL), any());
+
+        bus.onSubmissionsStored(new SubmissionsStoredEvent(List.of(submission())));
+        bus.publish();
+        bus.publish();
+        bus.publish();
+
+        assertEquals(1, sent.size());
+        assertEquals(1, sent.get(0).size());
+        assertNull(objectMapper.readValue(sent.get(0).get(0), ClusterNotification.class).surveyId());
+    }
+
+    @Test
+    void nothingIsSentWithoutSubmissions() {
+        doAnswer(invocation -> null).when(notificationRepo).notify(any(), any());
+
+        bus.publish();
+
+        verify(notificationRepo, never()).notify(any(), any());
+    }
+
+    @Test
+    void refusesToStartWithStripedCounter() {
+        ReflectionTestUtils.setField(bus, "counterMode", "striped");
+
+        assertThrows(IllegalStateException.class, bus::start);
+    }
+
+    private static PendingSubmission submission() {
+        return new PendingSubmission(UUID.randomUUID(), UUID.randomUUID(), LocalDateTime.now(), Map.of());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.repository_layer.SubmissionExportRepo;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Exports 1M submissions with 5M answers (about 70 MB of CSV) from a local PostgreSQL.
+ * Run with ./gradlew cappedHeapTest, which limits the heap to 64 MB: the export only passes if rows are
+ * streamed from the cursor to the output without being collected in memory.
+ */
+@Tag("capped-heap")
+class ExportServiceCappedHeapTest {
+
+    private static final int SUBMISSIONS = 1_000_000;
+    private static final int QUESTIONS = 5;
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+    private static SurveyDefinition definition;
+
+    @BeforeAll
+    static void createSurvey() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        dataSource = postgres.getDatabase("postgres", "postgres", Map.of("currentSchema", "surveys"));
+        Flyway.configure().dataSource(dataSource).schemas("surveys").locations("classpath:/db/migration").load().migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        UUID surveyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count) VALUES (?, 'export', now(), now(), 0)", surveyId);
+        List<QuestionDefinition> questions = new ArrayList<>();
+        for (int i = 0; i < QUESTIONS; i++) {
+            QuestionDefinition question = new QuestionDefinition(UUID.randomUUID(), surveyId, "Question, " + i, List.of("1", "2", "3", "4", "5"));
+            jdbcTemplate.update("INSERT INTO questions (id, text, survey_id) VALUES (?, ?, ?)", question.id(), question.text(), surveyId);
+            jdbcTemplate.update("INSERT INTO question_options (question_id, ordinal, label) SELECT ?, g, g::text FROM generate_series(1, 5) g", question.id());
+            questions.add(question);
+        }
+        jdbcTemplate.update("INSERT INTO submissions (id, survey_id, submitted_at)"
+                + " SELECT gen_random_uuid(), ?, timestamp '2025-01-01' + g * interval '1 second' FROM generate_series(1, ?) g",
+                surveyId, SUBMISSIONS);
+        jdbcTemplate.update("INSERT INTO answers (id, submission_id, survey_id, question_id, option_ordinal)"
+                + " SELECT gen_random_uuid(), s.id, s.survey_id, q.id, (1 + floor(random() * 5))::smallint FROM submissions s CROSS JOIN questions q"
+                + " WHERE s.survey_id = ? AND q.survey_id = ?", surveyId, surveyId);
+        jdbcTemplate.execute("ANALYZE");
+        definition = new SurveyDefinition(surveyId, "export", LocalDateTime.now(), questions);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void streamsLargeExportWithCappedHeap() throws Exception {
+        assumeTrue(Runtime.getRuntime().maxMemory() <= 128L * 1024 * 1024, "Run with ./gradlew cappedHeapTest");
+        assertEquals(SUBMISSIONS + 1, export(ExportService.Format.CSV, false));
+        assertEquals(SUBMISSIONS, export(ExportService.Format.NDJSON, true));
+    }
+
+    /**
+     * Runs an export in a read-only transaction, as the service proxy does, and counts the lines written.
+     */
+    private long export(ExportService.Format format, boolean gzip) {
+        SubmissionExportRepo repo = new SubmissionExportRepo(new JdbcTemplate(dataSource));
+        ReflectionTestUtils.setField(repo, "fetchSize", 1000);
+        ExportService exportService = new ExportService(repo);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(true);
+
+        LineCountingOutputStream lines = new LineCountingOutputStream();
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                if (gzip) {
+                    // Lines are counted before compression; the compressed stream only adds its fixed-size buffers
+                    GZIPOutputStream compressed = new GZIPOutputStream(OutputStream.nullOutputStream());
+                    exportService.export(definition, format, new TeeOutputStream(compressed, lines));
+                    compressed.finish();
+                } else {
+                    exportService.export(definition, format, lines);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return lines.count;
+    }
+
+    private static final class LineCountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                count++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    count++;
+                }
+            }
+        }
+    }
+
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+    }
+}
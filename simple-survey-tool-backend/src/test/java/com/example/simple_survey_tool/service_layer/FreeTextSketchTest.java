@@ -0,0 +1,53 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class FreeTextSketchTest {
+
+    @Test
+    void keepsFrequentAnswersWithinTheirErrorBounds() {
+        FreeTextSketch sketch = new FreeTextSketch(50);
+        for (int i = 0; i < 100_000; i++) {
+            // "frequent 0".."frequent 4" make up half of the answers, the rest is unique
+            sketch.add(i % 2 == 0 ? "frequent " + i % 10 / 2 : "unique " + i, 1);
+        }
+
+        Map<String, long[]> top = sketch.top(5);
+
+        assertEquals(100_000, sketch.total());
+        assertTrue(sketch.maxError() <= sketch.total() / 50);
+        assertEquals(List.of("frequent 0", "frequent 1", "frequent 2", "frequent 3", "frequent 4"),
+            top.keySet().stream().sorted().toList());
+        top.values().forEach(counter -> assertTrue(counter[0] - counter[1] <= 10_000 && 10_000 <= counter[0]));
+    }
+
+    @Test
+    void estimatesDistinctAnswersWithinTheInterval() {
+        FreeTextSketch sketch = new FreeTextSketch(10);
+        for (int i = 0; i < 300_000; i++) {
+            sketch.add("answer " + i % 100_000, 1);
+        }
+
+        long[] distinct = sketch.distinct();
+
+        assertTrue(distinct[1] <= 100_000 && 100_000 <= distinct[2], distinct[1] + ".." + distinct[2]);
+    }
+
+    @Test
+    void countsSmallSetsExactly() {
+        FreeTextSketch sketch = new FreeTextSketch(10);
+        sketch.add("yes", 3);
+        sketch.add("no", 1);
+
+        assertEquals(0, sketch.maxError());
+        assertArrayEquals(new long[] { 3, 0 }, sketch.top(1).get("yes"));
+        assertEquals(2, sketch.distinct()[0]);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.simple_survey_tool.model_layer.SubmitAnswersRequest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Submits with an Idempotency-Key against a local PostgreSQL and checks that every retry, sequential or
+ * concurrent, stores nothing and gets the original submission.
+ */
+@SpringBootTest
+class IdempotentSubmissionTest {
+
+    private static final int THREADS = 8;
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void retryWithSameKeyReturnsOriginalSubmission() {
+        UUID surveyId = createSurvey();
+
+        UUID original = submissionService.submitAnswers(request(surveyId), "key-1").getId();
+        UUID retry = submissionService.submitAnswers(request(surveyId), "key-1").getId();
+        UUID other = submissionService.submitAnswers(request(surveyId), "key-2").getId();
+
+        assertEquals(original, retry);
+        assertNotEquals(original, other);
+        assertEquals(2, count("SELECT COUNT(*) FROM submissions WHERE survey_id = ?", surveyId));
+        assertEquals(2, count("SELECT response_count FROM surveys WHERE id = ?", surveyId));
+    }
+
+    @Test
+    void concurrentAttemptsWithSameKeyStoreOneSubmission() throws Exception {
+        UUID surveyId = createSurvey();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        Set<UUID> returned = new HashSet<>();
+        try {
+            List<Future<UUID>> attempts = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    return submissionService.submitAnswers(request(surveyId), "concurrent").getId();
+                }));
+            }
+            start.countDown();
+            for (Future<UUID> attempt : attempts) {
+                returned.add(attempt.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, returned.size(), "Attempts got different submissions");
+        assertEquals(1, count("SELECT COUNT(*) FROM submissions WHERE survey_id = ?", surveyId));
+        assertEquals(1, count("SELECT COUNT(*) FROM answers a JOIN submissions s ON s.id = a.submission_id WHERE s.survey_id = ?", surveyId));
+        assertEquals(1, count("SELECT response_count FROM surveys WHERE id = ?", surveyId));
+    }
+
+    private UUID createSurvey() {
+        UUID surveyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count) VALUES (?, 'idempotent', now(), now(), 0)",
+                surveyId);
+        jdbcTemplate.update("INSERT INTO questions (id, text, survey_id) VALUES (?, 'Question', ?)", surveyId, surveyId);
+        jdbcTemplate.update("INSERT INTO question_options (question_id, ordinal, label) SELECT ?, g, g::text FROM generate_series(1, 3) g", surveyId);
+        return surveyId;
+    }
+
+    private static SubmitAnswersRequest request(UUID surveyId) {
+        // The question of each test survey has the survey's ID
+        SubmitAnswersRequest request = new SubmitAnswersRequest();
+        request.setSurveyId(surveyId.toString());
+        request.setAnswers(Map.of(surveyId, "1"));
+        return request;
+    }
+
+    private long count(String sql, UUID id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.simple_survey_tool.model_layer.KeysetPage;
+import com.example.simple_survey_tool.model_layer.SubmissionView;
+import com.example.simple_survey_tool.model_layer.SurveySummary;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Pages through submissions and surveys whose timestamps are partly equal, and checks that every row is
+ * returned exactly once in (timestamp, id) order and that the last page has no next cursor.
+ */
+@SpringBootTest
+class KeysetPaginationTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void submissionsWithEqualTimesArePagedOnceInOrder() {
+        UUID surveyId = createSurvey(TIME);
+        // Two groups of ties split across page boundaries, plus single rows around them
+        List<Row> rows = new ArrayList<>();
+        for (int minutes : new int[] { 0, 1, 1, 1, 1, 2, 3, 3, 3 }) {
+            Row row = new Row(UUID.randomUUID(), TIME.plusMinutes(minutes));
+            jdbcTemplate.update("INSERT INTO submissions (id, survey_id, submitted_at) VALUES (?, ?, ?)",
+                    row.id(), surveyId, Timestamp.valueOf(row.time()));
+            jdbcTemplate.update("INSERT INTO answers (id, submission_id, question_id, option_ordinal, survey_id) VALUES (?, ?, ?, 2, ?)",
+                    UUID.randomUUID(), row.id(), surveyId, surveyId);
+            rows.add(row);
+        }
+        // PostgreSQL orders UUIDs by their bytes, which is the order of their hex strings
+        rows.sort(Comparator.comparing(Row::time).thenComparing(row -> row.id().toString()));
+
+        List<SubmissionView> paged = new ArrayList<>();
+        int pages = 0;
+        String after = null;
+        do {
+            KeysetPage<SubmissionView> page = submissionService.listSubmissions(surveyId, after, 3);
+            assertTrue(page.items().size() <= 3);
+            paged.addAll(page.items());
+            after = page.nextCursor();
+            pages++;
+        } while (after != null && pages < 10);
+
+        // 9 rows are exactly 3 full pages: the third has no cursor, so no empty fourth page is requested
+        assertEquals(3, pages);
+        assertEquals(rows.stream().map(Row::id).toList(), paged.stream().map(SubmissionView::id).toList());
+        for (SubmissionView submission : paged) {
+            assertEquals("2", submission.answers().get(surveyId));
+        }
+    }
+
+    @Test
+    void lastPartialPageHasNoCursor() {
+        UUID surveyId = createSurvey(TIME);
+        for (int i = 0; i < 4; i++) {
+            jdbcTemplate.update("INSERT INTO submissions (id, survey_id, submitted_at) VALUES (?, ?, ?)",
+                    UUID.randomUUID(), surveyId, Timestamp.valueOf(TIME));
+        }
+
+        KeysetPage<SubmissionView> first = submissionService.listSubmissions(surveyId, null, 3);
+        assertEquals(3, first.items().size());
+        assertNotNull(first.nextCursor());
+        KeysetPage<SubmissionView> second = submissionService.listSubmissions(surveyId, first.nextCursor(), 3);
+        assertEquals(1, second.items().size());
+        assertNull(second.nextCursor());
+
+        KeysetPage<SubmissionView> empty = submissionService.listSubmissions(createSurvey(TIME), null, 3);
+        assertTrue(empty.items().isEmpty());
+        assertNull(empty.nextCursor());
+    }
+
+    @Test
+    void surveysWithEqualCreationTimesArePagedOnceInOrder() {
+        LocalDateTime created = TIME.minusYears(1);
+        List<Row> rows = new ArrayList<>();
+        for (int minutes : new int[] { 0, 0, 0, 5, 5, 9 }) {
+            rows.add(new Row(createSurvey(created.plusMinutes(minutes)), created.plusMinutes(minutes)));
+        }
+        rows.sort(Comparator.comparing(Row::time).thenComparing(row -> row.id().toString()));
+        Set<UUID> createdHere = Set.copyOf(rows.stream().map(Row::id).toList());
+
+        // Surveys of the other tests are listed too; the ones created here are older and come first
+        List<UUID> paged = new ArrayList<>();
+        String after = null;
+        do {
+            KeysetPage<SurveySummary> page = surveyService.listSurveys(after, 2);
+            page.items().stream().map(SurveySummary::id).filter(createdHere::contains).forEach(paged::add);
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertEquals(rows.stream().map(Row::id).toList(), paged);
+    }
+
+    @Test
+    void invalidCursorAndLimitAreRejected() {
+        UUID surveyId = createSurvey(TIME);
+
+        assertThrows(IllegalArgumentException.class, () -> submissionService.listSubmissions(surveyId, "not-a-cursor", 3));
+        assertThrows(IllegalArgumentException.class, () -> surveyService.listSurveys("bm90fGEtY3Vyc29y", 3));
+        assertThrows(IllegalArgumentException.class, () -> submissionService.listSubmissions(surveyId, null, 0));
+    }
+
+    private UUID createSurvey(LocalDateTime createdAt) {
+        UUID surveyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count) VALUES (?, 'keyset', ?, ?, 0)",
+                surveyId, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+        jdbcTemplate.update("INSERT INTO questions (id, text, survey_id) VALUES (?, 'Question', ?)", surveyId, surveyId);
+        jdbcTemplate.update("INSERT INTO question_options (question_id, ordinal, label) SELECT ?, g, g::text FROM generate_series(1, 3) g", surveyId);
+        return surveyId;
+    }
+
+    private record Row(UUID id, LocalDateTime time) {
+    }
+}
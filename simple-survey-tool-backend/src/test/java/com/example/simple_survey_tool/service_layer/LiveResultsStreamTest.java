@@ -0,0 +1,174 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.simple_survey_tool.model_layer.SubmitAnswersRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Opens a live results stream while submissions are committed concurrently, and checks that the snapshot
+ * plus the deltas add up to exactly the submitted answers: none missing, none counted twice.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LiveResultsStreamTest {
+
+    private static final int THREADS = 8;
+    private static final int OPTIONS = 5;
+    private static final long INTERVAL_MS = 100;
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("survey.live.interval-ms", () -> INTERVAL_MS);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void snapshotAndDeltasCountEverySubmissionOnce() throws Exception {
+        UUID surveyId = UUID.randomUUID();
+        UUID questionId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count) VALUES (?, 'live', now(), now(), 0)",
+                surveyId);
+        jdbcTemplate.update("INSERT INTO questions (id, text, survey_id) VALUES (?, 'Question', ?)", questionId, surveyId);
+        jdbcTemplate.update("INSERT INTO question_options (question_id, ordinal, label) SELECT ?, g, g::text FROM generate_series(1, ?) g",
+                questionId, OPTIONS);
+
+        AtomicLongArray submitted = new AtomicLongArray(OPTIONS);
+        AtomicBoolean stop = new AtomicBoolean();
+        List<String[]> events = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            List<Future<?>> submitters = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                submitters.add(pool.submit(() -> {
+                    for (int i = 0; !stop.get(); i++) {
+                        SubmitAnswersRequest request = new SubmitAnswersRequest();
+                        request.setSurveyId(surveyId.toString());
+                        request.setAnswers(Map.of(questionId, String.valueOf(1 + i % OPTIONS)));
+                        submissionService.submitAnswers(request);
+                        submitted.incrementAndGet(i % OPTIONS);
+                    }
+                    return null;
+                }));
+            }
+
+            // Subscribes while submissions are being committed, so some commit while the snapshot is taken
+            Thread.sleep(300);
+            Stream<String> lines = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/surveys/" + surveyId + "/results/stream")).build(),
+                    HttpResponse.BodyHandlers.ofLines()).body();
+            pool.submit(() -> readEvents(lines, events));
+            Thread.sleep(1_000);
+
+            stop.set(true);
+            for (Future<?> submitter : submitters) {
+                submitter.get(30, TimeUnit.SECONDS);
+            }
+            // The last submissions reach the stream with the next delta
+            Thread.sleep(10 * INTERVAL_MS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<String[]> received;
+        synchronized (events) {
+            received = new ArrayList<>(events);
+        }
+        assertFalse(received.isEmpty(), "No events received");
+        assertEquals("snapshot", received.get(0)[0]);
+
+        JsonNode snapshot = JSON.readTree(received.get(0)[1]);
+        long responses = snapshot.get("survey").get("responseCount").asLong();
+        Map<String, Long> counts = new HashMap<>();
+        snapshot.get("results").get(0).get("responses").fields()
+            .forEachRemaining(entry -> counts.merge(entry.getKey(), entry.getValue().asLong(), Long::sum));
+        for (String[] event : received.subList(1, received.size())) {
+            assertEquals("results", event[0]);
+            JsonNode delta = JSON.readTree(event[1]);
+            responses += delta.get("newResponses").asLong();
+            for (JsonNode result : delta.get("results")) {
+                result.get("responses").fields().forEachRemaining(entry -> counts.merge(entry.getKey(), entry.getValue().asLong(), Long::sum));
+            }
+        }
+
+        long total = 0;
+        for (int i = 0; i < OPTIONS; i++) {
+            assertEquals(submitted.get(i), counts.getOrDefault(String.valueOf(i + 1), 0L), "Option " + (i + 1));
+            total += submitted.get(i);
+        }
+        assertEquals(total, responses);
+    }
+
+    /**
+     * Collects the name and data of every event of a Server-Sent Events stream.
+     */
+    private static void readEvents(Stream<String> lines, List<String[]> events) {
+        String[] name = { "message" };
+        lines.forEach(line -> {
+            if (line.startsWith("event:")) {
+                name[0] = line.substring("event:".length()).trim();
+            } else if (line.startsWith("data:")) {
+                events.add(new String[] { name[0], line.substring("data:".length()) });
+            } else if (line.isEmpty()) {
+                name[0] = "message";
+            }
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Migrates a database holding ";;"-joined response options and text answers to the option table and ordinal
+ * answers, and checks that options keep their order and that only answers naming an existing option number
+ * become ordinals.
+ */
+class OptionOrdinalMigrationTest {
+
+    @Test
+    void existingOptionsAndAnswersAreConverted() throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            JdbcTemplate jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+            migrate(postgres, "6");
+
+            UUID surveyId = UUID.randomUUID();
+            UUID choice = UUID.randomUUID();
+            UUID freeForm = UUID.randomUUID();
+            jdbc.update("INSERT INTO surveys.surveys (id, description, created_at, updated_at, response_count) VALUES (?, 'legacy', now(), now(), 1)",
+                    surveyId);
+            jdbc.update("INSERT INTO surveys.questions (id, text, survey_id, response_options) VALUES (?, 'Choice', ?, 'Red;;Green;;Blue')",
+                    choice, surveyId);
+            jdbc.update("INSERT INTO surveys.questions (id, text, survey_id, response_options) VALUES (?, 'Free form', ?, '')",
+                    freeForm, surveyId);
+            UUID submissionId = UUID.randomUUID();
+            jdbc.update("INSERT INTO surveys.submissions (id, survey_id) VALUES (?, ?)", submissionId, surveyId);
+            // Option numbers in range, out of range, with a leading zero, and text of choice and free-form questions
+            Map<String, UUID> answers = Map.of("2", choice, "3", choice, "4", choice, "02", choice, "Blue", choice,
+                    "1", freeForm, "anything", freeForm);
+            answers.forEach((answer, questionId) -> jdbc.update(
+                    "INSERT INTO surveys.answers (id, submission_id, question_id, answer) VALUES (?, ?, ?, ?)",
+                    UUID.randomUUID(), submissionId, questionId, answer));
+
+            migrate(postgres, "7");
+
+            assertEquals(List.of(Map.of("ordinal", 1, "label", "Red"), Map.of("ordinal", 2, "label", "Green"),
+                    Map.of("ordinal", 3, "label", "Blue")),
+                jdbc.queryForList("SELECT ordinal::int AS ordinal, label FROM surveys.question_options WHERE question_id = ? ORDER BY ordinal", choice));
+            assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM surveys.question_options WHERE question_id = ?", Long.class, freeForm));
+
+            assertEquals(List.of("2", "3"), jdbc.queryForList(
+                    "SELECT option_ordinal::text FROM surveys.answers WHERE question_id = ? AND option_ordinal IS NOT NULL ORDER BY 1",
+                    String.class, choice));
+            assertEquals(List.of("02", "4", "Blue"), jdbc.queryForList(
+                    "SELECT answer FROM surveys.answers WHERE question_id = ? AND option_ordinal IS NULL ORDER BY 1", String.class, choice));
+            // A free-form question has no options, so no answer is an option number
+            assertEquals(List.of("1", "anything"), jdbc.queryForList(
+                    "SELECT answer FROM surveys.answers WHERE question_id = ? AND option_ordinal IS NULL ORDER BY 1", String.class, freeForm));
+
+            // Every answer has exactly one of the two values from now on
+            assertThrows(DataIntegrityViolationException.class, () -> jdbc.update(
+                    "INSERT INTO surveys.answers (id, submission_id, question_id, answer, option_ordinal) VALUES (?, ?, ?, '1', 1)",
+                    UUID.randomUUID(), submissionId, choice));
+
+            // The remaining migrations apply on top of the converted data
+            migrate(postgres, "latest");
+            assertEquals(7, jdbc.queryForObject("SELECT COUNT(*) FROM surveys.answers", Long.class));
+        }
+    }
+
+    private static void migrate(EmbeddedPostgres postgres, String target) {
+        Flyway.configure()
+            .dataSource(postgres.getPostgresDatabase())
+            .locations("classpath:/db/migration")
+            .schemas("surveys")
+            .target(target)
+            .load()
+            .migrate();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.simple_survey_tool.config.StatementCounter;
+import com.example.simple_survey_tool.config.StatementCountingDataSource;
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+
+class ParallelResultEngineTest {
+
+    private static final List<String> OPTIONS = List.of("Disagree", "Neutral", "Agree");
+
+    @Test
+    void parallelResultMatchesSerialResult() {
+        List<QuestionDefinition> questions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            questions.add(new QuestionDefinition(new UUID(1, i), new UUID(0, 1), "Question " + i, OPTIONS));
+        }
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            String answer = i % 11 == 0 ? "other " + i % 5 : String.valueOf(i % 3 + 1);
+            rows.add(new String[] { questions.get(i % questions.size()).id().toString(), answer });
+        }
+
+        List<Map<String, Object>> serial = summarize(new ParallelResultEngine(1, 0, 0), questions, rows);
+        List<Map<String, Object>> parallel = summarize(new ParallelResultEngine(4, 0, 0), questions, rows);
+
+        assertEquals(serial, parallel);
+    }
+
+    @Test
+    void statementsOfWorkersCountForCallingThread() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenAnswer(invocation -> mock(Statement.class));
+        Connection counting = new StatementCountingDataSource(target).getConnection();
+        List<QuestionDefinition> questions = List.of(new QuestionDefinition(new UUID(1, 0), new UUID(0, 1), "Question", OPTIONS));
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            rows.add(i);
+        }
+        StatementCounter statementCounter = new StatementCounter();
+        ParallelResultEngine engine = new ParallelResultEngine(4, 0, 0);
+
+        long before = statementCounter.current();
+        try {
+            engine.aggregate(new ResultAggregator(questions), rows, (partial, row) -> {
+                if (row % 1_000 == 0) {
+                    try {
+                        counting.createStatement().execute("SELECT 1");
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        } finally {
+            engine.shutdown();
+        }
+
+        assertEquals(100, statementCounter.current() - before);
+    }
+
+    private static List<Map<String, Object>> summarize(ParallelResultEngine engine, List<QuestionDefinition> questions, List<String[]> rows) {
+        try {
+            ResultAggregator aggregator = engine.aggregate(new ResultAggregator(questions), rows,
+                (partial, row) -> partial.add(UUID.fromString(row[0]), row[1]));
+            return engine.summary(aggregator);
+        } finally {
+            engine.shutdown();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.simple_survey_tool.model_layer.SubmitAnswersRequest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Fires thousands of concurrent submissions of one survey through {@link SubmissionService} against a local
+ * PostgreSQL, in both counter modes, and checks the stored response count exactly.
+ */
+@SpringBootTest
+class ResponseCounterDatabaseTest {
+
+    private static final int THREADS = 32;
+    private static final int SUBMISSIONS_PER_THREAD = 150;
+    private static final int QUESTIONS = 3;
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private ResponseCounter responseCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${survey.counter.mode:direct}")
+    private String configuredMode;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    /**
+     * The counter is a bean of the shared test context: later test classes get it in its configured mode.
+     */
+    @AfterEach
+    void restoreMode() {
+        ResponseCounter counter = AopTestUtils.getUltimateTargetObject(responseCounter);
+        ReflectionTestUtils.setField(counter, "mode", configuredMode);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "direct", "striped" })
+    void concurrentSubmissionsAreCountedExactly(String mode) throws Exception {
+        ResponseCounter counter = AopTestUtils.getUltimateTargetObject(responseCounter);
+        ReflectionTestUtils.setField(counter, "mode", mode);
+        UUID surveyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count) VALUES (?, ?, now(), now(), 0)",
+                surveyId, "counter " + mode);
+        List<UUID> questionIds = new ArrayList<>();
+        for (int i = 0; i < QUESTIONS; i++) {
+            UUID questionId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO questions (id, text, survey_id) VALUES (?, ?, ?)", questionId, "Question " + i, surveyId);
+            jdbcTemplate.update("INSERT INTO question_options (question_id, ordinal, label) SELECT ?, g, g::text FROM generate_series(1, 5) g", questionId);
+            questionIds.add(questionId);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> submitters = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                submitters.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < SUBMISSIONS_PER_THREAD; i++) {
+                        SubmitAnswersRequest request = new SubmitAnswersRequest();
+                        request.setSurveyId(surveyId.toString());
+                        request.setAnswers(Map.of(questionIds.get(i % QUESTIONS), String.valueOf(1 + i % 5)));
+                        submissionService.submitAnswers(request);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> submitter : submitters) {
+                submitter.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        counter.flush();
+
+        long total = (long) THREADS * SUBMISSIONS_PER_THREAD;
+        assertEquals(total, jdbcTemplate.queryForObject("SELECT response_count FROM surveys WHERE id = ?", Long.class, surveyId));
+        assertEquals(total, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM submissions WHERE survey_id = ?", Long.class, surveyId));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.example.simple_survey_tool.repository_layer.SurveyRepo;
+
+class ResponseCounterTest {
+
+    private static final int THREADS = 16;
+    private static final int SUBMISSIONS_PER_THREAD = 5_000;
+
+    @Test
+    void stripedCounterKeepsExactCountUnderConcurrentSubmissionsAndFlushes() throws Exception {
+        Map<UUID, AtomicLong> stored = new ConcurrentHashMap<>();
+        SurveyRepo surveyRepo = mock(SurveyRepo.class);
+        when(surveyRepo.incrementResponseCount(any(), anyInt(), any())).thenAnswer(invocation -> {
+            UUID id = invocation.getArgument(0);
+            int delta = invocation.getArgument(1);
+            stored.computeIfAbsent(id, key -> new AtomicLong()).addAndGet(delta);
+            return 1;
+        });
+        ResponseCounter counter = new ResponseCounter(surveyRepo);
+        ReflectionTestUtils.setField(counter, "mode", "striped");
+
+        UUID viralSurvey = UUID.randomUUID();
+        UUID otherSurvey = UUID.randomUUID();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean submitting = new AtomicBoolean(true);
+
+        // Flush continuously while submissions are running
+        Future<?> flusher = pool.submit(() -> {
+            while (submitting.get()) {
+                counter.flush();
+            }
+        });
+        List<Future<?>> submitters = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            submitters.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < SUBMISSIONS_PER_THREAD; i++) {
+                    counter.increment(i % 10 == 0 ? otherSurvey : viralSurvey, 1);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> submitter : submitters) {
+            submitter.get(30, TimeUnit.SECONDS);
+        }
+        submitting.set(false);
+        flusher.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+        counter.flush();
+
+        long total = (long) THREADS * SUBMISSIONS_PER_THREAD;
+        assertEquals(total / 10, stored.get(otherSurvey).get());
+        assertEquals(total - total / 10, stored.get(viralSurvey).get());
+        assertEquals(0, counter.pendingDelta(viralSurvey));
+    }
+
+    @Test
+    void failedFlushKeepsDeltaForNextFlush() {
+        UUID surveyId = UUID.randomUUID();
+        SurveyRepo surveyRepo = mock(SurveyRepo.class);
+        when(surveyRepo.incrementResponseCount(eq(surveyId), anyInt(), any()))
+            .thenThrow(new IllegalStateException("database unavailable"))
+            .thenReturn(1);
+        ResponseCounter counter = new ResponseCounter(surveyRepo);
+        ReflectionTestUtils.setField(counter, "mode", "striped");
+
+        counter.increment(surveyId, 3);
+        counter.flush();
+        assertEquals(3, counter.pendingDelta(surveyId));
+
+        counter.flush();
+        assertEquals(0, counter.pendingDelta(surveyId));
+    }
+
+    @Test
+    void stripedIncrementCountsOnlyCommittedTransactions() {
+        ResponseCounter counter = new ResponseCounter(mock(SurveyRepo.class));
+        ReflectionTestUtils.setField(counter, "mode", "striped");
+        UUID surveyId = UUID.randomUUID();
+
+        completeTransaction(() -> counter.increment(surveyId, 2), TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(0, counter.pendingDelta(surveyId));
+
+        completeTransaction(() -> counter.increment(surveyId, 3), TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(3, counter.pendingDelta(surveyId));
+    }
+
+    @Test
+    void idleSurveysAreRemovedAfterFlush() {
+        UUID surveyId = UUID.randomUUID();
+        SurveyRepo surveyRepo = mock(SurveyRepo.class);
+        when(surveyRepo.incrementResponseCount(eq(surveyId), anyInt(), any())).thenReturn(1);
+        ResponseCounter counter = new ResponseCounter(surveyRepo);
+        ReflectionTestUtils.setField(counter, "mode", "striped");
+        Map<?, ?> pending = (Map<?, ?>) ReflectionTestUtils.getField(counter, "pending");
+
+        counter.increment(surveyId, 1);
+        counter.flush();
+        assertTrue(pending.containsKey(surveyId), "Kept while it had increments in the last interval");
+
+        counter.flush();
+        assertTrue(pending.isEmpty());
+
+        counter.increment(surveyId, 1);
+        counter.flush();
+        assertEquals(0, counter.pendingDelta(surveyId));
+    }
+
+    /**
+     * Runs work in a simulated transaction and completes it with the given status.
+     */
+    private static void completeTransaction(Runnable work, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+            }
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
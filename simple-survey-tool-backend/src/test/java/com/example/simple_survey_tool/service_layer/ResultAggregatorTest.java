@@ -0,0 +1,63 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+
+class ResultAggregatorTest {
+
+    private static final List<String> OPTIONS = List.of("Disagree", "Neutral", "Agree");
+    private static final QuestionDefinition FIRST = new QuestionDefinition(new UUID(1, 1), new UUID(0, 1), "First", OPTIONS);
+    private static final QuestionDefinition SECOND = new QuestionDefinition(new UUID(1, 2), new UUID(0, 1), "Second", OPTIONS);
+
+    @Test
+    void countsOptionsByLabelAndOtherAnswersByValue() {
+        ResultAggregator aggregator = new ResultAggregator(List.of(FIRST, SECOND));
+        aggregator.add(FIRST.id(), "1");
+        aggregator.add(FIRST.id(), "3");
+        aggregator.add(FIRST.id(), "3");
+        aggregator.add(FIRST.id(), "4");
+        aggregator.add(FIRST.id(), "03");
+        aggregator.add(FIRST.id(), "free text", 2);
+        aggregator.add(new UUID(9, 9), "1");
+
+        List<Map<String, Object>> summary = aggregator.summary();
+
+        assertEquals(2, summary.size());
+        assertEquals("First", summary.get(0).get("questionText"));
+        assertEquals(OPTIONS, summary.get(0).get("responseOptions"));
+        assertEquals(Map.of("Disagree", 1L, "Agree", 2L, "4", 1L, "03", 1L, "free text", 2L), summary.get(0).get("responses"));
+        assertEquals(Map.of(), summary.get(1).get("responses"));
+    }
+
+    @Test
+    void mergedPartialsMatchSequentialCount() {
+        ResultAggregator sequential = new ResultAggregator(List.of(FIRST, SECOND));
+        ResultAggregator merged = new ResultAggregator(List.of(FIRST, SECOND));
+        ResultAggregator left = merged.newPartial();
+        ResultAggregator right = merged.newPartial();
+        for (int i = 0; i < 1_000; i++) {
+            UUID questionId = i % 2 == 0 ? FIRST.id() : SECOND.id();
+            String answer = i % 7 == 0 ? "other " + i % 3 : String.valueOf(i % 3 + 1);
+            sequential.add(questionId, answer);
+            (i < 400 ? left : right).add(questionId, answer);
+        }
+
+        merged.merge(left).merge(right);
+
+        assertEquals(sequential.summary(), merged.summary());
+    }
+
+    @Test
+    void rejectsMergeOfDifferentDefinition() {
+        ResultAggregator aggregator = new ResultAggregator(List.of(FIRST));
+        assertThrows(IllegalArgumentException.class, () -> aggregator.merge(new ResultAggregator(List.of(FIRST))));
+    }
+}
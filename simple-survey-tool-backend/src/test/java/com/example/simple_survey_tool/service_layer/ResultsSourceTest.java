@@ -0,0 +1,115 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.simple_survey_tool.model_layer.SubmitAnswersRequest;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Submits choice and free-form answers and checks that the results counted in the database ("aggregate") and
+ * read from answer_counts ("counts") are the same as those computed from every answer entity ("entities").
+ */
+@SpringBootTest
+class ResultsSourceTest {
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void allSourcesGiveTheSameResults() {
+        UUID surveyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count) VALUES (?, 'sources', now(), now(), 0)",
+                surveyId);
+        List<UUID> questions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UUID questionId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO questions (id, text, survey_id) VALUES (?, 'Question', ?)", questionId, surveyId);
+            jdbcTemplate.update("INSERT INTO question_options (question_id, ordinal, label) SELECT ?, g, g::text FROM generate_series(1, 4) g", questionId);
+            questions.add(questionId);
+        }
+        // An option left unanswered, free-form answers, and a question some submissions skip
+        String[] values = { "1", "2", "2", "3", "3", "3", "other", "other", "7" };
+        for (int i = 0; i < 60; i++) {
+            SubmitAnswersRequest request = new SubmitAnswersRequest();
+            request.setSurveyId(surveyId.toString());
+            request.setAnswers(i % 4 == 0
+                ? Map.of(questions.get(0), values[i % values.length], questions.get(1), values[(i * 5) % values.length])
+                : Map.of(questions.get(0), values[i % values.length], questions.get(1), values[(i * 5) % values.length],
+                        questions.get(2), values[(i * 7) % values.length]));
+            submissionService.submitAnswers(request);
+        }
+        SurveyDefinition definition = surveyService.getSurveyDefinition(surveyId);
+
+        Map<UUID, Map<String, Long>> expectedGroups = grouped("entities", surveyId);
+        List<Map<String, Object>> expectedSummary = summary("entities", definition);
+        assertEquals(60L, expectedGroups.get(questions.get(0)).values().stream().mapToLong(Long::longValue).sum());
+        for (String source : List.of("aggregate", "counts")) {
+            assertEquals(expectedGroups, grouped(source, surveyId), source);
+            assertEquals(expectedSummary, summary(source, definition), source);
+        }
+    }
+
+    private Map<UUID, Map<String, Long>> grouped(String source, UUID surveyId) {
+        String before = (String) ReflectionTestUtils.getField(surveyService, "resultsSource");
+        ReflectionTestUtils.setField(surveyService, "resultsSource", source);
+        try {
+            return surveyService.getGroupedAnswers(surveyId);
+        } finally {
+            ReflectionTestUtils.setField(surveyService, "resultsSource", before);
+        }
+    }
+
+    private List<Map<String, Object>> summary(String source, SurveyDefinition definition) {
+        String before = (String) ReflectionTestUtils.getField(surveyService, "resultsSource");
+        ReflectionTestUtils.setField(surveyService, "resultsSource", source);
+        try {
+            return surveyService.getResultSummary(definition);
+        } finally {
+            ReflectionTestUtils.setField(surveyService, "resultsSource", before);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RotatingBloomFilterTest {
+
+    @Test
+    void findsEveryAddedKeyAndFewOthers() {
+        // 4 generations of 1 Mbit: 100k keys in one generation (10 bits per key) give below 1% false positives
+        RotatingBloomFilter filter = new RotatingBloomFilter(512 * 1024, 4, 7);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("key-" + i);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("key-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 100_000; i < 200_000; i++) {
+            if (filter.mightContain("key-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(falsePositives / 100_000.0, filter.falsePositiveRate(), 0.005);
+        assertEquals(512 * 1024, filter.bytes());
+    }
+
+    @Test
+    void keepsKeysForAllButOneRotationOfTheWindow() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(4 * 1024, 4, 7);
+        filter.add("retry");
+
+        for (int i = 0; i < 3; i++) {
+            filter.rotate();
+            assertTrue(filter.mightContain("retry"));
+        }
+        filter.rotate();
+        assertFalse(filter.mightContain("retry"));
+        assertEquals(0, filter.falsePositiveRate());
+    }
+}
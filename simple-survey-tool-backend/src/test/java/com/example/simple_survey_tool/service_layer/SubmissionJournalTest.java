@@ -0,0 +1,113 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+class SubmissionJournalTest {
+
+    private static final int THREADS = 16;
+    private static final int PER_THREAD = 500;
+    private static final long SEGMENT_BYTES = 16 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void concurrentAppendsAreAllReplayedAfterRestart() throws Exception {
+        Path spillFile = directory.resolve("submissions.journal");
+        List<UUID> appended;
+        try (SubmissionJournal journal = new SubmissionJournal(spillFile, objectMapper, SEGMENT_BYTES)) {
+            appended = appendConcurrently(journal).stream().map(Appended::id).toList();
+        }
+
+        try (SubmissionJournal journal = new SubmissionJournal(spillFile, objectMapper, SEGMENT_BYTES)) {
+            List<UUID> replayed = journal.readAll().stream().map(PendingSubmission::id).toList();
+            assertEquals(Set.copyOf(appended), Set.copyOf(replayed));
+            assertEquals(appended.size(), replayed.size());
+
+            journal.removeReplayed();
+        }
+        try (SubmissionJournal journal = new SubmissionJournal(spillFile, objectMapper, SEGMENT_BYTES)) {
+            assertTrue(journal.readAll().isEmpty());
+        }
+    }
+
+    @Test
+    void committedSegmentsAreDeletedUnderSustainedLoad() throws Exception {
+        Path spillFile = directory.resolve("submissions.journal");
+        try (SubmissionJournal journal = new SubmissionJournal(spillFile, objectMapper, SEGMENT_BYTES)) {
+            List<Appended> first = appendConcurrently(journal);
+            assertTrue(segmentFiles().size() > 2, "Appends should span several segments");
+
+            // Committing everything but the newest entry keeps something outstanding all the time
+            Appended newest = first.stream().max((a, b) -> Long.compare(a.segment(), b.segment())).orElseThrow();
+            journal.committed(first.stream().filter(entry -> entry != newest).map(Appended::segment).toList());
+            assertEquals(Set.of(spillFile.getFileName() + "." + newest.segment()), segmentFiles());
+
+            List<Appended> second = appendConcurrently(journal);
+            journal.committed(List.of(newest.segment()));
+            journal.committed(second.stream().map(Appended::segment).toList());
+            assertEquals(1, segmentFiles().size());
+        }
+        try (SubmissionJournal journal = new SubmissionJournal(spillFile, objectMapper, SEGMENT_BYTES)) {
+            assertTrue(journal.readAll().isEmpty());
+        }
+    }
+
+    private List<Appended> appendConcurrently(SubmissionJournal journal) throws Exception {
+        List<Appended> appended = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        PendingSubmission submission = new PendingSubmission(UUID.randomUUID(), UUID.randomUUID(), LocalDateTime.now(),
+                                Map.of(UUID.randomUUID(), "answer " + i));
+                        appended.add(new Appended(submission.id(), journal.append(submission)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return appended;
+    }
+
+    private Set<String> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).collect(Collectors.toSet());
+        }
+    }
+
+    private record Appended(UUID id, long segment) {
+    }
+}
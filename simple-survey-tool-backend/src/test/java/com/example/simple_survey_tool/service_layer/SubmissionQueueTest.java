@@ -0,0 +1,107 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Runs the queued ingestion against a local PostgreSQL and checks that a submission whose survey was deleted
+ * before it was written is dropped, and the writers go on with the following submissions.
+ */
+@SpringBootTest
+class SubmissionQueueTest {
+
+    private static final long MAX_WAIT_MS = 10_000;
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+
+    @Autowired
+    private SubmissionQueue submissionQueue;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws Exception {
+        Path spillFile = Files.createTempDirectory("ingestion").resolve("submissions.journal");
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("survey.ingestion.mode", () -> "queued");
+        registry.add("survey.ingestion.writer-threads", () -> 1);
+        registry.add("survey.ingestion.spill-file", spillFile::toString);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void submissionOfDeletedSurveyIsDroppedWithoutBlockingTheQueue() throws Exception {
+        UUID deleted = createSurvey("deleted");
+        UUID kept = createSurvey("kept");
+        // Cached while the survey existed, as when the submission was accepted
+        surveyService.getSurveyDefinition(deleted);
+        surveyService.deleteSurveyById(deleted);
+
+        assertTrue(submissionQueue.offer(submission(deleted)));
+        PendingSubmission after = submission(kept);
+        assertTrue(submissionQueue.offer(after));
+
+        long start = System.nanoTime();
+        while (count("SELECT COUNT(*) FROM submissions WHERE id = ?", after.id()) == 0
+                && System.nanoTime() - start < MAX_WAIT_MS * 1_000_000) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, count("SELECT COUNT(*) FROM submissions WHERE id = ?", after.id()), "Submission after the dropped one not written");
+        assertEquals(0, count("SELECT COUNT(*) FROM submissions WHERE survey_id = ?", deleted));
+        assertEquals(1, count("SELECT response_count FROM surveys WHERE id = ?", kept));
+    }
+
+    private UUID createSurvey(String description) {
+        UUID surveyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count) VALUES (?, ?, now(), now(), 0)",
+                surveyId, description);
+        jdbcTemplate.update("INSERT INTO questions (id, text, survey_id) VALUES (?, 'Question', ?)", surveyId, surveyId);
+        jdbcTemplate.update("INSERT INTO question_options (question_id, ordinal, label) SELECT ?, g, g::text FROM generate_series(1, 3) g", surveyId);
+        return surveyId;
+    }
+
+    private static PendingSubmission submission(UUID surveyId) {
+        // The question of each test survey has the survey's ID
+        return new PendingSubmission(UUID.randomUUID(), surveyId, LocalDateTime.now(), Map.of(surveyId, "1"));
+    }
+
+    private long count(String sql, UUID id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.simple_survey_tool.config.CacheConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Checks the ETags and conditional requests of the survey endpoints against a local PostgreSQL.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SurveyHttpCachingTest {
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void surveyHasResponseCountAndLastUpdateAndIsRevalidated() throws Exception {
+        JsonNode saved = createSurvey();
+        String path = "/" + saved.get("id").asText();
+
+        HttpResponse<String> response = get(path, null);
+        assertEquals(200, response.statusCode());
+        JsonNode survey = JSON.readTree(response.body());
+        assertEquals(0, survey.get("response_count").asInt());
+        assertNotNull(survey.get("updated_at"));
+        assertEquals(saved.get("questions").get(0).get("id"), survey.get("questions").get(0).get("id"));
+        assertEquals(saved.get("id"), survey.get("questions").get(0).get("survey_id"));
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+        assertEquals("no-cache", response.headers().firstValue("Cache-Control").orElseThrow());
+
+        assertEquals(304, get(path, etag).statusCode());
+
+        submit(saved);
+        response = get(path, etag);
+        assertEquals(200, response.statusCode(), "Survey not modified by a submission");
+        assertEquals(1, JSON.readTree(response.body()).get("response_count").asInt());
+    }
+
+    @Test
+    void resultsAreRevalidatedAndCachedPerSubmissionCount() throws Exception {
+        JsonNode saved = createSurvey();
+        String path = "/" + saved.get("id").asText() + "/results";
+        Cache cache = cacheManager.getCache(CacheConfig.SURVEY_RESULTS);
+
+        HttpResponse<String> response = get(path, null);
+        assertEquals(200, response.statusCode());
+        String etag = response.headers().firstValue("ETag").orElseThrow();
+        assertEquals("no-cache", response.headers().firstValue("Cache-Control").orElseThrow());
+        assertNotNull(cache.get(etag), "Results not cached under their ETag");
+
+        response = get(path, etag);
+        assertEquals(304, response.statusCode());
+        assertEquals("", response.body());
+        assertEquals(etag, response.headers().firstValue("ETag").orElseThrow());
+
+        submit(saved);
+        response = get(path, etag);
+        assertEquals(200, response.statusCode(), "Results not modified by a submission");
+        String newEtag = response.headers().firstValue("ETag").orElseThrow();
+        assertNotEquals(etag, newEtag);
+        JsonNode results = JSON.readTree(response.body());
+        assertEquals(1, results.get("results").get(0).get("responses").get("Yes").asInt());
+        // The cached bytes of the old version are never served for the new one
+        assertNotNull(cache.get(newEtag));
+        assertNotEquals(new String((byte[]) cache.get(etag).get()), response.body());
+
+        assertEquals(304, get(path, newEtag).statusCode());
+    }
+
+    JsonNode createSurvey() throws Exception {
+        ObjectNode survey = JSON.createObjectNode();
+        survey.put("description", "Caching survey");
+        ObjectNode question = survey.withArray("questions").addObject();
+        question.put("text", "Question 1");
+        question.putArray("responseOptions").add("Yes").add("No");
+        return JSON.readTree(post("/", survey.toString()).body());
+    }
+
+    void submit(JsonNode survey) throws Exception {
+        ObjectNode submission = JSON.createObjectNode();
+        submission.put("surveyId", survey.get("id").asText());
+        submission.putObject("answers").put(survey.get("questions").get(0).get("id").asText(), "1");
+        assertEquals(200, post("/submit", submission.toString()).statusCode());
+    }
+
+    HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/surveys" + path));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return HTTP.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpResponse<String> post(String path, String body) throws Exception {
+        return HTTP.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/surveys" + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.QuestionDefinition;
+import com.example.simple_survey_tool.model_layer.ResultsQuery;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+
+class SurveyIndexTest {
+
+    private static final List<String> OPTIONS = List.of("Disagree", "Neutral", "Agree");
+    private static final UUID SURVEY = new UUID(0, 1);
+    private static final QuestionDefinition FIRST = new QuestionDefinition(new UUID(1, 1), SURVEY, "First", OPTIONS);
+    private static final QuestionDefinition SECOND = new QuestionDefinition(new UUID(1, 2), SURVEY, "Second", OPTIONS);
+    private static final SurveyDefinition DEFINITION = new SurveyDefinition(SURVEY, "Survey", LocalDateTime.MIN, List.of(FIRST, SECOND));
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void filtersAndCrossTabsMatchBruteForceCounts() {
+        SurveyIndex index = new SurveyIndex(DEFINITION);
+        index.startLoading();
+        long[][] expected = new long[3][3];
+        long expectedMatching = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int first = i % 3 + 1;
+            int second = i % 7 % 3 + 1;
+            int row = index.addRow(START.plusMinutes(i));
+            index.addAnswer(row, FIRST.id(), String.valueOf(first));
+            index.addAnswer(row, SECOND.id(), i % 10 == 0 ? "free text" : String.valueOf(second));
+            if (first != 2 && i >= 1_000 && i % 10 != 0) {
+                expected[first - 1][second - 1]++;
+            }
+            if (first != 2 && i >= 1_000) {
+                expectedMatching++;
+            }
+        }
+        index.finishLoading(ids -> List.of());
+
+        Map<String, Object> response = index.query(new ResultsQuery(
+            List.of(new ResultsQuery.Filter(FIRST.id(), List.of("1", "Agree"))),
+            START.plusMinutes(1_000), null,
+            List.of(new ResultsQuery.CrossTab(FIRST.id(), SECOND.id()))));
+
+        assertEquals(expectedMatching, response.get("matchingResponses"));
+        long[][] counts = (long[][]) ((List<Map<String, Object>>) response.get("crossTabs")).get(0).get("counts");
+        for (int r = 0; r < 3; r++) {
+            assertArrayEquals(expected[r], counts[r]);
+        }
+        Map<String, Object> firstResult = ((List<Map<String, Object>>) response.get("results")).get(0);
+        assertEquals(Map.of("Disagree", expected[0][0] + expected[0][1] + expected[0][2] + freeText(0),
+            "Agree", expected[2][0] + expected[2][1] + expected[2][2] + freeText(2)), firstResult.get("responses"));
+    }
+
+    /**
+     * Rows with a free-text second answer among i >= 1000 whose first answer is the given option index.
+     */
+    private static long freeText(int firstOption) {
+        long count = 0;
+        for (int i = 1_000; i < 10_000; i += 10) {
+            if (i % 3 == firstOption) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submissionsRecordedWhileLoadingAreAddedUnlessAlreadyLoaded() {
+        SurveyIndex index = new SurveyIndex(DEFINITION);
+        PendingSubmission loaded = new PendingSubmission(new UUID(2, 1), SURVEY, START, Map.of(FIRST.id(), "1"));
+        PendingSubmission missed = new PendingSubmission(new UUID(2, 2), SURVEY, START, Map.of(FIRST.id(), "3"));
+
+        index.record(List.of(loaded));
+        index.startLoading();
+        index.record(List.of(loaded, missed));
+        index.addAnswer(index.addRow(START), FIRST.id(), "1");
+        index.finishLoading(ids -> List.of(loaded.id()));
+        index.record(List.of(new PendingSubmission(new UUID(2, 3), SURVEY, START, Map.of(FIRST.id(), "3"))));
+
+        Map<String, Object> response = index.query(new ResultsQuery(null, null, null, null));
+
+        assertEquals(3L, response.get("matchingResponses"));
+        assertEquals(Map.of("Disagree", 1L, "Agree", 2L), ((List<Map<String, Object>>) response.get("results")).get(0).get("responses"));
+    }
+
+    @Test
+    void rejectsUnknownAnswers() {
+        SurveyIndex index = new SurveyIndex(DEFINITION);
+        index.startLoading();
+        index.finishLoading(ids -> List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> index.query(new ResultsQuery(
+            List.of(new ResultsQuery.Filter(FIRST.id(), List.of("Maybe"))), null, null, null)));
+    }
+}
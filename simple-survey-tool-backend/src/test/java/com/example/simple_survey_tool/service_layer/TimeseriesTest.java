@@ -0,0 +1,170 @@
+package com.example.simple_survey_tool.service_layer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.simple_survey_tool.model_layer.PendingSubmission;
+import com.example.simple_survey_tool.model_layer.SurveyDefinition;
+import com.example.simple_survey_tool.model_layer.TimeBucket;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Records submissions at chosen times and checks the minute, hour and day buckets of the timeseries,
+ * and that the rollup migration backfills the rollups from the submissions stored before it.
+ */
+@SpringBootTest
+class TimeseriesTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    private static final EmbeddedPostgres postgres = startDatabase();
+
+    @Autowired
+    private TimeseriesService timeseriesService;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static EmbeddedPostgres startDatabase() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres") + "&currentSchema=surveys");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void submissionsAreCountedInTheirBuckets() {
+        UUID surveyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO surveys (id, description, created_at, updated_at, response_count) VALUES (?, 'timeseries', now(), now(), 0)",
+                surveyId);
+        jdbcTemplate.update("INSERT INTO questions (id, text, survey_id) VALUES (?, 'Question', ?)", surveyId, surveyId);
+        jdbcTemplate.update("INSERT INTO question_options (question_id, ordinal, label) SELECT ?, g, g::text FROM generate_series(1, 3) g", surveyId);
+        // Two calls touch the same minute, as two transactions would
+        timeseriesService.recordSubmissions(List.of(
+            submission(surveyId, TIME.plusSeconds(10), "1"),
+            submission(surveyId, TIME.plusSeconds(50), "2"),
+            submission(surveyId, TIME.plusSeconds(65), "2")));
+        timeseriesService.recordSubmissions(List.of(
+            submission(surveyId, TIME.plusSeconds(59), "other"),
+            submission(surveyId, TIME.plusMinutes(90), "3"),
+            submission(surveyId, TIME.plusHours(23), "1")));
+        SurveyDefinition definition = surveyService.getSurveyDefinition(surveyId);
+
+        List<Map<String, Object>> minutes = buckets(definition, TimeBucket.MINUTE, TIME, TIME.plusMinutes(2));
+        assertEquals(2, minutes.size());
+        assertBucket(minutes.get(0), TIME, 3, Map.of("1", 1L, "2", 1L, "other", 1L));
+        assertBucket(minutes.get(1), TIME.plusMinutes(1), 1, Map.of("2", 1L));
+        // The end of the range is exclusive
+        assertEquals(1, buckets(definition, TimeBucket.MINUTE, TIME, TIME.plusMinutes(1)).size());
+
+        List<Map<String, Object>> hours = buckets(definition, TimeBucket.HOUR, TIME.minusHours(10), TIME.plusDays(1));
+        assertEquals(3, hours.size());
+        assertBucket(hours.get(0), TIME, 4, Map.of("1", 1L, "2", 2L, "other", 1L));
+        assertBucket(hours.get(1), TIME.plusHours(1), 1, Map.of("3", 1L));
+        assertBucket(hours.get(2), TIME.plusHours(23), 1, Map.of("1", 1L));
+
+        // A start inside a bucket is moved to the start of that bucket
+        List<Map<String, Object>> days = buckets(definition, TimeBucket.DAY, TIME, TIME.plusDays(2));
+        assertEquals(2, days.size());
+        assertBucket(days.get(0), TIME.toLocalDate().atStartOfDay(), 5, Map.of("1", 1L, "2", 2L, "3", 1L, "other", 1L));
+        assertBucket(days.get(1), TIME.toLocalDate().plusDays(1).atStartOfDay(), 1, Map.of("1", 1L));
+
+        assertThrows(IllegalArgumentException.class, () -> timeseriesService.getTimeseries(definition, TimeBucket.MINUTE, TIME, TIME));
+        assertThrows(IllegalArgumentException.class,
+                () -> timeseriesService.getTimeseries(definition, TimeBucket.MINUTE, TIME, TIME.plusYears(1)));
+    }
+
+    @Test
+    void rollupMigrationBackfillsStoredSubmissions() throws Exception {
+        try (EmbeddedPostgres legacy = EmbeddedPostgres.start()) {
+            JdbcTemplate jdbc = new JdbcTemplate(legacy.getPostgresDatabase());
+            migrate(legacy, "4");
+
+            UUID surveyId = UUID.randomUUID();
+            UUID questionId = UUID.randomUUID();
+            jdbc.update("INSERT INTO surveys.surveys (id, description, created_at, updated_at, response_count) VALUES (?, 'legacy', now(), now(), 3)",
+                    surveyId);
+            jdbc.update("INSERT INTO surveys.questions (id, text, survey_id, response_options) VALUES (?, 'Question', ?, 'Yes;;No')",
+                    questionId, surveyId);
+            String[][] submissions = { { "10", "Yes" }, { "50", "No" }, { "70", "Yes" } };
+            for (String[] submission : submissions) {
+                UUID submissionId = UUID.randomUUID();
+                jdbc.update("INSERT INTO surveys.submissions (id, survey_id, submitted_at) VALUES (?, ?, ?)",
+                        submissionId, surveyId, Timestamp.valueOf(TIME.plusSeconds(Long.parseLong(submission[0]))));
+                jdbc.update("INSERT INTO surveys.answers (id, submission_id, question_id, answer) VALUES (?, ?, ?, ?)",
+                        UUID.randomUUID(), submissionId, questionId, submission[1]);
+            }
+
+            migrate(legacy, "5");
+
+            assertEquals(List.of(Map.of("bucket_start", Timestamp.valueOf(TIME), "submissions", 2L),
+                    Map.of("bucket_start", Timestamp.valueOf(TIME.plusMinutes(1)), "submissions", 1L)),
+                jdbc.queryForList("SELECT bucket_start, submissions FROM surveys.submission_rollups WHERE survey_id = ? ORDER BY 1", surveyId));
+            assertEquals(List.of(Map.of("bucket_start", Timestamp.valueOf(TIME), "option_key", "No", "count", 1L),
+                    Map.of("bucket_start", Timestamp.valueOf(TIME), "option_key", "Yes", "count", 1L),
+                    Map.of("bucket_start", Timestamp.valueOf(TIME.plusMinutes(1)), "option_key", "Yes", "count", 1L)),
+                jdbc.queryForList("SELECT bucket_start, option_key, count FROM surveys.answer_rollups WHERE survey_id = ? AND question_id = ? ORDER BY 1, 2",
+                        surveyId, questionId));
+        }
+    }
+
+    private static void migrate(EmbeddedPostgres database, String target) {
+        Flyway.configure()
+            .dataSource(database.getPostgresDatabase())
+            .locations("classpath:/db/migration")
+            .schemas("surveys")
+            .target(target)
+            .load()
+            .migrate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> buckets(SurveyDefinition definition, TimeBucket bucket, LocalDateTime from, LocalDateTime to) {
+        return (List<Map<String, Object>>) timeseriesService.getTimeseries(definition, bucket, from, to).get("buckets");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertBucket(Map<String, Object> bucket, LocalDateTime start, long submissions, Map<String, Long> responses) {
+        assertEquals(start, bucket.get("bucketStart"));
+        assertEquals(submissions, bucket.get("submissions"));
+        List<Map<String, Object>> results = (List<Map<String, Object>>) bucket.get("results");
+        assertEquals(responses, results.get(0).get("responses"));
+    }
+
+    private static PendingSubmission submission(UUID surveyId, LocalDateTime submittedAt, String answer) {
+        // The question of the test survey has the survey's ID
+        return new PendingSubmission(UUID.randomUUID(), surveyId, submittedAt, Map.of(surveyId, answer));
+    }
+}
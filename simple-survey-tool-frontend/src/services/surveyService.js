@@ -2,10 +2,13 @@ import axios from 'axios';
 
 const API_URL = process.env.VUE_APP_BACKEND_URL || 'http://localhost:8080/api/surveys';
 
+// Sends the backend's cookies cross-origin, so results read after a submission include it
+const api = axios.create({ withCredentials: true });
+
 export const surveyService = {
   async getSurveyResults(surveyId) {
     try {
-      const response = await axios.get(`${API_URL}/${surveyId}/results`);
+      const response = await api.get(`${API_URL}/${surveyId}/results`);
       return response.data;
     } catch (error) {
       console.error("Error fetching survey results:", error);
@@ -16,7 +19,7 @@ export const surveyService = {
 
 // Function to fetch the survey by its ID
 export const fetchSurveyById = async (surveyId) => {
-  const response = await axios.get(`${API_URL}/${surveyId}`);
+  const response = await api.get(`${API_URL}/${surveyId}`);
   if (response.status === 200) {
     return response.data; // return the survey data
   } else {
@@ -27,7 +30,7 @@ export const fetchSurveyById = async (surveyId) => {
 // Function to submit answers to the survey
 export const submitAnswersToSurvey = async (surveyId, answers) => {
   try {
-    const response = await axios.post(
+    const response = await api.post(
       `${API_URL}/submit`,
       { surveyId, answers },
       {